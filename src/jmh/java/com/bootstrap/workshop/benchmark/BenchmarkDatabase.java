@@ -0,0 +1,39 @@
+package com.bootstrap.workshop.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * JDBC connection for database benchmarks.
+ * Configured with BENCH_JDBC_URL / BENCH_JDBC_USER / BENCH_JDBC_PASSWORD
+ * (environment variables, inherited by JMH forks); defaults match
+ * application.properties. Benchmarks work in the scratch schema "bench".
+ */
+final class BenchmarkDatabase {
+
+    static final String SCHEMA = "bench";
+
+    private BenchmarkDatabase() {
+    }
+
+    static Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(
+                env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/workshop?reWriteBatchedInserts=true"),
+                env("BENCH_JDBC_USER", "workshop"),
+                env("BENCH_JDBC_PASSWORD", "workshop"));
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    static Connection connectToSchema() throws SQLException {
+        Connection connection = connect();
+        connection.setSchema(SCHEMA);
+        return connection;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,92 @@
+package com.bootstrap.workshop.benchmark;
+
+import com.bootstrap.workshop.dto.TransactionResponse;
+import com.bootstrap.workshop.entity.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning transactions into API responses: entity -> DTO mapping
+ * (as in TransferProcessor/TransactionService.toResponse) and JSON
+ * serialization of one response and of a history page.
+ *
+ * ./mvnw -Pbenchmark compile exec:exec -Djmh.args="DtoMappingBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_000);
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Transaction transaction;
+    private List<Transaction> page;
+    private List<TransactionResponse> responses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        transaction = transaction(1);
+        page = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            page.add(transaction(i));
+        }
+        responses = page.stream().map(DtoMappingBenchmark::toResponse).toList();
+    }
+
+    @Benchmark
+    public TransactionResponse map() {
+        return toResponse(transaction);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(toResponse(transaction));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public List<TransactionResponse> mapPage() {
+        return page.stream().map(DtoMappingBenchmark::toResponse).toList();
+    }
+
+    private static Transaction transaction(long id) {
+        Transaction transaction = new Transaction("abc123def456789a", "xyz789ghi012345b",
+                new BigDecimal("125.5000"), "idempotency-key-" + id);
+        transaction.setId(id);
+        transaction.markSuccess();
+        return transaction;
+    }
+
+    // Same mapping as TransferProcessor.toResponse; the timestamp normally comes from @PrePersist
+    private static TransactionResponse toResponse(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getFromWalletAddress(),
+                transaction.getToWalletAddress(),
+                transaction.getAmount(),
+                transaction.getStatus(),
+                Objects.requireNonNullElse(transaction.getTimestamp(), TIMESTAMP),
+                transaction.getIdempotencyKey(),
+                transaction.getErrorMessage());
+    }
+}
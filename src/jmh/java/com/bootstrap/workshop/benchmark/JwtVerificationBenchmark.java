@@ -0,0 +1,74 @@
+package com.bootstrap.workshop.benchmark;
+
+import com.bootstrap.workshop.config.JwtProperties;
+import com.bootstrap.workshop.entity.Role;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU of JWT authentication in JwtAuthFilter.
+ * legacy: validateToken + extractUserId + extractRole, each building a new
+ * parser and signing key (three HMAC verifications per request).
+ * parseOnce: one verification with the prebuilt key/parser.
+ * cached: same token seen again, served from the verified-token cache.
+ *
+ * ./mvnw -Pbenchmark compile exec:exec -Djmh.args="JwtVerificationBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-signing-must-be-at-least-32-chars";
+
+    private JwtService parseOnce;
+    private JwtService cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        parseOnce = new JwtService(new JwtProperties(SECRET, 3_600_000, 0));
+        cached = new JwtService(new JwtProperties(SECRET, 3_600_000, 10_000));
+        User user = new User("bench@example.com", "Bench", null, "Bank", "ACC", "Addr");
+        user.setId(42L);
+        user.setRole(Role.USER);
+        token = parseOnce.generateToken(user);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token) != null);
+        blackhole.consume(Long.parseLong(legacyParse(token).getSubject()));
+        blackhole.consume(legacyParse(token).get("role", String.class));
+    }
+
+    @Benchmark
+    public Object parseOnce() {
+        return parseOnce.verify(token);
+    }
+
+    @Benchmark
+    public Object cached() {
+        return cached.verify(token);
+    }
+
+    // What JwtService did per call before the parser and key were prebuilt
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,160 @@
+package com.bootstrap.workshop.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.bootstrap.workshop.config.BalanceCacheProperties;
+import com.bootstrap.workshop.config.ObservabilityProperties;
+import com.bootstrap.workshop.dto.WalletResponse;
+import com.bootstrap.workshop.observability.ObservabilityAspect;
+import com.bootstrap.workshop.service.WalletBalanceCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-call overhead of ObservabilityAspect on a trivial service method
+ * (WalletBalanceCache.get with caching disabled), through a real Spring AOP
+ * proxy.
+ * direct: no aspect.
+ * legacy: the previous aspect (span per call, Arrays.toString of the args
+ * for INFO logs, meters looked up through builders on every call).
+ * sampled: current aspect at the default 10% span sampling.
+ * allSpans: current aspect creating a span for every call.
+ * Loggers are at WARN so neither variant writes output; the legacy one
+ * still formats its arguments eagerly, as it did in production.
+ * Spans go through a real OpenTelemetry SDK tracer (always-on sampler, no
+ * exporter), so a span costs what it does in production minus the export;
+ * with Tracer.NOOP sampled and allSpans would measure the same work.
+ *
+ * ./mvnw -Pbenchmark compile exec:exec -Djmh.args="ObservabilityAspectBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObservabilityAspectBenchmark {
+
+    private static final WalletResponse WALLET = new WalletResponse(
+            1L, "abc123def456789a", BigDecimal.TEN, LocalDateTime.of(2026, 1, 1, 0, 0));
+    private static final Function<Long, WalletResponse> LOADER = id -> WALLET;
+
+    private WalletBalanceCache direct;
+    private WalletBalanceCache legacy;
+    private WalletBalanceCache sampled;
+    private WalletBalanceCache allSpans;
+    private SdkTracerProvider tracerProvider;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tracerProvider = SdkTracerProvider.builder().setSampler(Sampler.alwaysOn()).build();
+        Tracer tracer = new OtelTracer(tracerProvider.get("benchmark"), new OtelCurrentTraceContext(), event -> {
+        });
+        direct = new WalletBalanceCache(new BalanceCacheProperties(false, 1, 1), meterRegistry);
+        legacy = proxy(new LegacyObservabilityAspect(tracer, meterRegistry));
+        sampled = proxy(new ObservabilityAspect(tracer, meterRegistry, new ObservabilityProperties(0.1)));
+        allSpans = proxy(new ObservabilityAspect(tracer, meterRegistry, new ObservabilityProperties(1.0)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Benchmark
+    public WalletResponse direct() {
+        return direct.get(1L, LOADER);
+    }
+
+    @Benchmark
+    public WalletResponse legacy() {
+        return legacy.get(1L, LOADER);
+    }
+
+    @Benchmark
+    public WalletResponse sampled() {
+        return sampled.get(1L, LOADER);
+    }
+
+    @Benchmark
+    public WalletResponse allSpans() {
+        return allSpans.get(1L, LOADER);
+    }
+
+    private WalletBalanceCache proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(direct);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    /**
+     * ObservabilityAspect as it was before meters were cached and spans sampled.
+     */
+    @Aspect
+    public static class LegacyObservabilityAspect {
+
+        private static final org.slf4j.Logger log = LoggerFactory.getLogger(LegacyObservabilityAspect.class);
+
+        private final Tracer tracer;
+        private final MeterRegistry meterRegistry;
+
+        public LegacyObservabilityAspect(Tracer tracer, MeterRegistry meterRegistry) {
+            this.tracer = tracer;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Around("execution(public * com.bootstrap.workshop.service.*.*(..))")
+        public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+            String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String methodName = joinPoint.getSignature().getName();
+            Span newSpan = tracer.nextSpan().name(className + "." + methodName);
+            try (Tracer.SpanInScope ws = tracer.withSpan(newSpan.start())) {
+                log.info("Entering {}.{} with args: {}", className, methodName,
+                        Arrays.toString(joinPoint.getArgs()));
+                long start = System.nanoTime();
+                try {
+                    Object result = joinPoint.proceed();
+                    meterRegistry.counter("method.exec.count", "class", className, "method", methodName,
+                            "result", "success").increment();
+                    return result;
+                } catch (Throwable t) {
+                    meterRegistry.counter("method.exec.count", "class", className, "method", methodName,
+                            "result", t.getClass().getSimpleName()).increment();
+                    throw t;
+                } finally {
+                    long duration = System.nanoTime() - start;
+                    Timer.builder("method.exec.time")
+                            .tag("class", className)
+                            .tag("method", methodName)
+                            .register(meterRegistry)
+                            .record(duration, TimeUnit.NANOSECONDS);
+                    log.info("Exiting {}.{} - Duration: {} ms", className, methodName,
+                            TimeUnit.NANOSECONDS.toMillis(duration));
+                    newSpan.end();
+                }
+            }
+        }
+    }
+}
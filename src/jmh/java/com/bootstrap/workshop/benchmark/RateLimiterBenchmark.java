@@ -0,0 +1,126 @@
+package com.bootstrap.workshop.benchmark;
+
+import com.bootstrap.workshop.config.RateLimitProperties;
+import com.bootstrap.workshop.config.RateLimitProperties.KeyType;
+import com.bootstrap.workshop.config.RateLimitProperties.Policy;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.ratelimit.InMemoryRateLimitStore;
+import com.bootstrap.workshop.ratelimit.RateLimitFilter;
+import com.bootstrap.workshop.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of rate limiting, which must stay well under a microsecond.
+ * hotKey: store only, every thread hits the same bucket (worst-case CAS contention).
+ * spreadKeys: store only, threads pick among "keys" buckets (many users).
+ * filter: the whole RateLimitFilter for an authenticated GET that falls
+ * through to the last of four policies (policy matching, key building and
+ * the bucket CAS), with proxy-backed servlet stubs and an empty chain.
+ *
+ * ./mvnw -Pbenchmark compile exec:exec -Djmh.args="RateLimiterBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    public int keys;
+
+    private RateLimitStore store;
+    private Policy policy;
+    private String[] keyNames;
+    private RateLimitFilter filter;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        // Large enough that the benchmark measures the grant path, not rejections
+        policy = new Policy("bench", null, "/**", Policy.MAX_CAPACITY, 1_000, RateLimitProperties.KeyType.USER);
+        RateLimitProperties properties = new RateLimitProperties(true, keys * 2L, List.of(policy));
+        store = new InMemoryRateLimitStore(properties, new SimpleMeterRegistry());
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "bench:user:" + i;
+            store.tryAcquire(keyNames[i], policy);
+        }
+
+        // Same shape as the default policies, with capacities that never reject
+        RateLimitProperties filterProperties = new RateLimitProperties(true, keys * 2L, List.of(
+                new Policy("transfer", "POST", "/api/v1/transactions", Policy.MAX_CAPACITY, 1_000, KeyType.USER),
+                new Policy("bulk-transfer", "POST", "/api/v1/transactions/batch", Policy.MAX_CAPACITY, 1_000,
+                        KeyType.USER),
+                new Policy("auth", null, "/api/v1/auth/**", Policy.MAX_CAPACITY, 1_000, KeyType.IP),
+                new Policy("api", null, "/api/**", Policy.MAX_CAPACITY, 1_000, KeyType.USER)));
+        filter = new RateLimitFilter(filterProperties,
+                new InMemoryRateLimitStore(filterProperties, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        request = stub(HttpServletRequest.class, Map.of(
+                "getMethod", "GET",
+                "getRequestURI", "/api/v1/wallets/me",
+                "getContextPath", "",
+                "getRemoteAddr", "10.0.0.1",
+                "getDispatcherType", DispatcherType.REQUEST));
+        response = stub(HttpServletResponse.class, Map.of());
+        User user = new User("bench@example.com", "Bench", null, "Bank", "ACC", "Addr");
+        user.setId(1L);
+        // Visible to every benchmark thread, as the JWT filter's context would be per request
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return store.tryAcquire(keyNames[0], policy);
+    }
+
+    @Benchmark
+    public long spreadKeys() {
+        return store.tryAcquire(keyNames[ThreadLocalRandom.current().nextInt(keys)], policy);
+    }
+
+    @Benchmark
+    public HttpServletResponse filter() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+        });
+        return response;
+    }
+
+    /**
+     * Interface stub answering the given methods and defaults (false, 0, null) otherwise.
+     */
+    private static <T> T stub(Class<T> type, Map<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Object answer = answers.get(method.getName());
+                    if (answer != null || !method.getReturnType().isPrimitive()) {
+                        return answer;
+                    }
+                    return method.getReturnType() == boolean.class ? Boolean.FALSE
+                            : method.getReturnType() == void.class ? null : 0;
+                }));
+    }
+}
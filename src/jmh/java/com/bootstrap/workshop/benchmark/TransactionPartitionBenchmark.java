@@ -0,0 +1,186 @@
+package com.bootstrap.workshop.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert and wallet-history latency of the transactions table as it grows,
+ * unpartitioned (V3 layout) vs. monthly RANGE partitions (V7 layout).
+ * Expected result: partitioned latencies stay roughly flat across row counts
+ * because each insert only maintains the current month's small B-trees, while
+ * the plain table's indexes (and insert cost) grow with the whole history.
+ *
+ * Needs PostgreSQL (see {@link BenchmarkDatabase}); seeding 10M rows takes a
+ * minute or two per trial.
+ *
+ * ./mvnw -Pbenchmark compile exec:exec -Djmh.args="TransactionPartitionBenchmark"
+ * ./mvnw -Pbenchmark compile exec:exec -Djmh.args="TransactionPartitionBenchmark -p rows=1000000"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionPartitionBenchmark {
+
+    static final int WALLETS = 10_000;
+    static final int HISTORY_DAYS = 720;
+
+    private static final String PLAIN_DDL = """
+            CREATE TABLE transactions (
+                id BIGSERIAL PRIMARY KEY,
+                from_wallet_address VARCHAR(16) NOT NULL,
+                to_wallet_address VARCHAR(16) NOT NULL,
+                amount DECIMAL(19,4) NOT NULL,
+                status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+                timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+                error_message TEXT
+            );
+            CREATE INDEX ON transactions(from_wallet_address);
+            CREATE INDEX ON transactions(to_wallet_address);
+            CREATE INDEX ON transactions(idempotency_key);
+            CREATE INDEX ON transactions(status);
+            """;
+
+    private static final String PARTITIONED_DDL = """
+            CREATE TABLE transactions (
+                id BIGSERIAL,
+                from_wallet_address VARCHAR(16) NOT NULL,
+                to_wallet_address VARCHAR(16) NOT NULL,
+                amount DECIMAL(19,4) NOT NULL,
+                status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+                timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                idempotency_key VARCHAR(255) NOT NULL,
+                error_message TEXT,
+                PRIMARY KEY (id, timestamp)
+            ) PARTITION BY RANGE (timestamp);
+            CREATE INDEX ON transactions(from_wallet_address);
+            CREATE INDEX ON transactions(to_wallet_address);
+            CREATE INDEX ON transactions(idempotency_key);
+            CREATE INDEX ON transactions(status);
+            CREATE TABLE transaction_idempotency_keys (
+                idempotency_key VARCHAR(255) PRIMARY KEY,
+                transaction_id BIGINT NOT NULL,
+                created_at TIMESTAMP NOT NULL
+            );
+            CREATE FUNCTION register_transaction_idempotency_key() RETURNS TRIGGER LANGUAGE plpgsql AS $$
+            BEGIN
+                INSERT INTO transaction_idempotency_keys VALUES (NEW.idempotency_key, NEW.id, NEW.timestamp);
+                RETURN NULL;
+            END;
+            $$;
+            CREATE TRIGGER trg_transactions_idempotency_key AFTER INSERT ON transactions
+                FOR EACH ROW EXECUTE FUNCTION register_transaction_idempotency_key();
+            DO $$
+            DECLARE
+                m DATE := (date_trunc('month', CURRENT_DATE) - INTERVAL '25 months')::date;
+            BEGIN
+                WHILE m <= (date_trunc('month', CURRENT_DATE) + INTERVAL '1 month')::date LOOP
+                    EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                            'transactions_p' || to_char(m, 'YYYYMM'), m, (m + INTERVAL '1 month')::date);
+                    m := (m + INTERVAL '1 month')::date;
+                END LOOP;
+            END;
+            $$;
+            """;
+
+    private static final String SEED = """
+            INSERT INTO transactions (from_wallet_address, to_wallet_address, amount, status,
+                                      timestamp, idempotency_key)
+            SELECT 'w' || lpad((g %% %1$d)::text, 15, '0'),
+                   'w' || lpad(((g * 7 + 1) %% %1$d)::text, 15, '0'),
+                   1, 'SUCCESS',
+                   LOCALTIMESTAMP - ((g %% %2$d) * INTERVAL '1 day') - (random() * INTERVAL '1 day'),
+                   'seed-' || g
+            FROM generate_series(1, %3$d) g
+            """;
+
+    @Param({"plain", "partitioned"})
+    public String layout;
+
+    @Param({"100000", "1000000", "10000000"})
+    public int rows;
+
+    @Setup(Level.Trial)
+    public void createAndSeed() throws SQLException {
+        try (Connection connection = BenchmarkDatabase.connect();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + BenchmarkDatabase.SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + BenchmarkDatabase.SCHEMA);
+            statement.execute("SET search_path TO " + BenchmarkDatabase.SCHEMA);
+            statement.execute("partitioned".equals(layout) ? PARTITIONED_DDL : PLAIN_DDL);
+            statement.execute(SEED.formatted(WALLETS, HISTORY_DAYS, rows));
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropSchema() throws SQLException {
+        try (Connection connection = BenchmarkDatabase.connect();
+                Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + BenchmarkDatabase.SCHEMA + " CASCADE");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        Connection connection;
+        PreparedStatement insert;
+        PreparedStatement history;
+        long sequence;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = BenchmarkDatabase.connectToSchema();
+            insert = connection.prepareStatement(
+                    "INSERT INTO transactions (from_wallet_address, to_wallet_address, amount, status, "
+                            + "timestamp, idempotency_key) VALUES (?, ?, 1, 'SUCCESS', LOCALTIMESTAMP, ?)");
+            // Same predicate as TransactionRepository.findByWalletAddress, first page
+            history = connection.prepareStatement(
+                    "SELECT id, from_wallet_address, to_wallet_address, amount, status, timestamp "
+                            + "FROM transactions WHERE from_wallet_address = ? OR to_wallet_address = ? "
+                            + "ORDER BY timestamp DESC LIMIT 20");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int insert(Session session) throws SQLException {
+        session.insert.setString(1, randomWallet());
+        session.insert.setString(2, randomWallet());
+        session.insert.setString(3, "bench-" + Thread.currentThread().threadId() + "-" + session.sequence++
+                + "-" + System.nanoTime());
+        return session.insert.executeUpdate();
+    }
+
+    @Benchmark
+    public void findByWalletAddress(Session session, Blackhole blackhole) throws SQLException {
+        String wallet = randomWallet();
+        session.history.setString(1, wallet);
+        session.history.setString(2, wallet);
+        try (ResultSet rs = session.history.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    static String randomWallet() {
+        return "w" + String.format("%015d", ThreadLocalRandom.current().nextInt(WALLETS));
+    }
+}
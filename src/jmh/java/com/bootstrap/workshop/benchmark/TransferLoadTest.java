@@ -0,0 +1,303 @@
+package com.bootstrap.workshop.benchmark;
+
+import com.bootstrap.workshop.WorkshopApplication;
+import com.bootstrap.workshop.dto.TransactionRequest;
+import com.bootstrap.workshop.dto.WalletOperationRequest;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.ConcurrencyFailures;
+import com.bootstrap.workshop.exception.InsufficientBalanceException;
+import com.bootstrap.workshop.repository.UserRepository;
+import com.bootstrap.workshop.repository.WalletRepository;
+import com.bootstrap.workshop.service.TransactionService;
+import com.bootstrap.workshop.service.WalletService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Macro benchmark: boots the whole application and drives
+ * TransactionService.transfer from N threads over M wallets, then reports
+ * throughput, latency percentiles and money-conservation invariants.
+ * Exits with status 1 if an invariant is violated.
+ *
+ * Database: PostgreSQL from BENCH_JDBC_URL / BENCH_JDBC_USER /
+ * BENCH_JDBC_PASSWORD (schema migrated by Flyway) or, when BENCH_JDBC_URL is
+ * unset, in-memory H2 in PostgreSQL mode. H2 numbers are only comparable
+ * with other H2 runs.
+ *
+ * Arguments (key=value, all optional):
+ * threads=16 wallets=1000 skew=0.0 seconds=30 warmup=5 balance=1000 amount=1.00 seed=42
+ * skew is the Zipf exponent used to pick sender and recipient:
+ * 0 = uniform, 1 = a few hot wallets take most of the traffic.
+ *
+ * ./mvnw -Pbenchmark compile exec:exec -Dbench.main=com.bootstrap.workshop.benchmark.TransferLoadTest -Djmh.args="threads=32 skew=1.0"
+ */
+public final class TransferLoadTest {
+
+    private final Options options;
+    private final TransactionService transactionService;
+    private final JdbcTemplate jdbc;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<String> addresses = new ArrayList<>();
+    private final String addressPrefix;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder insufficient = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private TransferLoadTest(Options options, ConfigurableApplicationContext context) {
+        this.options = options;
+        this.transactionService = context.getBean(TransactionService.class);
+        this.jdbc = context.getBean(JdbcTemplate.class);
+        // Wallets of this run share an address prefix, so a reused database does not skew the totals
+        this.addressPrefix = "%06x".formatted(ThreadLocalRandom.current().nextInt(1 << 24));
+        seed(context.getBean(UserRepository.class), context.getBean(WalletRepository.class),
+                context.getBean(WalletService.class));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        boolean ok;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WorkshopApplication.class)
+                .run(springArgs())) {
+            ok = new TransferLoadTest(options, context).run();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        System.out.printf("Transfer load test: %s%n", options);
+        BigDecimal totalBefore = totalBalance();
+
+        drive(Duration.ofSeconds(options.warmupSeconds()), false);
+        succeeded.reset();
+        insufficient.reset();
+        conflicts.reset();
+        errors.reset();
+        long successRowsBefore = successRows();
+
+        long start = System.nanoTime();
+        long[] latencies = drive(Duration.ofSeconds(options.seconds()), true);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("Transfers: ok=%d insufficient=%d conflict=%d error=%d%n",
+                succeeded.sum(), insufficient.sum(), conflicts.sum(), errors.sum());
+        System.out.printf("Throughput: %.1f TPS (%.1f attempts/s)%n",
+                succeeded.sum() / elapsedSeconds, latencies.length / elapsedSeconds);
+        System.out.printf("Latency ms: p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.95),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+
+        BigDecimal totalAfter = totalBalance();
+        long negative = count("SELECT COUNT(*) FROM wallets WHERE address LIKE ? AND balance < 0");
+        long successRows = successRows() - successRowsBefore;
+
+        boolean conserved = totalBefore.compareTo(totalAfter) == 0;
+        boolean noNegative = negative == 0;
+        boolean recorded = successRows == succeeded.sum();
+        System.out.printf("Invariant money conserved: %s (before=%s after=%s)%n", conserved, totalBefore, totalAfter);
+        System.out.printf("Invariant no negative balance: %s (%d wallets)%n", noNegative, negative);
+        System.out.printf("Invariant every success recorded: %s (rows=%d reported=%d)%n",
+                recorded, successRows, succeeded.sum());
+        return conserved && noNegative && recorded;
+    }
+
+    /**
+     * Run transfers from all threads for the given time; returns the
+     * latencies (nanoseconds) of every attempt when recording.
+     */
+    private long[] drive(Duration duration, boolean record) throws Exception {
+        ZipfSampler sampler = new ZipfSampler(userIds.size(), options.skew());
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(options.threads())) {
+            for (int t = 0; t < options.threads(); t++) {
+                SplittableRandom random = new SplittableRandom(options.seed() + t);
+                futures.add(executor.submit(() -> worker(sampler, random, deadline, record)));
+            }
+        }
+        List<long[]> perThread = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            perThread.add(future.get());
+        }
+        return perThread.stream().flatMapToLong(Arrays::stream).toArray();
+    }
+
+    private long[] worker(ZipfSampler sampler, SplittableRandom random, long deadline, boolean record) {
+        long[] latencies = new long[1024];
+        int n = 0;
+        while (System.nanoTime() < deadline) {
+            int from = sampler.next(random);
+            int to = sampler.next(random);
+            if (from == to) {
+                continue;
+            }
+            TransactionRequest request = new TransactionRequest(
+                    addresses.get(to), options.amount(), UUID.randomUUID().toString());
+            long start = System.nanoTime();
+            try {
+                transactionService.transfer(userIds.get(from), request);
+                succeeded.increment();
+            } catch (InsufficientBalanceException e) {
+                insufficient.increment();
+            } catch (RuntimeException e) {
+                if (ConcurrencyFailures.isConflict(e)) {
+                    conflicts.increment();
+                } else {
+                    errors.increment();
+                    if (errors.sum() <= 3) {
+                        System.err.printf("Transfer failed: %s%n", e);
+                    }
+                }
+            }
+            if (record) {
+                if (n == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, n * 2);
+                }
+                latencies[n++] = System.nanoTime() - start;
+            }
+        }
+        return Arrays.copyOf(latencies, n);
+    }
+
+    private void seed(UserRepository userRepository, WalletRepository walletRepository, WalletService walletService) {
+        WalletOperationRequest initialDeposit = new WalletOperationRequest(options.balance());
+        for (int i = 0; i < options.wallets(); i++) {
+            String address = addressPrefix + "%010x".formatted(i);
+            User user = userRepository.save(new User("load-" + address + "@bench.local", "Load " + i,
+                    "{noop}bench", "Bench", "ACC" + i, "Bench"));
+            walletRepository.save(new Wallet(address, user));
+            walletService.deposit(user.getId(), initialDeposit);
+            userIds.add(user.getId());
+            addresses.add(address);
+        }
+    }
+
+    private BigDecimal totalBalance() {
+        BigDecimal total = jdbc.queryForObject(
+                "SELECT SUM(balance) FROM wallets WHERE address LIKE ?", BigDecimal.class, addressPrefix + "%");
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    private long successRows() {
+        return count("SELECT COUNT(*) FROM transactions WHERE from_wallet_address LIKE ? AND status = 'SUCCESS'");
+    }
+
+    private long count(String sql) {
+        Long count = jdbc.queryForObject(sql, Long.class, addressPrefix + "%");
+        return count != null ? count : 0;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)] / 1e6;
+    }
+
+    /**
+     * Full application on a random port with background jobs, request
+     * filters and telemetry export off, against the benchmark database.
+     */
+    private static String[] springArgs() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.docker.compose.enabled", "false");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.bootstrap.workshop", "WARN");
+        properties.put("app.scheduling.enabled", "false");
+        properties.put("app.admission.enabled", "false");
+        properties.put("app.rate-limit.enabled", "false");
+        properties.put("management.tracing.sampling.probability", "0.0");
+        properties.put("management.otlp.metrics.export.enabled", "false");
+        String url = System.getenv("BENCH_JDBC_URL");
+        if (url != null && !url.isBlank()) {
+            properties.put("spring.datasource.url", url);
+            properties.put("spring.datasource.username", System.getenv().getOrDefault("BENCH_JDBC_USER", "workshop"));
+            properties.put("spring.datasource.password", System.getenv().getOrDefault("BENCH_JDBC_PASSWORD", "workshop"));
+        } else {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.flyway.enabled", "false");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            properties.put("app.partitioning.enabled", "false");
+            // UPDATE ... RETURNING is PostgreSQL-only
+            properties.put("app.wallet.engine", "locking");
+        }
+        return properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+
+    record Options(int threads, int wallets, double skew, long seconds, long warmupSeconds,
+            BigDecimal balance, BigDecimal amount, long seed) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException("Expected key=value, got: " + arg);
+                }
+                values.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("threads", "16")),
+                    Integer.parseInt(values.getOrDefault("wallets", "1000")),
+                    Double.parseDouble(values.getOrDefault("skew", "0.0")),
+                    Long.parseLong(values.getOrDefault("seconds", "30")),
+                    Long.parseLong(values.getOrDefault("warmup", "5")),
+                    new BigDecimal(values.getOrDefault("balance", "1000")),
+                    new BigDecimal(values.getOrDefault("amount", "1.00")),
+                    Long.parseLong(values.getOrDefault("seed", "42")));
+        }
+    }
+
+    /**
+     * Index in [0, n) with P(i) proportional to 1 / (i + 1)^skew.
+     */
+    static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / Math.pow(i + 1, skew);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
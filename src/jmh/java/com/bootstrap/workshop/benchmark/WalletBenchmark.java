@@ -0,0 +1,47 @@
+package com.bootstrap.workshop.benchmark;
+
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.entity.Wallet;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of the balance arithmetic in Wallet.deposit / Wallet.withdraw
+ * (BigDecimal add/subtract and the validation compares), without the
+ * database round trip around it.
+ *
+ * ./mvnw -Pbenchmark compile exec:exec -Djmh.args="WalletBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WalletBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("12.3456");
+
+    private Wallet wallet;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        wallet = new Wallet("abc123def456789a", new User("bench@example.com", "Bench", null, "Bank", "ACC", "Addr"));
+        wallet.setBalance(new BigDecimal("1000000.0000"));
+    }
+
+    @Benchmark
+    public BigDecimal depositThenWithdraw() {
+        wallet.deposit(AMOUNT);
+        wallet.withdraw(AMOUNT);
+        return wallet.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal deposit() {
+        wallet.deposit(AMOUNT);
+        return wallet.getBalance();
+    }
+}
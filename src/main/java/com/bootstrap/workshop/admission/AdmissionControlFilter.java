@@ -0,0 +1,156 @@
+package com.bootstrap.workshop.admission;
+
+import com.bootstrap.workshop.config.AdmissionProperties;
+import com.bootstrap.workshop.config.AdmissionProperties.EndpointClass;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sheds load before it reaches the controllers instead of letting requests
+ * queue on the connection pool for up to its connection timeout.
+ *
+ * 1. Database-bound requests are rejected with 503 while every pool
+ *    connection is active and more threads than max-pending-connections
+ *    are already waiting for one. Waiters while the pool is still growing
+ *    towards its maximum are only waiting for a connection to be opened,
+ *    not for one to be returned, so they do not shed.
+ * 2. Each endpoint class is admitted against its own {@link AimdLimiter};
+ *    requests over the limit are rejected with 429.
+ * Both carry Retry-After. Auth, user profile and actuator requests are not
+ * limited (login hashing has its own bounded pool).
+ *
+ * Registered in AdmissionConfig, ahead of the security filter chain.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Supplier<PoolUsage> poolUsage;
+    private final int maxPendingConnections;
+    private final String retryAfter;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Snapshot of the connection pool: active connections, maximum pool size
+     * and threads waiting for a connection.
+     */
+    public record PoolUsage(int active, int max, int pending) {
+
+        /** For pools that expose no usage: never saturated. */
+        public static final PoolUsage UNKNOWN = new PoolUsage(0, 0, 0);
+
+        boolean saturated(int maxPending) {
+            return active >= max && pending > maxPending;
+        }
+    }
+
+    public AdmissionControlFilter(AdmissionProperties properties, Supplier<PoolUsage> poolUsage,
+            MeterRegistry meterRegistry) {
+        this.poolUsage = poolUsage;
+        this.maxPendingConnections = properties.maxPendingConnections();
+        this.retryAfter = String.valueOf(properties.retryAfterSeconds());
+        this.meterRegistry = meterRegistry;
+        properties.limits().forEach((endpoint, limit) -> {
+            AimdLimiter limiter = new AimdLimiter(limit, properties.backoffRatio());
+            limiters.put(endpoint, limiter);
+            String tag = tagOf(endpoint);
+            Gauge.builder("http.admission.limit", limiter, AimdLimiter::limit)
+                    .description("Current concurrency limit of the endpoint class")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+            Gauge.builder("http.admission.inflight", limiter, AimdLimiter::inFlight)
+                    .description("Admitted requests in progress for the endpoint class")
+                    .tag("endpoint", tag)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        EndpointClass endpoint = classify(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        AimdLimiter limiter = endpoint != null ? limiters.get(endpoint) : null;
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (poolUsage.get().saturated(maxPendingConnections)) {
+            reject(response, endpoint, HttpStatus.SERVICE_UNAVAILABLE, "pool",
+                    "Database connection pool saturated, please retry later");
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(response, endpoint, HttpStatus.TOO_MANY_REQUESTS, "limit",
+                    "Too many concurrent requests, please retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean overloaded = true;
+        try {
+            filterChain.doFilter(request, response);
+            overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        } finally {
+            // Streamed (async) responses release their slot once the handler has returned
+            limiter.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    /**
+     * Map a request to the endpoint class whose limit it counts against,
+     * or null when it is not limited.
+     */
+    static EndpointClass classify(String method, String path) {
+        // Runs for as long as the upload and allows one at a time itself; its latency would collapse the admin limit
+        if (path.equals("/api/v1/admin/users/import")) {
+            return null;
+        }
+        if (path.startsWith("/api/v1/admin/")) {
+            return EndpointClass.ADMIN;
+        }
+        if (path.equals("/api/v1/transactions") || path.startsWith("/api/v1/transactions/")) {
+            return "POST".equals(method) ? EndpointClass.TRANSFER : EndpointClass.HISTORY;
+        }
+        if (path.equals("/api/v1/wallet") || path.startsWith("/api/v1/wallet/")) {
+            return "GET".equals(method) ? EndpointClass.BALANCE : EndpointClass.TRANSFER;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, EndpointClass endpoint, HttpStatus status,
+            String reason, String message) throws IOException {
+        log.warn("Admission rejected ({}, {}): {}", tagOf(endpoint), reason, message);
+        meterRegistry.counter("http.admission.rejected", "endpoint", tagOf(endpoint), "reason", reason)
+                .increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("""
+                {"timestamp":"%s","status":%d,"error":"%s","message":"%s","path":null}"""
+                .formatted(LocalDateTime.now(), status.value(), status.getReasonPhrase(), message));
+    }
+
+    private static String tagOf(EndpointClass endpoint) {
+        return endpoint.name().toLowerCase();
+    }
+}
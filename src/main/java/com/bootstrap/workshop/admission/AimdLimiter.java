@@ -0,0 +1,62 @@
+package com.bootstrap.workshop.admission;
+
+import com.bootstrap.workshop.config.AdmissionProperties.Limit;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit.
+ *
+ * The limit grows by 1/limit per fast completion (about +1 per round trip
+ * of a full window) and only while at least half of it is in use, so an idle
+ * endpoint does not drift up to max. A slow or overloaded completion
+ * multiplies it by the backoff ratio. Critical sections never block, so the
+ * monitor is safe to take on virtual threads.
+ */
+public class AimdLimiter {
+
+    private final int min;
+    private final int max;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    public AimdLimiter(Limit limit, double backoffRatio) {
+        this.min = limit.min();
+        this.max = limit.max();
+        this.latencyTargetNanos = limit.latencyTargetMs() * 1_000_000;
+        this.backoffRatio = backoffRatio;
+        this.limit = limit.initial();
+    }
+
+    /**
+     * Take a slot if the endpoint is under its current limit.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Return a slot and adjust the limit from the observed outcome.
+     */
+    public synchronized void release(long elapsedNanos, boolean overloaded) {
+        inFlight--;
+        if (overloaded || elapsedNanos > latencyTargetNanos) {
+            limit = Math.max(min, limit * backoffRatio);
+        } else if (inFlight * 2 >= (int) limit) {
+            limit = Math.min(max, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
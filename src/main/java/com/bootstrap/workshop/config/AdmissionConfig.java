@@ -0,0 +1,69 @@
+package com.bootstrap.workshop.config;
+
+import com.bootstrap.workshop.admission.AdmissionControlFilter;
+import com.bootstrap.workshop.admission.AdmissionControlFilter.PoolUsage;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Registers the admission control filter (see {@link AdmissionControlFilter}).
+ * Turned off with app.admission.enabled=false (e.g. in tests).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    /**
+     * After the observation filter, so shed requests still show up in
+     * http.server.requests, and before Spring Security, so they cost no
+     * token verification.
+     */
+    static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdmissionProperties properties, DataSource dataSource, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(properties, poolUsage(dataSource), meterRegistry));
+        registration.setOrder(FILTER_ORDER);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /**
+     * Active connections, maximum size and waiting threads of the Hikari
+     * pool; {@link PoolUsage#UNKNOWN} for other pools or before the pool has
+     * started.
+     */
+    private static Supplier<PoolUsage> poolUsage(DataSource dataSource) {
+        HikariDataSource hikari;
+        try {
+            hikari = dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            hikari = null;
+        }
+        if (hikari == null) {
+            return () -> PoolUsage.UNKNOWN;
+        }
+        HikariDataSource pool = hikari;
+        return () -> {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            return bean != null
+                    ? new PoolUsage(bean.getActiveConnections(), pool.getMaximumPoolSize(),
+                            bean.getThreadsAwaitingConnection())
+                    : PoolUsage.UNKNOWN;
+        };
+    }
+}
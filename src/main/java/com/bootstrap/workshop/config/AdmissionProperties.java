@@ -0,0 +1,75 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control in front of the controllers (see AdmissionControlFilter).
+ * Binds to properties prefixed with "app.admission" in application.properties/yaml.
+ *
+ * Each endpoint class gets its own AIMD concurrency limit: it starts at
+ * "initial", grows by one per limit's worth of fast responses and is cut by
+ * backoff-ratio when a response is slower than latency-target-ms or fails
+ * with 503. Requests over the limit get 429; when every Hikari connection
+ * is active and more than max-pending-connections threads are already
+ * waiting for one, database-bound requests get 503 without queueing.
+ *
+ * Example:
+ * app.admission.enabled=true
+ * app.admission.max-pending-connections=50
+ * app.admission.backoff-ratio=0.9
+ * app.admission.retry-after-seconds=1
+ * app.admission.limits.transfer.initial=40
+ * app.admission.limits.transfer.min=4
+ * app.admission.limits.transfer.max=200
+ * app.admission.limits.transfer.latency-target-ms=200
+ */
+@ConfigurationProperties(prefix = "app.admission")
+public record AdmissionProperties(
+        boolean enabled,
+        int maxPendingConnections,
+        double backoffRatio,
+        int retryAfterSeconds,
+        Map<EndpointClass, Limit> limits) {
+    public AdmissionProperties {
+        // Default values
+        maxPendingConnections = maxPendingConnections > 0 ? maxPendingConnections : 50;
+        backoffRatio = backoffRatio > 0 && backoffRatio < 1 ? backoffRatio : 0.9;
+        retryAfterSeconds = retryAfterSeconds > 0 ? retryAfterSeconds : 1;
+        Map<EndpointClass, Limit> merged = new EnumMap<>(EndpointClass.class);
+        merged.put(EndpointClass.TRANSFER, new Limit(40, 4, 200, 200));
+        merged.put(EndpointClass.BALANCE, new Limit(100, 10, 500, 50));
+        merged.put(EndpointClass.HISTORY, new Limit(20, 2, 100, 500));
+        merged.put(EndpointClass.ADMIN, new Limit(5, 1, 20, 1_000));
+        if (limits != null) {
+            merged.putAll(limits);
+        }
+        limits = Map.copyOf(merged);
+    }
+
+    public record Limit(
+            int initial,
+            int min,
+            int max,
+            long latencyTargetMs) {
+        public Limit {
+            // Default values
+            min = min > 0 ? min : 1;
+            max = max >= min ? max : Math.max(min, 200);
+            initial = initial > 0 ? Math.clamp(initial, min, max) : min;
+            latencyTargetMs = latencyTargetMs > 0 ? latencyTargetMs : 250;
+        }
+    }
+
+    /**
+     * Groups of endpoints that share a concurrency limit.
+     */
+    public enum EndpointClass {
+        TRANSFER,
+        BALANCE,
+        HISTORY,
+        ADMIN
+    }
+}
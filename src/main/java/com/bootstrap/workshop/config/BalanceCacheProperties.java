@@ -0,0 +1,26 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * In-process cache of wallet balances served by GET /api/v1/wallet.
+ * Binds to properties prefixed with "app.wallet.cache" in application.properties/yaml.
+ * Entries are evicted after commit of every local balance change; the TTL
+ * bounds staleness from writes made by other instances.
+ *
+ * Example:
+ * app.wallet.cache.enabled=true
+ * app.wallet.cache.max-size=100000
+ * app.wallet.cache.ttl-ms=5000
+ */
+@ConfigurationProperties(prefix = "app.wallet.cache")
+public record BalanceCacheProperties(
+        boolean enabled,
+        long maxSize,
+        long ttlMs) {
+    public BalanceCacheProperties {
+        // Default values
+        maxSize = maxSize > 0 ? maxSize : 100_000;
+        ttlMs = ttlMs > 0 ? ttlMs : 5_000;
+    }
+}
@@ -0,0 +1,45 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * In-process idempotency fast path for transfers.
+ * Binds to properties prefixed with "app.idempotency" in application.properties/yaml.
+ * A bloom filter over the keys this instance saw recently lets a definitely
+ * new key skip the database lookup (the unique constraint still catches
+ * duplicates); a bounded cache answers client retries of completed transfers.
+ * Stored keys are kept for key-retention-hours and then compacted in
+ * batches: a key reused after that is treated as a new transfer.
+ *
+ * Example:
+ * app.idempotency.enabled=true
+ * app.idempotency.filter-keys=1000000
+ * app.idempotency.filter-false-positive-rate=0.01
+ * app.idempotency.cache-max-size=100000
+ * app.idempotency.cache-ttl-ms=600000
+ * app.idempotency.key-retention-hours=720
+ * app.idempotency.compaction-batch-size=1000
+ * app.idempotency.compaction-interval-ms=600000
+ */
+@ConfigurationProperties(prefix = "app.idempotency")
+public record IdempotencyProperties(
+        boolean enabled,
+        int filterKeys,
+        double filterFalsePositiveRate,
+        long cacheMaxSize,
+        long cacheTtlMs,
+        long keyRetentionHours,
+        int compactionBatchSize,
+        long compactionIntervalMs) {
+    public IdempotencyProperties {
+        // Default values
+        filterKeys = filterKeys > 0 ? filterKeys : 1_000_000;
+        filterFalsePositiveRate = filterFalsePositiveRate > 0 && filterFalsePositiveRate < 1
+                ? filterFalsePositiveRate : 0.01;
+        cacheMaxSize = cacheMaxSize > 0 ? cacheMaxSize : 100_000;
+        cacheTtlMs = cacheTtlMs > 0 ? cacheTtlMs : 600_000; // 10 minutes
+        keyRetentionHours = keyRetentionHours > 0 ? keyRetentionHours : 720; // 30 days
+        compactionBatchSize = compactionBatchSize > 0 ? compactionBatchSize : 1000;
+        compactionIntervalMs = compactionIntervalMs > 0 ? compactionIntervalMs : 600_000; // 10 minutes
+    }
+}
@@ -5,14 +5,17 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 /**
  * JWT configuration properties.
  * Binds to properties prefixed with "jwt" in application.properties/yaml.
+ * verifiedCacheSize bounds the cache of already-verified tokens (0 disables it).
  */
 @ConfigurationProperties(prefix = "jwt")
 public record JwtProperties(
         String secret,
-        long expirationMs) {
+        long expirationMs,
+        Integer verifiedCacheSize) {
     public JwtProperties {
         // Default values
         secret = secret != null ? secret : "your-256-bit-secret-key-for-jwt-signing-must-be-long";
         expirationMs = expirationMs > 0 ? expirationMs : 86400000; // 24 hours
+        verifiedCacheSize = verifiedCacheSize != null ? verifiedCacheSize : 10_000;
     }
 }
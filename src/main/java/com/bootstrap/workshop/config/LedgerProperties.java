@@ -0,0 +1,25 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Ledger snapshot and reconciliation settings.
+ * Binds to properties prefixed with "app.ledger" in application.properties/yaml.
+ *
+ * Example:
+ * app.ledger.snapshot-interval-ms=300000
+ * app.ledger.settle-seconds=60
+ * app.ledger.reconciliation-interval-ms=900000
+ */
+@ConfigurationProperties(prefix = "app.ledger")
+public record LedgerProperties(
+        long snapshotIntervalMs,
+        long settleSeconds,
+        long reconciliationIntervalMs) {
+    public LedgerProperties {
+        // Default values
+        snapshotIntervalMs = snapshotIntervalMs > 0 ? snapshotIntervalMs : 300000; // 5 minutes
+        settleSeconds = settleSeconds > 0 ? settleSeconds : 60;
+        reconciliationIntervalMs = reconciliationIntervalMs > 0 ? reconciliationIntervalMs : 900000; // 15 minutes
+    }
+}
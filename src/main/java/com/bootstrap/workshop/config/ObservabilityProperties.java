@@ -0,0 +1,21 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-method instrumentation done by ObservabilityAspect.
+ * Binds to properties prefixed with "app.observability" in application.properties/yaml.
+ * span-sample-rate is the fraction of service/controller calls that get
+ * their own span (0 = none, 1 = all); timers and counters record every call.
+ *
+ * Example:
+ * app.observability.span-sample-rate=0.1
+ */
+@ConfigurationProperties(prefix = "app.observability")
+public record ObservabilityProperties(
+        Double spanSampleRate) {
+    public ObservabilityProperties {
+        // Default values
+        spanSampleRate = spanSampleRate != null ? Math.clamp(spanSampleRate, 0.0, 1.0) : 0.1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bootstrap.workshop.config;
+
+import com.bootstrap.workshop.outbox.FileOutboxSink;
+import com.bootstrap.workshop.outbox.InMemoryOutboxSink;
+import com.bootstrap.workshop.outbox.LoggingOutboxSink;
+import com.bootstrap.workshop.outbox.OutboxSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Creates the sink the outbox relay publishes to.
+ */
+@Configuration
+public class OutboxConfig {
+
+    private static final int MEMORY_SINK_CAPACITY = 10_000;
+
+    /**
+     * Built-in sink selected by app.outbox.sink, unless another sink (e.g. a
+     * broker client) is defined.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxSink outboxSink(OutboxProperties properties) {
+        return switch (properties.sink()) {
+            case LOG -> new LoggingOutboxSink();
+            case FILE -> new FileOutboxSink(Path.of(properties.filePath()));
+            case MEMORY -> new InMemoryOutboxSink(MEMORY_SINK_CAPACITY);
+        };
+    }
+}
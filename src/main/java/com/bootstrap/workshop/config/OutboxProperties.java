@@ -0,0 +1,51 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Transactional outbox and its relay.
+ * Binds to properties prefixed with "app.outbox" in application.properties/yaml.
+ *
+ * Example:
+ * app.outbox.enabled=true
+ * app.outbox.sink=log
+ * app.outbox.file-path=logs/outbox-events.jsonl
+ * app.outbox.poll-interval-ms=500
+ * app.outbox.batch-size=500
+ * app.outbox.max-batches-per-poll=20
+ * app.outbox.retention-ms=3600000
+ * app.outbox.compaction-interval-ms=300000
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public record OutboxProperties(
+        boolean enabled,
+        SinkType sink,
+        String filePath,
+        long pollIntervalMs,
+        int batchSize,
+        int maxBatchesPerPoll,
+        long retentionMs,
+        long compactionIntervalMs) {
+    public OutboxProperties {
+        // Default values
+        sink = sink != null ? sink : SinkType.LOG;
+        filePath = filePath != null ? filePath : "logs/outbox-events.jsonl";
+        pollIntervalMs = pollIntervalMs > 0 ? pollIntervalMs : 500;
+        batchSize = batchSize > 0 ? batchSize : 500;
+        maxBatchesPerPoll = maxBatchesPerPoll > 0 ? maxBatchesPerPoll : 20;
+        retentionMs = retentionMs > 0 ? retentionMs : 3600000; // 1 hour
+        compactionIntervalMs = compactionIntervalMs > 0 ? compactionIntervalMs : 300000; // 5 minutes
+    }
+
+    /**
+     * Built-in sinks; a real broker plugs in by declaring an OutboxSink bean.
+     */
+    public enum SinkType {
+        /** One log line per event. */
+        LOG,
+        /** Appends JSON lines to {@code filePath}. */
+        FILE,
+        /** Keeps the most recent events in memory (tests, local runs). */
+        MEMORY
+    }
+}
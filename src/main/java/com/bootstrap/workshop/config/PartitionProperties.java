@@ -0,0 +1,30 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Monthly partition management for the transactions table.
+ * Binds to properties prefixed with "app.partitioning" in application.properties/yaml.
+ *
+ * Example:
+ * app.partitioning.enabled=true
+ * app.partitioning.premake-months=3
+ * app.partitioning.retention-months=24
+ * app.partitioning.archive-schema=archive
+ */
+@ConfigurationProperties(prefix = "app.partitioning")
+public record PartitionProperties(
+        boolean enabled,
+        int premakeMonths,
+        int retentionMonths,
+        String archiveSchema) {
+    public PartitionProperties {
+        // Default values
+        premakeMonths = premakeMonths > 0 ? premakeMonths : 3;
+        retentionMonths = retentionMonths > 0 ? retentionMonths : 24;
+        archiveSchema = archiveSchema != null ? archiveSchema : "archive";
+        if (!archiveSchema.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid archive schema name: " + archiveSchema);
+        }
+    }
+}
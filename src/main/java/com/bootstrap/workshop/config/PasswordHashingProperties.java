@@ -0,0 +1,29 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * BCrypt work factor and the bounded pool that runs it.
+ * Binds to properties prefixed with "app.security.password" in application.properties/yaml.
+ * threads=0 uses half of the available processors (at least one).
+ *
+ * Example:
+ * app.security.password.strength=10
+ * app.security.password.threads=0
+ * app.security.password.queue-capacity=64
+ * app.security.password.timeout-ms=5000
+ */
+@ConfigurationProperties(prefix = "app.security.password")
+public record PasswordHashingProperties(
+        int strength,
+        int threads,
+        int queueCapacity,
+        long timeoutMs) {
+    public PasswordHashingProperties {
+        // Default values
+        strength = strength >= 4 && strength <= 31 ? strength : 10;
+        threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        queueCapacity = queueCapacity > 0 ? queueCapacity : 64;
+        timeoutMs = timeoutMs > 0 ? timeoutMs : 5_000;
+    }
+}
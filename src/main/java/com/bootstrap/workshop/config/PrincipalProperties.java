@@ -0,0 +1,35 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * How JwtAuthFilter resolves the authenticated principal.
+ * Binds to properties prefixed with "app.security.principal" in application.properties/yaml.
+ *
+ * CACHED: load the user once, then serve it from a bounded in-process cache
+ * (evicted on user update/delete; TTL never longer than the token lifetime).
+ * CLAIMS: build the principal from the token claims alone (no DB access;
+ * a deleted user keeps access until the token expires).
+ *
+ * Example:
+ * app.security.principal.mode=cached
+ * app.security.principal.cache-max-size=10000
+ * app.security.principal.cache-ttl-ms=60000
+ */
+@ConfigurationProperties(prefix = "app.security.principal")
+public record PrincipalProperties(
+        PrincipalMode mode,
+        long cacheMaxSize,
+        long cacheTtlMs) {
+    public PrincipalProperties {
+        // Default values
+        mode = mode != null ? mode : PrincipalMode.CACHED;
+        cacheMaxSize = cacheMaxSize > 0 ? cacheMaxSize : 10_000;
+        cacheTtlMs = cacheTtlMs > 0 ? cacheTtlMs : 60_000;
+    }
+
+    public enum PrincipalMode {
+        CACHED,
+        CLAIMS
+    }
+}
@@ -0,0 +1,46 @@
+package com.bootstrap.workshop.config;
+
+import com.bootstrap.workshop.ratelimit.InMemoryRateLimitStore;
+import com.bootstrap.workshop.ratelimit.RateLimitFilter;
+import com.bootstrap.workshop.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates the rate limit filter that SecurityConfig adds after JwtAuthFilter.
+ * Turned off with app.rate-limit.enabled=false (e.g. in tests).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    /**
+     * In-memory buckets unless another store (e.g. a shared one) is defined.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitStore rateLimitStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new InMemoryRateLimitStore(properties, meterRegistry);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, RateLimitStore store,
+            MeterRegistry meterRegistry) {
+        return new RateLimitFilter(properties, store, meterRegistry);
+    }
+
+    /**
+     * Only runs inside the security filter chain, not a second time as a
+     * plain servlet filter.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Per-client rate limiting (see RateLimitFilter).
+ * Binds to properties prefixed with "app.rate-limit" in application.properties/yaml.
+ *
+ * Policies are matched in order; the first whose method (empty = any) and
+ * path pattern (PathPattern syntax: ** only as the last segment) match the
+ * request applies. Each allows "capacity" requests per "period-ms", refilled
+ * continuously, per key: the JWT subject (USER, falling back to the client
+ * IP for anonymous requests) or the client IP.
+ * max-keys bounds the number of buckets held in memory.
+ *
+ * Example:
+ * app.rate-limit.enabled=true
+ * app.rate-limit.max-keys=100000
+ * app.rate-limit.policies[0].name=transfer
+ * app.rate-limit.policies[0].method=POST
+ * app.rate-limit.policies[0].path=/api/v1/transactions
+ * app.rate-limit.policies[0].capacity=100
+ * app.rate-limit.policies[0].period-ms=60000
+ * app.rate-limit.policies[0].key=user
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        boolean enabled,
+        long maxKeys,
+        List<Policy> policies) {
+    public RateLimitProperties {
+        // Default values
+        maxKeys = maxKeys > 0 ? maxKeys : 100_000;
+        policies = policies != null && !policies.isEmpty() ? List.copyOf(policies) : List.of(
+                new Policy("transfer", "POST", "/api/v1/transactions", 100, 60_000, KeyType.USER),
+                new Policy("bulk-transfer", "POST", "/api/v1/transactions/batch", 10, 60_000, KeyType.USER),
+                new Policy("auth", null, "/api/v1/auth/**", 20, 60_000, KeyType.IP),
+                new Policy("api", null, "/api/**", 600, 60_000, KeyType.USER));
+    }
+
+    public record Policy(
+            String name,
+            String method,
+            String path,
+            int capacity,
+            long periodMs,
+            KeyType key) {
+        /**
+         * Largest capacity a packed token bucket can hold.
+         */
+        public static final int MAX_CAPACITY = (1 << 23) - 1;
+
+        public Policy {
+            // Default values
+            name = name != null ? name : path;
+            method = method != null && !method.isBlank() ? method.toUpperCase() : null;
+            path = path != null ? path : "/**";
+            capacity = capacity > 0 ? Math.min(capacity, MAX_CAPACITY) : 100;
+            periodMs = periodMs > 0 ? periodMs : 60_000;
+            key = key != null ? key : KeyType.USER;
+        }
+    }
+
+    public enum KeyType {
+        USER,
+        IP
+    }
+}
@@ -0,0 +1,28 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Retry policy for deadlock / serialization failures.
+ * Binds to properties prefixed with "app.retry" in application.properties/yaml.
+ *
+ * Example:
+ * app.retry.max-attempts=5
+ * app.retry.initial-backoff-ms=10
+ * app.retry.max-backoff-ms=200
+ * app.retry.multiplier=2.0
+ */
+@ConfigurationProperties(prefix = "app.retry")
+public record RetryProperties(
+        int maxAttempts,
+        long initialBackoffMs,
+        long maxBackoffMs,
+        double multiplier) {
+    public RetryProperties {
+        // Default values
+        maxAttempts = maxAttempts > 0 ? maxAttempts : 5;
+        initialBackoffMs = initialBackoffMs > 0 ? initialBackoffMs : 10;
+        maxBackoffMs = maxBackoffMs > 0 ? maxBackoffMs : 200;
+        multiplier = multiplier >= 1.0 ? multiplier : 2.0;
+    }
+}
@@ -1,7 +1,11 @@
 package com.bootstrap.workshop.config;
 
+import com.bootstrap.workshop.ratelimit.RateLimitFilter;
+import com.bootstrap.workshop.security.BoundedPasswordEncoder;
 import com.bootstrap.workshop.security.JwtAuthFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +29,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -42,13 +47,19 @@ public class SecurityConfig {
                         // All other endpoints require authentication
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        // Keyed by the JWT subject, so it must run after authentication
+        rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, JwtAuthFilter.class));
 
         return http.build();
     }
 
+    /**
+     * BCrypt at the configured work factor, run on a bounded pool
+     * (see {@link BoundedPasswordEncoder}).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(properties.strength()), properties, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,30 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Group-commit settings for transfers.
+ * Binds to properties prefixed with "app.transfer.batch" in application.properties/yaml.
+ *
+ * Example:
+ * app.transfer.batch.enabled=true
+ * app.transfer.batch.max-size=256
+ * app.transfer.batch.max-wait-ms=2
+ * app.transfer.batch.queue-capacity=10000
+ * app.transfer.batch.result-timeout-ms=30000
+ */
+@ConfigurationProperties(prefix = "app.transfer.batch")
+public record TransferBatchProperties(
+        boolean enabled,
+        int maxSize,
+        long maxWaitMs,
+        int queueCapacity,
+        long resultTimeoutMs) {
+    public TransferBatchProperties {
+        // Default values
+        maxSize = maxSize > 0 ? maxSize : 256;
+        maxWaitMs = maxWaitMs > 0 ? maxWaitMs : 2;
+        queueCapacity = queueCapacity > 0 ? queueCapacity : 10000;
+        resultTimeoutMs = resultTimeoutMs > 0 ? resultTimeoutMs : 30000;
+    }
+}
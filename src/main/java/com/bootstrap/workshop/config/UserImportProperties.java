@@ -0,0 +1,27 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bulk user import (admin onboarding).
+ * Binds to properties prefixed with "app.user-import" in application.properties/yaml.
+ * Rows are read and committed chunk-size at a time; hash-threads=0 uses half
+ * of the available processors (at least one).
+ *
+ * Example:
+ * app.user-import.chunk-size=1000
+ * app.user-import.hash-threads=0
+ * app.user-import.jdbc-batch-size=500
+ */
+@ConfigurationProperties(prefix = "app.user-import")
+public record UserImportProperties(
+        int chunkSize,
+        int hashThreads,
+        int jdbcBatchSize) {
+    public UserImportProperties {
+        // Default values
+        chunkSize = chunkSize > 0 ? chunkSize : 1000;
+        hashThreads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        jdbcBatchSize = jdbcBatchSize > 0 ? jdbcBatchSize : 500;
+    }
+}
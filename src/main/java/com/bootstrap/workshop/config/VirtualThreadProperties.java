@@ -0,0 +1,26 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Virtual-thread request execution and carrier pinning diagnostics.
+ * Binds to properties prefixed with "app.threads.virtual" in application.properties/yaml.
+ * The switch itself is spring.threads.virtual.enabled, which application.properties
+ * derives from app.threads.virtual.enabled.
+ *
+ * Example:
+ * app.threads.virtual.enabled=true
+ * app.threads.virtual.pinned-threshold-ms=20
+ * app.threads.virtual.pinned-stack-depth=64
+ */
+@ConfigurationProperties(prefix = "app.threads.virtual")
+public record VirtualThreadProperties(
+        boolean enabled,
+        long pinnedThresholdMs,
+        int pinnedStackDepth) {
+    public VirtualThreadProperties {
+        // Default values
+        pinnedThresholdMs = pinnedThresholdMs >= 0 ? pinnedThresholdMs : 20;
+        pinnedStackDepth = pinnedStackDepth > 0 ? pinnedStackDepth : 64;
+    }
+}
@@ -0,0 +1,56 @@
+package com.bootstrap.workshop.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Set;
+
+/**
+ * Wallet balance configuration.
+ * Binds to properties prefixed with "app.wallet" in application.properties/yaml.
+ *
+ * Example:
+ * app.wallet.engine=atomic
+ * app.wallet.sharding.hot-addresses=abc123def4567890,0123456789abcdef
+ * app.wallet.sharding.buckets=16
+ * app.wallet.address-key=0x2545F4914F6CDD1D
+ */
+@ConfigurationProperties(prefix = "app.wallet")
+public record WalletProperties(
+        BalanceEngine engine,
+        Sharding sharding,
+        long addressKey) {
+
+    /** Used when app.wallet.address-key is not set. */
+    public static final long DEFAULT_ADDRESS_KEY = 0x2545F4914F6CDD1DL;
+
+    /**
+     * How balances are mutated.
+     * LOCKING: SELECT ... FOR UPDATE, modify the entity, then save.
+     * ATOMIC: single conditional UPDATE ... RETURNING per mutation.
+     */
+    public enum BalanceEngine {
+        LOCKING,
+        ATOMIC
+    }
+
+    /**
+     * Hot wallets whose balance is split across bucket rows.
+     * Credits go to a random bucket; debits sweep buckets into the wallet.
+     */
+    public record Sharding(
+            Set<String> hotAddresses,
+            int buckets) {
+        public Sharding {
+            // Default values
+            hotAddresses = hotAddresses != null ? Set.copyOf(hotAddresses) : Set.of();
+            buckets = buckets > 0 ? buckets : 16;
+        }
+    }
+
+    public WalletProperties {
+        // Default values
+        engine = engine != null ? engine : BalanceEngine.LOCKING;
+        sharding = sharding != null ? sharding : new Sharding(null, 0);
+        addressKey = addressKey != 0 ? addressKey : DEFAULT_ADDRESS_KEY;
+    }
+}
@@ -3,7 +3,11 @@ package com.bootstrap.workshop.controller;
 import com.bootstrap.workshop.dto.UserRegistrationRequest;
 import com.bootstrap.workshop.dto.UserResponse;
 import com.bootstrap.workshop.dto.UserUpdateRequest;
+import com.bootstrap.workshop.service.UserImportFormat;
+import com.bootstrap.workshop.service.UserImportService;
 import com.bootstrap.workshop.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -24,6 +29,7 @@ import java.util.List;
 public class AdminController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     /**
      * List all users.
@@ -58,6 +64,20 @@ public class AdminController {
         return ResponseEntity.status(HttpStatus.CREATED).body(user);
     }
 
+    /**
+     * Bulk-import users, one per row.
+     * POST /api/v1/admin/users/import (Content-Type text/csv or application/x-ndjson)
+     * The request body is read as it arrives; the NDJSON report (rejected rows,
+     * progress per committed chunk, summary) is streamed back as the import runs.
+     */
+    @PostMapping(value = "/import", consumes = {UserImportFormat.CSV_CONTENT_TYPE, UserImportFormat.NDJSON_CONTENT_TYPE})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImportFormat format = UserImportFormat.fromContentType(request.getContentType());
+        log.info("Admin: importing users, format={}", format);
+        response.setContentType(UserImportFormat.NDJSON_CONTENT_TYPE);
+        userImportService.importUsers(request.getInputStream(), format, response.getOutputStream());
+    }
+
     /**
      * Update user by ID.
      * PUT /api/v1/admin/users/{id}
@@ -54,6 +54,10 @@ public class AuthController {
         if (!passwordEncoder.matches(request.password(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            // Hash was made with a lower work factor: re-hash while the raw password is at hand
+            userService.upgradePasswordHash(user.getId(), passwordEncoder.encode(request.password()));
+        }
 
         String token = jwtService.generateToken(user);
         UserResponse userResponse = userService.findByEmail(request.email());
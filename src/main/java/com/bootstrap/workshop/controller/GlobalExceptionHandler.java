@@ -1,7 +1,11 @@
 package com.bootstrap.workshop.controller;
 
 import com.bootstrap.workshop.exception.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -17,9 +21,12 @@ import java.util.Map;
  * Global exception handler for REST API.
  */
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     /**
      * Error response DTO.
      */
@@ -46,6 +53,36 @@ public class GlobalExceptionHandler {
                         null));
     }
 
+    /**
+     * Handle deletion of a user whose wallet has ledger history.
+     */
+    @ExceptionHandler(UserHasLedgerHistoryException.class)
+    public ResponseEntity<ErrorResponse> handleUserHasLedgerHistory(UserHasLedgerHistoryException ex) {
+        log.warn("User deletion rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.CONFLICT.value(),
+                        "Conflict",
+                        ex.getMessage(),
+                        null));
+    }
+
+    /**
+     * Handle a bulk user import started while another one runs.
+     */
+    @ExceptionHandler(UserImportInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleUserImportInProgress(UserImportInProgressException ex) {
+        log.warn("User import rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.CONFLICT.value(),
+                        "Conflict",
+                        ex.getMessage(),
+                        null));
+    }
+
     /**
      * Handle user not found exception.
      */
@@ -106,6 +143,90 @@ public class GlobalExceptionHandler {
                         null));
     }
 
+    /**
+     * Handle malformed pagination cursor.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Bad Request",
+                        ex.getMessage(),
+                        null));
+    }
+
+    /**
+     * Handle unknown export format.
+     */
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<ErrorResponse> handleUnsupportedExportFormat(UnsupportedExportFormatException ex) {
+        log.warn("Unsupported export format: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Bad Request",
+                        ex.getMessage(),
+                        null));
+    }
+
+    /**
+     * Handle saturated password hashing pool: shed load instead of queueing.
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(PasswordHashingBusyException ex) {
+        log.warn("Password hashing busy: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service Unavailable",
+                        ex.getMessage(),
+                        null));
+    }
+
+    /**
+     * Handle a group-commit batch that did not finish in time. Not a lock
+     * conflict: counted separately (business.transfer.batch.timeout) and
+     * answered with 503 so the client backs off before retrying with the
+     * same idempotency key.
+     */
+    @ExceptionHandler(TransferBatchTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleTransferBatchTimeout(TransferBatchTimeoutException ex) {
+        log.warn("Transfer batch timeout: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service Unavailable",
+                        "Transfer is still being processed, please retry with the same idempotency key",
+                        null));
+    }
+
+    /**
+     * Handle deadlock / serialization failures.
+     * The transaction was rolled back, so the client can safely retry with the
+     * same idempotency key.
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyConflict(RuntimeException ex) {
+        String reason = ConcurrencyFailures.reason(ex);
+        log.warn("Concurrency conflict ({}): {}", reason, ex.getMessage());
+        meterRegistry.counter("business.transaction.conflict", "reason", reason).increment();
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.CONFLICT.value(),
+                        "Conflict",
+                        "Concurrent update detected, please retry with the same idempotency key",
+                        null));
+    }
+
     /**
      * Handle validation errors.
      */
@@ -133,6 +254,11 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
+        // Commit-time serialization failures are not always translated by Spring;
+        // a duplicate idempotency key means a concurrent request won, and a retry returns its result
+        if (ConcurrencyFailures.isConflict(ex) || ConcurrencyFailures.isUniqueViolation(ex)) {
+            return handleConcurrencyConflict(ex);
+        }
         log.error("Unexpected error: {}", ex.getMessage(), ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ErrorResponse(
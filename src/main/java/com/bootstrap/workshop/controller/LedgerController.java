@@ -0,0 +1,47 @@
+package com.bootstrap.workshop.controller;
+
+import com.bootstrap.workshop.dto.LedgerBalanceResponse;
+import com.bootstrap.workshop.dto.LedgerReconciliationResponse;
+import com.bootstrap.workshop.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for ledger audit (admin only).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/ledger")
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    /**
+     * Ledger-derived balance of a wallet.
+     * GET /api/v1/admin/ledger/wallets/{address}/balance
+     */
+    @GetMapping("/wallets/{address}/balance")
+    public ResponseEntity<LedgerBalanceResponse> getBalance(@PathVariable String address) {
+        log.info("Admin: ledger balance for wallet {}", address);
+        return ResponseEntity.ok(new LedgerBalanceResponse(address, ledgerService.balanceOf(address)));
+    }
+
+    /**
+     * Run a reconciliation of wallet balances against the ledger now.
+     * POST /api/v1/admin/ledger/reconciliation
+     */
+    @PostMapping("/reconciliation")
+    public ResponseEntity<LedgerReconciliationResponse> reconcile() {
+        log.info("Admin: running ledger reconciliation");
+        LedgerService.Reconciliation result = ledgerService.reconcile();
+        return ResponseEntity.ok(new LedgerReconciliationResponse(
+                result.balanced(),
+                result.walletTotal(),
+                result.ledgerTotal(),
+                result.difference(),
+                result.mismatchedWalletIds()));
+    }
+}
@@ -1,18 +1,29 @@
 package com.bootstrap.workshop.controller;
 
+import com.bootstrap.workshop.config.WebAsyncConfig;
+import com.bootstrap.workshop.dto.BulkTransferRequest;
+import com.bootstrap.workshop.dto.BulkTransferResponse;
+import com.bootstrap.workshop.dto.TransactionPageResponse;
 import com.bootstrap.workshop.dto.TransactionRequest;
 import com.bootstrap.workshop.dto.TransactionResponse;
 import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.service.TransactionExportFormat;
+import com.bootstrap.workshop.service.TransactionExportService;
 import com.bootstrap.workshop.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller for transaction operations.
@@ -24,7 +35,10 @@ import java.util.List;
 @Slf4j
 public class TransactionController {
 
+    private static final long EXPORT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
     /**
      * Transfer money to another wallet.
@@ -44,14 +58,56 @@ public class TransactionController {
     }
 
     /**
-     * Get transaction history for current user.
-     * GET /api/v1/transactions
+     * Pay many wallets from the current user's wallet in one request.
+     * POST /api/v1/transactions/batch
+     * Returns per-item results; 400 without applying anything when the
+     * balance cannot cover the whole batch.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BulkTransferResponse> transferBulk(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody BulkTransferRequest request) {
+        log.info("Bulk transfer of {} items for user: {}", request.transfers().size(), user.getId());
+        return ResponseEntity.ok(transactionService.transferBulk(user.getId(), request.transfers()));
+    }
+
+    /**
+     * Get transaction history for current user, newest first, one page at a time.
+     * GET /api/v1/transactions?after={cursor}&limit={n}
+     * Pass the returned nextCursor as "after" to fetch the following page.
      */
     @GetMapping
-    public ResponseEntity<List<TransactionResponse>> getHistory(@AuthenticationPrincipal User user) {
-        log.info("Get transaction history for user: {}", user.getId());
-        List<TransactionResponse> transactions = transactionService.findByUserId(user.getId());
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<TransactionPageResponse> getHistory(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit) {
+        log.info("Get transaction history for user: {}, limit={}", user.getId(), limit);
+        return ResponseEntity.ok(transactionService.findHistoryByUserId(user.getId(), after, limit));
+    }
+
+    /**
+     * Export the current user's full transaction history, newest first.
+     * GET /api/v1/transactions/export?format=csv|ndjson
+     * The body is streamed page by page as rows are read; unlike other async
+     * responses it may run for up to ten minutes.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        TransactionExportFormat exportFormat = TransactionExportFormat.of(format);
+        String address = transactionExportService.walletAddressOf(user.getId());
+        log.info("Export transactions for user: {}, format={}", user.getId(), exportFormat);
+        request.setAttribute(WebAsyncConfig.TIMEOUT_ATTRIBUTE, EXPORT_TIMEOUT_MS);
+
+        StreamingResponseBody body = out -> transactionExportService.export(address, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions-" + address + "." + exportFormat.fileExtension())
+                        .build().toString())
+                .body(body);
     }
 
     /**
@@ -0,0 +1,17 @@
+package com.bootstrap.workshop.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for a bulk transfer: many payouts from the caller's wallet, applied in
+ * one transaction. Each item carries its own idempotency key.
+ */
+public record BulkTransferRequest(
+        @NotEmpty(message = "At least one transfer is required") @Size(max = BulkTransferRequest.MAX_TRANSFERS, message = "At most 1000 transfers per request") List<@Valid TransactionRequest> transfers) {
+
+    public static final int MAX_TRANSFERS = 1000;
+}
@@ -0,0 +1,20 @@
+package com.bootstrap.workshop.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the per-item results of a bulk transfer, in request order.
+ * An item has either the recorded transaction (SUCCESS or FAILED) or an
+ * error when no transaction could be recorded (e.g. unknown recipient).
+ */
+public record BulkTransferResponse(
+        int succeeded,
+        int failed,
+        List<Item> items) {
+
+    public record Item(
+            String idempotencyKey,
+            TransactionResponse transaction,
+            String error) {
+    }
+}
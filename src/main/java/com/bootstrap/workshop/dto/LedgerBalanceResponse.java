@@ -0,0 +1,11 @@
+package com.bootstrap.workshop.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for a wallet balance derived from the ledger.
+ */
+public record LedgerBalanceResponse(
+        String address,
+        BigDecimal balance) {
+}
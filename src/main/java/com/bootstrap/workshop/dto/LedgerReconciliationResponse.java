@@ -0,0 +1,15 @@
+package com.bootstrap.workshop.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO for ledger reconciliation result.
+ */
+public record LedgerReconciliationResponse(
+        boolean balanced,
+        BigDecimal walletTotal,
+        BigDecimal ledgerTotal,
+        BigDecimal difference,
+        List<Long> mismatchedWalletIds) {
+}
@@ -0,0 +1,12 @@
+package com.bootstrap.workshop.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of transaction history.
+ * nextCursor is passed back as "after" to fetch the following page; null on the last page.
+ */
+public record TransactionPageResponse(
+        List<TransactionResponse> items,
+        String nextCursor) {
+}
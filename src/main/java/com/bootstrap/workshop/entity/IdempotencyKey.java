@@ -0,0 +1,72 @@
+package com.bootstrap.workshop.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency key of a recorded transaction, kept for a retention window.
+ * The primary key makes keys globally unique across transactions
+ * partitions; {@code createdAt} equals the transaction's timestamp, so a
+ * lookup reaches the transaction through its (id, timestamp) primary key.
+ */
+@Entity
+@Table(name = "transaction_idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+})
+public class IdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", nullable = false, updatable = false)
+    private String idempotencyKey;
+
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Assigned id: always inserted, never merged (no SELECT before the INSERT)
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Constructors
+    public IdempotencyKey() {
+    }
+
+    public IdempotencyKey(String idempotencyKey, Long transactionId, LocalDateTime createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.transactionId = transactionId;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
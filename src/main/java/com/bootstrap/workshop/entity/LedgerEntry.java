@@ -0,0 +1,97 @@
+package com.bootstrap.workshop.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only double-entry ledger record.
+ * Every balance change writes one entry per affected wallet (a transfer
+ * writes a DEBIT and a CREDIT); entries are never updated or deleted.
+ */
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_wallet_created", columnList = "wallet_id, created_at"),
+        @Index(name = "idx_ledger_created", columnList = "created_at")
+})
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_id_seq")
+    @SequenceGenerator(name = "ledger_entries_id_seq", sequenceName = "ledger_entries_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false, updatable = false)
+    private Long walletId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, updatable = false, length = 10)
+    private LedgerEntryType entryType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private LedgerOperation operation;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_id", updatable = false)
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public LedgerEntry() {
+    }
+
+    public LedgerEntry(Long walletId, LedgerEntryType entryType, LedgerOperation operation,
+            BigDecimal amount, Long transactionId) {
+        this.walletId = walletId;
+        this.entryType = entryType;
+        this.operation = operation;
+        this.amount = amount;
+        this.transactionId = transactionId;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public LedgerEntryType getEntryType() {
+        return entryType;
+    }
+
+    public LedgerOperation getOperation() {
+        return operation;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Amount with sign applied: positive for credits, negative for debits.
+     */
+    public BigDecimal signedAmount() {
+        return entryType == LedgerEntryType.CREDIT ? amount : amount.negate();
+    }
+}
@@ -0,0 +1,9 @@
+package com.bootstrap.workshop.entity;
+
+/**
+ * Side of a ledger entry: money leaving (DEBIT) or entering (CREDIT) a wallet.
+ */
+public enum LedgerEntryType {
+    DEBIT,
+    CREDIT
+}
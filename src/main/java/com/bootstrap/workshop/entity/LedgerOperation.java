@@ -0,0 +1,12 @@
+package com.bootstrap.workshop.entity;
+
+/**
+ * Business operation that produced a ledger entry.
+ * OPENING entries carry balances that existed before the ledger was introduced.
+ */
+public enum LedgerOperation {
+    OPENING,
+    TRANSFER,
+    DEPOSIT,
+    WITHDRAWAL
+}
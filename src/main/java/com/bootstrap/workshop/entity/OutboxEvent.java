@@ -0,0 +1,98 @@
+package com.bootstrap.workshop.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Business event waiting in the transactional outbox.
+ * Written in the same transaction as the change it describes, so an event
+ * exists if and only if that change committed; the relay publishes it later
+ * and sets {@code publishedAt}. Rows are compact: which fields are set
+ * depends on the {@link OutboxEventType}.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_id_seq")
+    @SequenceGenerator(name = "outbox_events_id_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false, length = 30)
+    private OutboxEventType eventType;
+
+    @Column(name = "wallet_address", updatable = false, length = 16)
+    private String walletAddress;
+
+    @Column(name = "counterparty_address", updatable = false, length = 16)
+    private String counterpartyAddress;
+
+    @Column(updatable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    /**
+     * Transaction id for transfers, user id for registrations.
+     */
+    @Column(name = "reference_id", updatable = false)
+    private Long referenceId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(OutboxEventType eventType, String walletAddress, String counterpartyAddress,
+            BigDecimal amount, Long referenceId) {
+        this.eventType = eventType;
+        this.walletAddress = walletAddress;
+        this.counterpartyAddress = counterpartyAddress;
+        this.amount = amount;
+        this.referenceId = referenceId;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+
+    public String getWalletAddress() {
+        return walletAddress;
+    }
+
+    public String getCounterpartyAddress() {
+        return counterpartyAddress;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bootstrap.workshop.entity;
+
+/**
+ * Business events published through the transactional outbox.
+ */
+public enum OutboxEventType {
+    USER_REGISTERED,
+    WALLET_DEPOSITED,
+    WALLET_WITHDRAWN,
+    TRANSFER_COMPLETED,
+    TRANSFER_FAILED
+}
@@ -3,6 +3,7 @@ package com.bootstrap.workshop.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Transaction entity for recording wallet transfers.
@@ -10,14 +11,15 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "transactions", indexes = {
-        @Index(name = "idx_transaction_from_wallet", columnList = "from_wallet_address"),
-        @Index(name = "idx_transaction_to_wallet", columnList = "to_wallet_address"),
-        @Index(name = "idx_transaction_idempotency", columnList = "idempotency_key", unique = true)
+        @Index(name = "idx_transaction_from_wallet_history", columnList = "from_wallet_address, timestamp DESC, id DESC"),
+        @Index(name = "idx_transaction_to_wallet_history", columnList = "to_wallet_address, timestamp DESC, id DESC")
 })
 public class Transaction {
 
+    // Sequence (not IDENTITY) ids let Hibernate batch inserts; 50 ids per round trip
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_seq")
+    @SequenceGenerator(name = "transactions_id_seq", sequenceName = "transactions_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "from_wallet_address", nullable = false, length = 16)
@@ -36,7 +38,8 @@ public class Transaction {
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
 
-    @Column(name = "idempotency_key", nullable = false, unique = true)
+    // Uniqueness is enforced by IdempotencyKey, within its retention window
+    @Column(name = "idempotency_key", nullable = false)
     private String idempotencyKey;
 
     @Column(name = "error_message")
@@ -44,7 +47,8 @@ public class Transaction {
 
     @PrePersist
     protected void onCreate() {
-        this.timestamp = LocalDateTime.now();
+        // Database precision, so (timestamp, id) history cursors match the stored value
+        this.timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Constructors
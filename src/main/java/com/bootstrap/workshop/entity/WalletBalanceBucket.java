@@ -0,0 +1,60 @@
+package com.bootstrap.workshop.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * One sub-balance of a sharded (hot) wallet.
+ * The wallet's total balance is its own balance plus the sum of its buckets;
+ * spreading credits across buckets avoids serializing on the wallet row lock.
+ */
+@Entity
+@Table(name = "wallet_balance_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_wallet_bucket", columnNames = { "wallet_id", "bucket" })
+})
+public class WalletBalanceBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    // Constructors
+    public WalletBalanceBucket() {
+    }
+
+    public WalletBalanceBucket(Long walletId, int bucket, BigDecimal balance) {
+        this.walletId = walletId;
+        this.bucket = bucket;
+        this.balance = balance;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public int getBucket() {
+        return bucket;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bootstrap.workshop.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ledger balance of a wallet as of {@code coveredUntil}: the sum of all its
+ * ledger entries created before that instant. The current balance is the
+ * latest snapshot plus the entries created since.
+ */
+@Entity
+@Table(name = "wallet_balance_snapshots", indexes = {
+        @Index(name = "idx_snapshot_wallet_covered", columnList = "wallet_id, covered_until")
+})
+public class WalletBalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false, updatable = false)
+    private Long walletId;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Column(name = "covered_until", nullable = false, updatable = false)
+    private LocalDateTime coveredUntil;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public WalletBalanceSnapshot() {
+    }
+
+    public WalletBalanceSnapshot(Long walletId, BigDecimal balance, LocalDateTime coveredUntil) {
+        this.walletId = walletId;
+        this.balance = balance;
+        this.coveredUntil = coveredUntil;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public LocalDateTime getCoveredUntil() {
+        return coveredUntil;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bootstrap.workshop.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Classifies database concurrency failures (deadlocks, serialization
+ * failures, optimistic lock conflicts) that are safe to retry.
+ */
+public final class ConcurrencyFailures {
+
+    /** PostgreSQL: could not serialize access due to concurrent update. */
+    public static final String SERIALIZATION_FAILURE = "40001";
+
+    /** PostgreSQL: deadlock detected. */
+    public static final String DEADLOCK_DETECTED = "40P01";
+
+    /** SQL standard: unique constraint violated. */
+    public static final String UNIQUE_VIOLATION = "23505";
+
+    private ConcurrencyFailures() {
+    }
+
+    /**
+     * Check whether the exception (or any of its causes) is a concurrency
+     * conflict that can be resolved by re-running the transaction.
+     */
+    public static boolean isConflict(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConcurrencyFailureException) {
+                return true;
+            }
+            if (t instanceof SQLException sqlEx && isConflictSqlState(sqlEx.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the exception is a unique constraint violation, i.e. a
+     * concurrent transaction committed the same key first. Not retryable:
+     * the caller should read the winner's row instead.
+     */
+    public static boolean isUniqueViolation(Throwable ex) {
+        return ex instanceof DuplicateKeyException
+                || sqlState(ex).filter(UNIQUE_VIOLATION::equals).isPresent();
+    }
+
+    /**
+     * Check whether the exception is a unique violation of the named
+     * constraint. The name is matched case-insensitively within the reported
+     * constraint name or driver message, since some databases report the
+     * backing index instead (H2: PUBLIC.USERS_EMAIL_KEY_INDEX_4).
+     */
+    public static boolean isUniqueViolation(Throwable ex, String constraint) {
+        if (!isUniqueViolation(ex)) {
+            return false;
+        }
+        String name = constraint.toLowerCase(Locale.ROOT);
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            String reported = t instanceof ConstraintViolationException cve ? cve.getConstraintName()
+                    : t instanceof SQLException ? t.getMessage() : null;
+            if (reported != null && reported.toLowerCase(Locale.ROOT).contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the first SQLSTATE in the cause chain, if any.
+     */
+    public static Optional<String> sqlState(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlEx && sqlEx.getSQLState() != null) {
+                return Optional.of(sqlEx.getSQLState());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Short reason tag for metrics: deadlock, serialization, duplicate_key or optimistic_lock.
+     */
+    public static String reason(Throwable ex) {
+        return sqlState(ex)
+                .map(state -> switch (state) {
+                    case DEADLOCK_DETECTED -> "deadlock";
+                    case SERIALIZATION_FAILURE -> "serialization";
+                    case UNIQUE_VIOLATION -> "duplicate_key";
+                    default -> "sqlstate_" + state;
+                })
+                .orElse("optimistic_lock");
+    }
+
+    private static boolean isConflictSqlState(String sqlState) {
+        return SERIALIZATION_FAILURE.equals(sqlState) || DEADLOCK_DETECTED.equals(sqlState);
+    }
+}
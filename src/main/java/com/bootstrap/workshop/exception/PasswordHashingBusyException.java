@@ -0,0 +1,10 @@
+package com.bootstrap.workshop.exception;
+
+/**
+ * Exception thrown when the password hashing pool is saturated.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException() {
+        super("Authentication is temporarily overloaded, please retry shortly");
+    }
+}
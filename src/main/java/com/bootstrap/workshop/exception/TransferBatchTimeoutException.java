@@ -0,0 +1,13 @@
+package com.bootstrap.workshop.exception;
+
+/**
+ * Exception thrown when a group-committed transfer's batch has not completed
+ * within the result timeout (or the caller was interrupted while waiting).
+ * The batch may still commit, so the client must retry with the same
+ * idempotency key.
+ */
+public class TransferBatchTimeoutException extends RuntimeException {
+    public TransferBatchTimeoutException(String message) {
+        super(message);
+    }
+}
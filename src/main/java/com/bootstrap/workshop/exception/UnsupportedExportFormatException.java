@@ -0,0 +1,10 @@
+package com.bootstrap.workshop.exception;
+
+/**
+ * Exception thrown when an export is requested in an unknown format.
+ */
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String format) {
+        super("Unsupported export format: " + format + " (expected csv or ndjson)");
+    }
+}
@@ -0,0 +1,11 @@
+package com.bootstrap.workshop.exception;
+
+/**
+ * Exception thrown when deleting a user whose wallet has ledger entries,
+ * which are audit history and are never deleted.
+ */
+public class UserHasLedgerHistoryException extends RuntimeException {
+    public UserHasLedgerHistoryException(Long userId) {
+        super("User " + userId + " has ledger history and cannot be deleted");
+    }
+}
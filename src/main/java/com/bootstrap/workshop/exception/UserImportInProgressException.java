@@ -0,0 +1,10 @@
+package com.bootstrap.workshop.exception;
+
+/**
+ * Exception thrown when a bulk user import is started while another one runs.
+ */
+public class UserImportInProgressException extends RuntimeException {
+    public UserImportInProgressException() {
+        super("A user import is already running, please retry when it has finished");
+    }
+}
@@ -0,0 +1,90 @@
+package com.bootstrap.workshop.idempotency;
+
+import com.bootstrap.workshop.config.IdempotencyProperties;
+import com.bootstrap.workshop.dto.TransactionResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-instance memory of recent idempotency keys.
+ * {@link #cached} answers a retry of a completed transfer without a database
+ * round trip; {@link #isNew} tells whether the key was definitely not seen
+ * here recently (bloom filter, no false negatives), in which case the caller
+ * may skip the idempotency lookup and rely on the unique constraint, since
+ * the key can only exist if another instance (or this one before a restart)
+ * recorded it.
+ * Metrics: business.idempotency.lookup{result=cached|new|checked}, and
+ * cache.gets / cache.size with cache="idempotency.responses".
+ */
+@Component
+public class IdempotencyCache {
+
+    private final IdempotencyProperties properties;
+    private final RecentKeyFilter recentKeys;
+    private final Cache<String, TransactionResponse> responses;
+    private final Counter cachedLookups;
+    private final Counter newLookups;
+    private final Counter checkedLookups;
+
+    public IdempotencyCache(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.recentKeys = new RecentKeyFilter(properties.filterKeys(), properties.filterFalsePositiveRate());
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.cacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(properties.cacheTtlMs()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency.responses");
+        this.cachedLookups = meterRegistry.counter("business.idempotency.lookup", "result", "cached");
+        this.newLookups = meterRegistry.counter("business.idempotency.lookup", "result", "new");
+        this.checkedLookups = meterRegistry.counter("business.idempotency.lookup", "result", "checked");
+    }
+
+    /**
+     * Recorded response of a completed transfer with this key, or null.
+     */
+    public TransactionResponse cached(String key) {
+        if (!properties.enabled()) {
+            return null;
+        }
+        TransactionResponse response = responses.getIfPresent(key);
+        if (response != null) {
+            cachedLookups.increment();
+        }
+        return response;
+    }
+
+    /**
+     * True if this instance has definitely not seen the key recently; the key
+     * is remembered as seen from now on. Always false when disabled, so every
+     * transfer then checks the database.
+     */
+    public boolean isNew(String key) {
+        if (!properties.enabled()) {
+            return false;
+        }
+        if (recentKeys.mightContain(key)) {
+            checkedLookups.increment();
+            return false;
+        }
+        recentKeys.add(key);
+        newLookups.increment();
+        return true;
+    }
+
+    /**
+     * Remember the committed response recorded under {@code key}.
+     */
+    public void remember(String key, TransactionResponse response) {
+        if (properties.enabled()) {
+            recentKeys.add(key);
+            responses.put(key, response);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bootstrap.workshop.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the most recently added keys.
+ * Two generations of {@code keysPerGeneration} keys each: once the current
+ * generation is full it becomes the previous one and the old previous one is
+ * dropped, so memory stays fixed and the false-positive rate stays near its
+ * target instead of degrading as keys accumulate. A key added in the last
+ * generation is always reported as present; an older key may not be.
+ * Both generations are allocated up front, each about 9.6 bits per key at a
+ * 1% false-positive rate: about 2.4 MB for a million keys per generation.
+ * Lock-free except for the rotation itself.
+ */
+public class RecentKeyFilter {
+
+    private final int keysPerGeneration;
+    private final int bits;
+    private final int hashes;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    public RecentKeyFilter(int keysPerGeneration, double falsePositiveRate) {
+        this.keysPerGeneration = keysPerGeneration;
+        // Standard sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-keysPerGeneration * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / keysPerGeneration * Math.log(2)));
+        this.current = new Generation(bits);
+        this.previous = new Generation(bits);
+    }
+
+    /**
+     * False means the key was definitely not added in the retained window.
+     */
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        return current.mightContain(hash, hashes, bits) || previous.mightContain(hash, hashes, bits);
+    }
+
+    public void add(String key) {
+        Generation generation = current;
+        generation.add(hash(key), hashes, bits);
+        if (generation.count.incrementAndGet() == keysPerGeneration) {
+            rotate(generation);
+        }
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (current == full) {
+            previous = full;
+            current = new Generation(bits);
+        }
+    }
+
+    int bitCount() {
+        return bits;
+    }
+
+    int hashCount() {
+        return hashes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur3 mixer.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+
+        Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+        }
+
+        // Double hashing (Kirsch-Mitzenmacher): probe i is h1 + i * h2
+        boolean mightContain(long hash, int hashes, int bits) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long hash, int hashes, int bits) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                if ((words.get(bit >>> 6) & mask) == 0) {
+                    words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+                }
+            }
+        }
+    }
+}
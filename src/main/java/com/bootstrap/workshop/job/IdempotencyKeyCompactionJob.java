@@ -0,0 +1,43 @@
+package com.bootstrap.workshop.job;
+
+import com.bootstrap.workshop.config.IdempotencyProperties;
+import com.bootstrap.workshop.service.IdempotencyKeyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes idempotency keys older than the retention window, one small batch
+ * per transaction, until none are left.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyCompactionJob {
+
+    private final IdempotencyKeyService idempotencyKeyService;
+    private final IdempotencyProperties idempotencyProperties;
+
+    @Scheduled(fixedDelayString = "${app.idempotency.compaction-interval-ms:600000}",
+            initialDelayString = "${app.idempotency.compaction-interval-ms:600000}")
+    public void run() {
+        LocalDateTime before = idempotencyKeyService.retentionCutoff(LocalDateTime.now());
+        int total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = idempotencyKeyService.deleteExpired(before);
+                total += deleted;
+            } while (deleted == idempotencyProperties.compactionBatchSize());
+        } catch (RuntimeException ex) {
+            log.error("Idempotency key compaction failed after {} keys", total, ex);
+            return;
+        }
+        if (total > 0) {
+            log.info("Idempotency key compaction: deleted={}, createdBefore={}", total, before);
+        }
+    }
+}
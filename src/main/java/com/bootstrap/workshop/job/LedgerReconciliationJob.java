@@ -0,0 +1,29 @@
+package com.bootstrap.workshop.job;
+
+import com.bootstrap.workshop.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically verifies that wallet balances add up to the ledger.
+ * Mismatches are logged and counted (business.ledger.reconciliation{outcome=mismatch}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerReconciliationJob {
+
+    private final LedgerService ledgerService;
+
+    @Scheduled(fixedDelayString = "${app.ledger.reconciliation-interval-ms:900000}",
+            initialDelayString = "${app.ledger.reconciliation-interval-ms:900000}")
+    public void run() {
+        try {
+            ledgerService.reconcile();
+        } catch (RuntimeException ex) {
+            log.error("Ledger reconciliation failed", ex);
+        }
+    }
+}
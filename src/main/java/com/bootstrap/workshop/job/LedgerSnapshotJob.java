@@ -0,0 +1,34 @@
+package com.bootstrap.workshop.job;
+
+import com.bootstrap.workshop.config.LedgerProperties;
+import com.bootstrap.workshop.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically snapshots ledger balances so that deriving a balance only
+ * needs the entries written since the last run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerSnapshotJob {
+
+    private final LedgerService ledgerService;
+    private final LedgerProperties ledgerProperties;
+
+    @Scheduled(fixedDelayString = "${app.ledger.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.ledger.snapshot-interval-ms:300000}")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(ledgerProperties.settleSeconds());
+        try {
+            ledgerService.snapshotBalances(cutoff);
+        } catch (RuntimeException ex) {
+            log.error("Ledger snapshot failed", ex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bootstrap.workshop.job;
+
+import com.bootstrap.workshop.config.OutboxProperties;
+import com.bootstrap.workshop.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Relays committed outbox events to the sink and compacts published ones.
+ * Each poll drains up to max-batches-per-poll batches, one transaction per
+ * batch, and stops early once the backlog is empty.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayJob {
+
+    private final OutboxService outboxService;
+    private final OutboxProperties outboxProperties;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!outboxProperties.enabled()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < outboxProperties.maxBatchesPerPoll(); i++) {
+                if (outboxService.relayBatch() < outboxProperties.batchSize()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Outbox relay failed, will retry on the next poll", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.compaction-interval-ms:300000}",
+            initialDelayString = "${app.outbox.compaction-interval-ms:300000}")
+    public void compact() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(outboxProperties.retentionMs()));
+        try {
+            while (outboxService.compact(before) == OutboxService.COMPACTION_CHUNK) {
+                // Keep going until the last, partial chunk
+            }
+        } catch (RuntimeException ex) {
+            log.error("Outbox compaction failed", ex);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bootstrap.workshop.job;
+
+import com.bootstrap.workshop.config.PartitionProperties;
+import com.bootstrap.workshop.service.TransactionPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Keeps transactions partitions ahead of time and archives expired ones.
+ * Runs once at startup (so a fresh deployment never inserts into a missing
+ * partition) and then daily.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionJob {
+
+    private final TransactionPartitionService partitionService;
+    private final PartitionProperties partitionProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (partitionProperties.enabled()) {
+            partitionService.createUpcomingPartitions(YearMonth.now());
+        }
+    }
+
+    @Scheduled(cron = "${app.partitioning.cron:0 0 3 * * *}")
+    public void run() {
+        if (!partitionProperties.enabled()) {
+            return;
+        }
+        try {
+            YearMonth now = YearMonth.now();
+            partitionService.createUpcomingPartitions(now);
+            partitionService.archiveExpiredPartitions(now);
+        } catch (RuntimeException ex) {
+            log.error("Transaction partition maintenance failed", ex);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bootstrap.workshop.observability;
+
+import java.lang.reflect.RecordComponent;
+import java.util.List;
+
+/**
+ * Renders method arguments for debug logs with credentials masked: any
+ * parameter or record component whose name mentions a password, secret,
+ * token or hash is printed as "****". Records are expanded one level.
+ */
+final class ArgumentMasker {
+
+    static final String MASK = "****";
+
+    private static final List<String> SENSITIVE = List.of("password", "secret", "token", "hash");
+
+    private static final ClassValue<RecordComponent[]> COMPONENTS = new ClassValue<>() {
+        @Override
+        protected RecordComponent[] computeValue(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            for (RecordComponent component : components) {
+                component.getAccessor().trySetAccessible();
+            }
+            return components;
+        }
+    };
+
+    private ArgumentMasker() {
+    }
+
+    static String format(String[] names, Object[] args) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            if (names != null && i < names.length && isSensitive(names[i])) {
+                out.append(MASK);
+            } else {
+                append(out, args[i]);
+            }
+        }
+        return out.append(']').toString();
+    }
+
+    private static void append(StringBuilder out, Object arg) {
+        if (arg == null || !arg.getClass().isRecord()) {
+            out.append(arg);
+            return;
+        }
+        out.append(arg.getClass().getSimpleName()).append('[');
+        RecordComponent[] components = COMPONENTS.get(arg.getClass());
+        for (int i = 0; i < components.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(components[i].getName()).append('=');
+            if (isSensitive(components[i].getName())) {
+                out.append(MASK);
+            } else {
+                try {
+                    out.append(components[i].getAccessor().invoke(arg));
+                } catch (ReflectiveOperationException e) {
+                    out.append('?');
+                }
+            }
+        }
+        out.append(']');
+    }
+
+    private static boolean isSensitive(String name) {
+        String lower = name.toLowerCase();
+        return SENSITIVE.stream().anyMatch(lower::contains);
+    }
+}
@@ -0,0 +1,42 @@
+package com.bootstrap.workshop.observability;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Exports the state of the root logger's {@link RingBufferAppender}s:
+ * logging.async.queue.depth and logging.async.dropped, tagged by appender.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> it = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (it.hasNext()) {
+            if (it.next() instanceof RingBufferAppender appender) {
+                Gauge.builder("logging.async.queue.depth", appender, RingBufferAppender::queueDepth)
+                        .description("Log events waiting in the ring buffer")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                FunctionCounter.builder("logging.async.dropped", appender, RingBufferAppender::droppedCount)
+                        .description("DEBUG/INFO log events dropped because the ring buffer was full")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
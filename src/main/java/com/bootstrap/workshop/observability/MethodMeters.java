@@ -0,0 +1,64 @@
+package com.bootstrap.workshop.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Meters of one instrumented method, registered once and reused for every
+ * call (method.exec.time, method.exec.count by result).
+ */
+final class MethodMeters {
+
+    private final String className;
+    private final String methodName;
+    private final String[] parameterNames;
+    private final MeterRegistry meterRegistry;
+    private final Timer timer;
+    private final Counter success;
+    private final Map<Class<?>, Counter> failures = new ConcurrentHashMap<>();
+
+    MethodMeters(String className, String methodName, String[] parameterNames, MeterRegistry meterRegistry) {
+        this.className = className;
+        this.methodName = methodName;
+        this.parameterNames = parameterNames;
+        this.meterRegistry = meterRegistry;
+        this.timer = Timer.builder("method.exec.time")
+                .tag("class", className)
+                .tag("method", methodName)
+                .register(meterRegistry);
+        this.success = counter("success");
+    }
+
+    String name() {
+        return className + "." + methodName;
+    }
+
+    String[] parameterNames() {
+        return parameterNames;
+    }
+
+    Timer timer() {
+        return timer;
+    }
+
+    Counter success() {
+        return success;
+    }
+
+    Counter failure(Class<?> exceptionType) {
+        Counter counter = failures.get(exceptionType);
+        return counter != null ? counter : failures.computeIfAbsent(exceptionType, t -> counter(t.getSimpleName()));
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("method.exec.count")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,33 +1,47 @@
 package com.bootstrap.workshop.observability;
 
-import io.micrometer.core.instrument.Counter;
+import com.bootstrap.workshop.config.ObservabilityProperties;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Aspect for automatic observability (logging, tracing, metrics) across
  * services and controllers.
+ *
+ * Kept cheap because it wraps every call: meters are registered once per
+ * method and reused, only a sample of calls get their own span
+ * (app.observability.span-sample-rate), and entry/exit is logged at DEBUG
+ * with credentials masked (see {@link ArgumentMasker}).
  */
 @Aspect
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class ObservabilityAspect {
 
     private final Tracer tracer;
     private final MeterRegistry meterRegistry;
+    private final double spanSampleRate;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public ObservabilityAspect(Tracer tracer, MeterRegistry meterRegistry, ObservabilityProperties properties) {
+        this.tracer = tracer;
+        this.meterRegistry = meterRegistry;
+        this.spanSampleRate = properties.spanSampleRate();
+    }
 
     @Pointcut("execution(public * com.bootstrap.workshop.service.*.*(..)) || " +
             "execution(public * com.bootstrap.workshop.controller.*.*(..))")
@@ -36,58 +50,47 @@ public class ObservabilityAspect {
 
     @Around("monitoredMethods()")
     public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        String fullMethodName = className + "." + methodName;
-
-        // 1. Create Span
-        Span newSpan = tracer.nextSpan().name(fullMethodName);
-
-        try (Tracer.SpanInScope ws = tracer.withSpan(newSpan.start())) {
-            // 2. Log Entry
-            // Sanitize args - avoiding logging potential sensitive data directly in
-            // production
-            // For workshop/dev we can log args, but let's be careful with passwords
-            Object[] args = joinPoint.getArgs();
-            log.info("Entering {}.{} with args: {}", className, methodName,
-                    Arrays.toString(args)); // In real prod, use specific masking
-
-            long start = System.nanoTime();
-            Object result;
-            try {
-                // 3. Proceed
-                result = joinPoint.proceed();
-
-                // 4. Record Success Metric
-                recordMetrics(className, methodName, "success");
-
-                return result;
-            } catch (Throwable t) {
-                // 4. Record Failure Metric
-                recordMetrics(className, methodName, t.getClass().getSimpleName());
-                throw t;
-            } finally {
-                // 4. Record Timer
-                long duration = System.nanoTime() - start;
-                Timer.builder("method.exec.time")
-                        .tag("class", className)
-                        .tag("method", methodName)
-                        .register(meterRegistry)
-                        .record(duration, TimeUnit.NANOSECONDS);
+        MethodMeters method = metersOf((MethodSignature) joinPoint.getSignature());
+        boolean debug = log.isDebugEnabled();
+        if (debug) {
+            log.debug("Entering {} with args: {}", method.name(),
+                    ArgumentMasker.format(method.parameterNames(), joinPoint.getArgs()));
+        }
 
-                log.info("Exiting {}.{} - Duration: {} ms", className, methodName,
-                        TimeUnit.NANOSECONDS.toMillis(duration));
-                newSpan.end();
+        Span span = sampled() ? tracer.nextSpan().name(method.name()).start() : null;
+        long start = System.nanoTime();
+        try (Tracer.SpanInScope ws = span != null ? tracer.withSpan(span) : null) {
+            Object result = joinPoint.proceed();
+            method.success().increment();
+            return result;
+        } catch (Throwable t) {
+            method.failure(t.getClass()).increment();
+            if (span != null) {
+                span.error(t);
+            }
+            throw t;
+        } finally {
+            long duration = System.nanoTime() - start;
+            method.timer().record(duration, TimeUnit.NANOSECONDS);
+            if (debug) {
+                log.debug("Exiting {} - Duration: {} ms", method.name(), TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+            if (span != null) {
+                span.end();
             }
         }
     }
 
-    private void recordMetrics(String className, String methodName, String status) {
-        Counter.builder("method.exec.count")
-                .tag("class", className)
-                .tag("method", methodName)
-                .tag("result", status)
-                .register(meterRegistry)
-                .increment();
+    // Keyed by Method: Spring AOP creates a new join point (and static part) per call
+    private MethodMeters metersOf(MethodSignature signature) {
+        MethodMeters method = meters.get(signature.getMethod());
+        return method != null ? method : meters.computeIfAbsent(signature.getMethod(),
+                m -> new MethodMeters(signature.getDeclaringType().getSimpleName(), m.getName(),
+                        signature.getParameterNames(), meterRegistry));
+    }
+
+    private boolean sampled() {
+        return spanSampleRate >= 1.0
+                || (spanSampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < spanSampleRate);
     }
 }
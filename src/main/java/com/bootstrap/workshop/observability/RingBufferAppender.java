@@ -0,0 +1,181 @@
+package com.bootstrap.workshop.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback appender that hands events to its child appenders (console, Loki)
+ * through a lock-free Disruptor ring buffer drained by one background
+ * thread, so request threads never encode JSON or wait on stdout/Loki.
+ *
+ * When the buffer is full, events below WARN are dropped and counted;
+ * WARN and ERROR wait for space, so they are never lost. Output stream
+ * children are flushed once per drained batch instead of per event (set
+ * immediateFlush=false on them). Queue depth and drop counts are exported
+ * by {@link LoggingMetrics}.
+ *
+ * Example (logback-spring.xml):
+ * <appender name="ASYNC_CONSOLE" class="com.bootstrap.workshop.observability.RingBufferAppender">
+ *     <ringBufferSize>8192</ringBufferSize>
+ *     <appender-ref ref="CONSOLE"/>
+ * </appender>
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final EventTranslatorOneArg<Slot, ILoggingEvent> TRANSLATOR = (slot, sequence, event) -> slot.event = event;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private int ringBufferSize = 8192;
+    private long shutdownTimeoutMs = 5_000;
+    private Disruptor<Slot> disruptor;
+    private RingBuffer<Slot> ringBuffer;
+
+    @Override
+    public void start() {
+        if (Integer.bitCount(ringBufferSize) != 1) {
+            addError("ringBufferSize must be a power of two: " + ringBufferSize);
+            return;
+        }
+        disruptor = new Disruptor<>(Slot::new, ringBufferSize, runnable -> {
+            Thread thread = new Thread(runnable, "log-" + getName());
+            thread.setDaemon(true);
+            return thread;
+        }, ProducerType.MULTI, new SleepingWaitStrategy(200, TimeUnit.MILLISECONDS.toNanos(1)));
+        disruptor.handleEventsWith(new Drain());
+        ringBuffer = disruptor.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        try {
+            disruptor.shutdown(shutdownTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            addWarn("Log ring buffer not drained within " + shutdownTimeoutMs + "ms");
+            disruptor.halt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Freeze message, MDC (trace ids) and thread name before leaving the caller's thread
+        event.prepareForDeferredProcessing();
+        if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            ringBuffer.publishEvent(TRANSLATOR, event);
+        } else if (!ringBuffer.tryPublishEvent(TRANSLATOR, event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Events waiting to be written.
+     */
+    public long queueDepth() {
+        return ringBuffer != null ? ringBufferSize - ringBuffer.remainingCapacity() : 0;
+    }
+
+    /**
+     * DEBUG/INFO events discarded because the buffer was full.
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public void setRingBufferSize(int ringBufferSize) {
+        this.ringBufferSize = ringBufferSize;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+    static final class Slot {
+        ILoggingEvent event;
+    }
+
+    private final class Drain implements EventHandler<Slot> {
+
+        @Override
+        public void onEvent(Slot slot, long sequence, boolean endOfBatch) {
+            ILoggingEvent event = slot.event;
+            slot.event = null;
+            appenders.appendLoopOnAppenders(event);
+            if (endOfBatch) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            Iterator<Appender<ILoggingEvent>> it = appenders.iteratorForAppenders();
+            while (it.hasNext()) {
+                if (it.next() instanceof OutputStreamAppender<ILoggingEvent> stream && stream.getOutputStream() != null) {
+                    try {
+                        stream.getOutputStream().flush();
+                    } catch (IOException e) {
+                        addError("Failed to flush " + stream.getName(), e);
+                    }
+                }
+            }
+        }
+    }
+}
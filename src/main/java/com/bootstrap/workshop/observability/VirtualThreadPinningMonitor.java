@@ -0,0 +1,106 @@
+package com.bootstrap.workshop.observability;
+
+import com.bootstrap.workshop.config.VirtualThreadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier
+ * (synchronized sections, native frames) as the timer
+ * jvm.threads.virtual.pinned, tagged with the first application or library
+ * frame on the stack.
+ *
+ * Pinned blocking removes a carrier from the ForkJoinPool for its whole
+ * duration, so a hot site here caps request concurrency at the number of
+ * carriers rather than at the connection pool. Uses JFR event streaming
+ * (jdk.VirtualThreadPinned); only events longer than the configured threshold
+ * are recorded.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.threads.virtual", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    static final String UNKNOWN_SITE = "unknown";
+
+    private static final List<String> RUNTIME_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final VirtualThreadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private volatile RecordingStream stream;
+
+    @Override
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream recording = new RecordingStream();
+        recording.enable(EVENT)
+                .withThreshold(Duration.ofMillis(properties.pinnedThresholdMs()))
+                .withStackTrace();
+        recording.onEvent(EVENT, this::record);
+        recording.startAsync();
+        stream = recording;
+        log.info("Virtual thread pinning monitor started (threshold {}ms)", properties.pinnedThresholdMs());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream == null) {
+            return;
+        }
+        stream.close();
+        stream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<String> frames = stackTrace == null ? List.of() : stackTrace.getFrames().stream()
+                .limit(properties.pinnedStackDepth())
+                .map(VirtualThreadPinningMonitor::frameName)
+                .toList();
+        String site = siteOf(frames);
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to a carrier thread")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(event.getDuration());
+        log.debug("Virtual thread pinned for {}ms at {}: {}", event.getDuration().toMillis(), site, frames);
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    /**
+     * The first frame outside the JDK, i.e. the code that entered the
+     * monitor or native call. Keeps the tag bounded by call sites instead of
+     * by stack traces.
+     */
+    static String siteOf(List<String> frames) {
+        return frames.stream()
+                .filter(frame -> RUNTIME_PACKAGES.stream().noneMatch(frame::startsWith))
+                .findFirst()
+                .orElse(frames.isEmpty() ? UNKNOWN_SITE : frames.getFirst());
+    }
+}
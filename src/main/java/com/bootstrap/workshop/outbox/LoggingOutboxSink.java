@@ -0,0 +1,20 @@
+package com.bootstrap.workshop.outbox;
+
+import com.bootstrap.workshop.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Writes one log line per event. Useful until a real sink is wired in.
+ */
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("Outbox event: {}", OutboxEvents.toJson(event));
+        }
+    }
+}
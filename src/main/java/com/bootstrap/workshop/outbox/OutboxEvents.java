@@ -0,0 +1,32 @@
+package com.bootstrap.workshop.outbox;
+
+import com.bootstrap.workshop.entity.OutboxEvent;
+
+/**
+ * Wire format of outbox events: one flat JSON object per event, fields that
+ * do not apply to the event type omitted.
+ */
+public final class OutboxEvents {
+
+    private OutboxEvents() {
+    }
+
+    public static String toJson(OutboxEvent event) {
+        StringBuilder json = new StringBuilder(160)
+                .append("{\"id\":").append(event.getId())
+                .append(",\"type\":\"").append(event.getEventType()).append('"');
+        if (event.getWalletAddress() != null) {
+            json.append(",\"wallet\":\"").append(event.getWalletAddress()).append('"');
+        }
+        if (event.getCounterpartyAddress() != null) {
+            json.append(",\"counterparty\":\"").append(event.getCounterpartyAddress()).append('"');
+        }
+        if (event.getAmount() != null) {
+            json.append(",\"amount\":\"").append(event.getAmount().toPlainString()).append('"');
+        }
+        if (event.getReferenceId() != null) {
+            json.append(",\"reference\":").append(event.getReferenceId());
+        }
+        return json.append(",\"createdAt\":\"").append(event.getCreatedAt()).append("\"}").toString();
+    }
+}
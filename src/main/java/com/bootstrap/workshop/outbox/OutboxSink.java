@@ -0,0 +1,21 @@
+package com.bootstrap.workshop.outbox;
+
+import com.bootstrap.workshop.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events (a broker, a fraud service, ...).
+ * The built-in sinks are chosen with app.outbox.sink; any other
+ * implementation replaces them by declaring an OutboxSink bean.
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver a batch of events, oldest first. Returning normally means every
+     * event was accepted; throwing leaves the whole batch unpublished and it
+     * is offered again on the next poll, so delivery is at-least-once and
+     * consumers should deduplicate by event id.
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,57 @@
+package com.bootstrap.workshop.ratelimit;
+
+import com.bootstrap.workshop.config.RateLimitProperties;
+import com.bootstrap.workshop.config.RateLimitProperties.Policy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-instance token buckets in a bounded Caffeine map. A bucket that has
+ * not been touched for a full period is back at capacity, so it is dropped
+ * after the longest configured period and recreated full on next use.
+ * No database access.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier clockMs;
+
+    public InMemoryRateLimitStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, monotonicClockMs());
+    }
+
+    InMemoryRateLimitStore(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clockMs) {
+        long longestPeriodMs = properties.policies().stream().mapToLong(Policy::periodMs).max().orElse(60_000);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys())
+                .expireAfterAccess(Duration.ofMillis(longestPeriodMs))
+                .recordStats()
+                .build();
+        this.clockMs = clockMs;
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "ratelimit.buckets");
+    }
+
+    @Override
+    public long tryAcquire(String key, Policy policy) {
+        long now = clockMs.getAsLong();
+        TokenBucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = buckets.get(key, k -> new TokenBucket(policy.capacity(), policy.periodMs(), now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Milliseconds since the store was created: immune to wall-clock jumps
+     * and small enough for the bucket's packed time field.
+     */
+    private static LongSupplier monotonicClockMs() {
+        long origin = System.nanoTime();
+        return () -> (System.nanoTime() - origin) / 1_000_000;
+    }
+}
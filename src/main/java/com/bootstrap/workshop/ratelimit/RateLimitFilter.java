@@ -0,0 +1,107 @@
+package com.bootstrap.workshop.ratelimit;
+
+import com.bootstrap.workshop.config.RateLimitProperties;
+import com.bootstrap.workshop.config.RateLimitProperties.KeyType;
+import com.bootstrap.workshop.config.RateLimitProperties.Policy;
+import com.bootstrap.workshop.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rejects requests over their per-client rate with 429 and Retry-After.
+ *
+ * Runs inside the security filter chain right after JwtAuthFilter, so USER
+ * policies are keyed by the already-verified JWT subject; anonymous requests
+ * and IP policies are keyed by the client address. Buckets are looked up in
+ * a {@link RateLimitStore}; no database access.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<Policy> policies;
+    // Parsed once: matching a precompiled PathPattern avoids re-tokenizing each policy's pattern per request
+    private final PathPattern[] patterns;
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.policies = properties.policies();
+        PathPatternParser parser = new PathPatternParser();
+        this.patterns = policies.stream().map(policy -> parser.parse(policy.path())).toArray(PathPattern[]::new);
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Policy policy = policyFor(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitMs = store.tryAcquire(keyOf(policy, request), policy);
+        if (waitMs > 0) {
+            reject(response, policy, waitMs);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * First policy matching the request, or null when none applies.
+     */
+    Policy policyFor(String method, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (int i = 0; i < patterns.length; i++) {
+            Policy policy = policies.get(i);
+            if ((policy.method() == null || policy.method().equals(method)) && patterns[i].matches(container)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    private static String keyOf(Policy policy, HttpServletRequest request) {
+        if (policy.key() == KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User user) {
+                return policy.name() + ":user:" + user.getId();
+            }
+        }
+        return policy.name() + ":ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Policy policy, long waitMs) throws IOException {
+        log.warn("Rate limit exceeded for policy {}", policy.name());
+        meterRegistry.counter("http.ratelimit.rejected", "policy", policy.name()).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.ceilDiv(waitMs, 1_000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("""
+                {"timestamp":"%s","status":429,"error":"Too Many Requests","message":"Rate limit exceeded, please retry later","path":null}"""
+                .formatted(LocalDateTime.now()));
+    }
+}
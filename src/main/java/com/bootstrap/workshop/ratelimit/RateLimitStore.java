@@ -0,0 +1,19 @@
+package com.bootstrap.workshop.ratelimit;
+
+import com.bootstrap.workshop.config.RateLimitProperties.Policy;
+
+/**
+ * Where token buckets live. The default {@link InMemoryRateLimitStore} keeps
+ * them per instance; a shared backend (e.g. Redis) can replace it by
+ * declaring another RateLimitStore bean.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one token from the bucket of {@code key} under {@code policy}.
+     *
+     * @return 0 if the request is allowed, otherwise the milliseconds until
+     *         the next token becomes available
+     */
+    long tryAcquire(String key, Policy policy);
+}
@@ -0,0 +1,58 @@
+package com.bootstrap.workshop.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket: the last refill time (milliseconds on the store's
+ * clock, 41 bits) and the token count (23 bits) are packed into one long and updated with a
+ * single CAS, so concurrent requests for the same key never block.
+ *
+ * Refill is continuous (capacity tokens per period); the refill time only
+ * advances by whole tokens, so fractional progress is not lost between calls.
+ */
+public class TokenBucket {
+
+    static final int TOKEN_BITS = 23;
+    static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private final long capacity;
+    private final long periodMs;
+    private final AtomicLong state;
+
+    public TokenBucket(long capacity, long periodMs, long nowMs) {
+        this.capacity = capacity;
+        this.periodMs = periodMs;
+        this.state = new AtomicLong(pack(nowMs, capacity));
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise milliseconds until the next one
+     */
+    public long tryAcquire(long nowMs) {
+        while (true) {
+            long current = state.get();
+            long last = current >>> TOKEN_BITS;
+            long tokens = current & TOKEN_MASK;
+
+            long elapsed = Math.min(Math.max(nowMs - last, 0), periodMs);
+            long refill = Math.min(capacity - tokens, elapsed * capacity / periodMs);
+            long available = tokens + refill;
+            long refilledAt = available == capacity ? Math.max(nowMs, last) : last + refill * periodMs / capacity;
+
+            if (available == 0) {
+                return Math.max(1, refilledAt + Math.ceilDiv(periodMs, capacity) - nowMs);
+            }
+            if (state.compareAndSet(current, pack(refilledAt, available - 1))) {
+                return 0;
+            }
+        }
+    }
+
+    long tokens() {
+        return state.get() & TOKEN_MASK;
+    }
+
+    private static long pack(long timeMs, long tokens) {
+        return (timeMs << TOKEN_BITS) | tokens;
+    }
+}
@@ -0,0 +1,27 @@
+package com.bootstrap.workshop.repository;
+
+import com.bootstrap.workshop.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for transaction idempotency keys.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Delete up to {@code limit} of the oldest keys created before
+     * {@code before}, walking idx_idempotency_keys_created.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM transaction_idempotency_keys WHERE idempotency_key IN ("
+            + "SELECT idempotency_key FROM transaction_idempotency_keys WHERE created_at < :before "
+            + "ORDER BY created_at LIMIT :limit)", nativeQuery = true)
+    int deleteCreatedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,58 @@
+package com.bootstrap.workshop.repository;
+
+import com.bootstrap.workshop.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the append-only ledger.
+ * Sums are signed: credits count positive, debits negative.
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    String SIGNED_AMOUNT = "CASE WHEN e.entryType = com.bootstrap.workshop.entity.LedgerEntryType.CREDIT "
+            + "THEN e.amount ELSE -e.amount END";
+
+    /**
+     * Whether the wallet has any entry, i.e. audit history that must be kept.
+     */
+    boolean existsByWalletId(Long walletId);
+
+    /**
+     * Signed sum of all entries of a wallet.
+     */
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM LedgerEntry e WHERE e.walletId = :walletId")
+    BigDecimal sumByWalletId(@Param("walletId") Long walletId);
+
+    /**
+     * Signed sum of a wallet's entries created at or after {@code since}.
+     */
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM LedgerEntry e "
+            + "WHERE e.walletId = :walletId AND e.createdAt >= :since")
+    BigDecimal sumByWalletIdSince(@Param("walletId") Long walletId, @Param("since") LocalDateTime since);
+
+    /**
+     * Signed sum of the whole ledger.
+     */
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM LedgerEntry e")
+    BigDecimal sumAll();
+
+    /**
+     * Wallets whose stored balance (row + buckets) differs from their ledger sum.
+     */
+    @Query(value = "SELECT w.id FROM wallets w "
+            + "LEFT JOIN (SELECT wallet_id, SUM(CASE WHEN entry_type = 'CREDIT' THEN amount ELSE -amount END) AS total"
+            + " FROM ledger_entries GROUP BY wallet_id) l ON l.wallet_id = w.id "
+            + "LEFT JOIN (SELECT wallet_id, SUM(balance) AS total"
+            + " FROM wallet_balance_buckets GROUP BY wallet_id) b ON b.wallet_id = w.id "
+            + "WHERE w.balance + COALESCE(b.total, 0) <> COALESCE(l.total, 0) "
+            + "ORDER BY w.id LIMIT :limit", nativeQuery = true)
+    List<Long> findMismatchedWalletIds(@Param("limit") int limit);
+}
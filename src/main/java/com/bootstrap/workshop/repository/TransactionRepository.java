@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,10 +22,23 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     /**
      * Find transaction by idempotency key for duplicate detection.
+     * Goes through transaction_idempotency_keys (primary key lookup) and then
+     * the transaction's (id, timestamp) primary key, which also prunes
+     * partitions; keys past the retention window are not found.
      */
-    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+    @Query("SELECT t FROM IdempotencyKey k JOIN Transaction t ON t.id = k.transactionId AND t.timestamp = k.createdAt "
+            + "WHERE k.idempotencyKey = :idempotencyKey")
+    Optional<Transaction> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
 
-    boolean existsByIdempotencyKey(String idempotencyKey);
+    @Query("SELECT COUNT(k) > 0 FROM IdempotencyKey k WHERE k.idempotencyKey = :idempotencyKey")
+    boolean existsByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Find already-recorded transactions for a batch of idempotency keys.
+     */
+    @Query("SELECT t FROM IdempotencyKey k JOIN Transaction t ON t.id = k.transactionId AND t.timestamp = k.createdAt "
+            + "WHERE k.idempotencyKey IN :idempotencyKeys")
+    List<Transaction> findByIdempotencyKeyIn(@Param("idempotencyKeys") Collection<String> idempotencyKeys);
 
     /**
      * Find all transactions for a wallet (sent or received).
@@ -37,6 +52,55 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t WHERE t.fromWalletAddress = :address OR t.toWalletAddress = :address")
     Page<Transaction> findByWalletAddress(@Param("address") String address, Pageable pageable);
 
+    /**
+     * First page of a wallet's history, newest first (keyset pagination).
+     * Each branch of the UNION walks its own (wallet, timestamp DESC, id DESC)
+     * index and stops after :limit rows; an OR predicate could not use either
+     * index for ordering and would sort the whole history. Rejected
+     * self-transfers match both branches, so only the from-branch returns them.
+     */
+    @Query(value = """
+            SELECT * FROM (
+                (SELECT * FROM transactions t
+                 WHERE t.from_wallet_address = :address
+                 ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)
+                UNION ALL
+                (SELECT * FROM transactions t
+                 WHERE t.to_wallet_address = :address
+                   AND t.from_wallet_address <> :address
+                 ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)
+            ) page
+            ORDER BY page.timestamp DESC, page.id DESC LIMIT :limit
+            """, nativeQuery = true)
+    List<Transaction> findHistoryFirstPage(@Param("address") String address, @Param("limit") int limit);
+
+    /**
+     * Page of a wallet's history strictly after the (timestamp, id) cursor.
+     * Same plan as {@link #findHistoryFirstPage}: "timestamp <= :timestamp" is the
+     * index range bound, so cost does not depend on how deep the page is.
+     */
+    @Query(value = """
+            SELECT * FROM (
+                (SELECT * FROM transactions t
+                 WHERE t.from_wallet_address = :address
+                   AND t.timestamp <= :timestamp
+                   AND (t.timestamp < :timestamp OR t.id < :id)
+                 ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)
+                UNION ALL
+                (SELECT * FROM transactions t
+                 WHERE t.to_wallet_address = :address
+                   AND t.from_wallet_address <> :address
+                   AND t.timestamp <= :timestamp
+                   AND (t.timestamp < :timestamp OR t.id < :id)
+                 ORDER BY t.timestamp DESC, t.id DESC LIMIT :limit)
+            ) page
+            ORDER BY page.timestamp DESC, page.id DESC LIMIT :limit
+            """, nativeQuery = true)
+    List<Transaction> findHistoryAfter(@Param("address") String address,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            @Param("limit") int limit);
+
     /**
      * Find sent transactions.
      */
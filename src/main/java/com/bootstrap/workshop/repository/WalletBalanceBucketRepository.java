@@ -0,0 +1,53 @@
+package com.bootstrap.workshop.repository;
+
+import com.bootstrap.workshop.entity.WalletBalanceBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository for sharded wallet sub-balances.
+ */
+@Repository
+public interface WalletBalanceBucketRepository extends JpaRepository<WalletBalanceBucket, Long> {
+
+    /**
+     * Sum of all bucket balances for a wallet (zero if it has none).
+     */
+    @Query("SELECT COALESCE(SUM(b.balance), 0) FROM WalletBalanceBucket b WHERE b.walletId = :walletId")
+    BigDecimal sumBalanceByWalletId(@Param("walletId") Long walletId);
+
+    /**
+     * Sum of all bucket balances across wallets.
+     */
+    @Query("SELECT COALESCE(SUM(b.balance), 0) FROM WalletBalanceBucket b")
+    BigDecimal sumAll();
+
+    /**
+     * Add to one bucket, creating it on first use.
+     * Only that bucket row is locked, never the wallet row.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO wallet_balance_buckets (wallet_id, bucket, balance) "
+            + "VALUES (:walletId, :bucket, :amount) "
+            + "ON CONFLICT (wallet_id, bucket) "
+            + "DO UPDATE SET balance = wallet_balance_buckets.balance + EXCLUDED.balance", nativeQuery = true)
+    int credit(@Param("walletId") Long walletId, @Param("bucket") int bucket, @Param("amount") BigDecimal amount);
+
+    /**
+     * Empty every non-empty bucket of a wallet and return the amounts taken.
+     * Callers must hold the wallet row lock and move the total into it.
+     */
+    @Transactional
+    @Query(value = "UPDATE wallet_balance_buckets SET balance = 0 "
+            + "WHERE wallet_id = :walletId AND balance > 0 "
+            + "RETURNING balance", nativeQuery = true)
+    List<BigDecimal> drain(@Param("walletId") Long walletId);
+}
@@ -0,0 +1,55 @@
+package com.bootstrap.workshop.repository;
+
+import com.bootstrap.workshop.entity.WalletBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for periodic ledger balance snapshots.
+ */
+@Repository
+public interface WalletBalanceSnapshotRepository extends JpaRepository<WalletBalanceSnapshot, Long> {
+
+    /**
+     * Latest snapshot of a wallet.
+     */
+    Optional<WalletBalanceSnapshot> findFirstByWalletIdOrderByCoveredUntilDesc(Long walletId);
+
+    /**
+     * Cut-off of the most recent snapshot run, if any.
+     */
+    @Query("SELECT MAX(s.coveredUntil) FROM WalletBalanceSnapshot s")
+    Optional<LocalDateTime> findLatestCoveredUntil();
+
+    /**
+     * Roll forward the snapshot of every wallet that has entries in
+     * [since, cutoff): previous snapshot balance plus those entries.
+     * Wallets without new entries keep their previous snapshot.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO wallet_balance_snapshots (wallet_id, balance, covered_until, created_at) "
+            + "SELECT e.wallet_id, "
+            + " COALESCE((SELECT s.balance FROM wallet_balance_snapshots s WHERE s.wallet_id = e.wallet_id"
+            + " ORDER BY s.covered_until DESC LIMIT 1), 0)"
+            + " + SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE -e.amount END), "
+            + " :cutoff, CURRENT_TIMESTAMP "
+            + "FROM ledger_entries e "
+            + "WHERE e.created_at >= :since AND e.created_at < :cutoff "
+            + "GROUP BY e.wallet_id", nativeQuery = true)
+    int rollForward(@Param("since") LocalDateTime since, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Transaction-scoped PostgreSQL advisory lock, so only one instance
+     * takes snapshots at a time.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
@@ -0,0 +1,19 @@
+package com.bootstrap.workshop.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a wallet row returned by the atomic balance updates
+ * (UPDATE ... RETURNING) in {@link WalletRepository}.
+ */
+public interface WalletBalanceView {
+
+    Long getId();
+
+    String getAddress();
+
+    BigDecimal getBalance();
+
+    LocalDateTime getCreatedAt();
+}
@@ -7,12 +7,17 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository for Wallet entity operations.
- * Includes pessimistic locking for balance updates.
+ * Includes pessimistic locking for balance updates, and an alternative
+ * atomic engine that mutates balances with a single conditional UPDATE.
  */
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
@@ -23,6 +28,12 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
     boolean existsByAddress(String address);
 
+    /**
+     * Sum of all wallet row balances (excluding sharded buckets).
+     */
+    @Query("SELECT COALESCE(SUM(w.balance), 0) FROM Wallet w")
+    BigDecimal sumBalances();
+
     /**
      * Find wallet by address with pessimistic write lock.
      * Use this for deposit, withdraw, and transfer operations.
@@ -37,4 +48,75 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT w FROM Wallet w WHERE w.user.id = :userId")
     Optional<Wallet> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Lock the sender (by user ID) and the recipient (by address) wallets for a
+     * transfer in a single statement.
+     * Rows are locked in ascending id order, so concurrent A→B and B→A transfers
+     * always queue on the same row first instead of deadlocking.
+     * Returns one element when both predicates match the same wallet.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.user.id = :userId OR w.address = :address ORDER BY w.id")
+    List<Wallet> findTransferWalletsForUpdate(@Param("userId") Long userId, @Param("address") String address);
+
+    /**
+     * Lock every wallet touched by a batch of transfers (senders by user ID,
+     * recipients by address) in one statement, in ascending id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.user.id IN :userIds OR w.address IN :addresses ORDER BY w.id")
+    List<Wallet> findBatchWalletsForUpdate(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("addresses") Collection<String> addresses);
+
+    // ===========================================
+    // Atomic balance engine (PostgreSQL UPDATE ... RETURNING)
+    // ===========================================
+
+    /**
+     * Add to a wallet balance in one statement.
+     * Empty if the user has no wallet.
+     */
+    @Transactional
+    @Query(value = "UPDATE wallets SET balance = balance + :amount, version = version + 1 "
+            + "WHERE user_id = :userId "
+            + "RETURNING id, address, balance, created_at AS \"createdAt\"", nativeQuery = true)
+    Optional<WalletBalanceView> creditByUserId(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Subtract from a wallet balance only if it stays non-negative.
+     * Empty if the user has no wallet or the balance is insufficient.
+     */
+    @Transactional
+    @Query(value = "UPDATE wallets SET balance = balance - :amount, version = version + 1 "
+            + "WHERE user_id = :userId AND balance >= :amount "
+            + "RETURNING id, address, balance, created_at AS \"createdAt\"", nativeQuery = true)
+    Optional<WalletBalanceView> debitByUserId(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Move money between two wallets in one statement.
+     * Both rows are locked in id order (same order as
+     * {@link #findTransferWalletsForUpdate}), then debited/credited only if the
+     * sender and recipient both exist, differ, and the sender can cover the
+     * amount. Returns both updated rows, or no rows if nothing was changed.
+     */
+    @Transactional
+    @Query(value = "WITH locked AS ("
+            + " SELECT id, address, user_id, balance FROM wallets"
+            + " WHERE user_id = :fromUserId OR address = :toAddress"
+            + " ORDER BY id FOR NO KEY UPDATE) "
+            + "UPDATE wallets w SET "
+            + " balance = CASE WHEN w.address = :toAddress THEN w.balance + :amount ELSE w.balance - :amount END,"
+            + " version = w.version + 1 "
+            + "FROM locked l "
+            + "WHERE w.id = l.id"
+            + " AND (SELECT count(*) FROM locked) = 2"
+            + " AND EXISTS (SELECT 1 FROM locked s WHERE s.user_id = :fromUserId"
+            + " AND s.address <> :toAddress AND s.balance >= :amount) "
+            + "RETURNING w.id, w.address, w.balance, w.created_at AS \"createdAt\"", nativeQuery = true)
+    List<WalletBalanceView> transferBalance(
+            @Param("fromUserId") Long fromUserId,
+            @Param("toAddress") String toAddress,
+            @Param("amount") BigDecimal amount);
 }
@@ -1,5 +1,7 @@
 package com.bootstrap.workshop.security;
 
+import com.bootstrap.workshop.config.PrincipalProperties;
+import com.bootstrap.workshop.entity.Role;
 import com.bootstrap.workshop.entity.User;
 import com.bootstrap.workshop.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +22,8 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final PrincipalProperties principalProperties;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -39,4 +43,18 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + id));
     }
+
+    /**
+     * Principal for an already-verified token, without a database round trip
+     * on the hot path (see {@link PrincipalProperties}).
+     */
+    public User loadPrincipal(Long id, String email, String role) {
+        if (principalProperties.mode() == PrincipalProperties.PrincipalMode.CLAIMS) {
+            User principal = new User(email, null, null, null, null, null);
+            principal.setId(id);
+            principal.setRole(Role.valueOf(role));
+            return principal;
+        }
+        return principalCache.get(id, this::loadUserById);
+    }
 }
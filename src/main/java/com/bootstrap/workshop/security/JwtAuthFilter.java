@@ -17,10 +17,13 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 /**
  * JWT authentication filter.
  * Extracts and validates JWT from Authorization header.
+ * The token is verified once per request and the principal is resolved
+ * without a users query on the hot path (see {@link PrincipalCache}).
  */
 @Component
 @RequiredArgsConstructor
@@ -38,11 +41,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = extractToken(request);
 
-        if (token != null && jwtService.validateToken(token)) {
-            Long userId = jwtService.extractUserId(token);
-            String role = jwtService.extractRole(token);
-
-            User user = userDetailsService.loadUserById(userId);
+        Optional<JwtClaims> claims = token != null ? jwtService.verify(token) : Optional.empty();
+        if (claims.isPresent()) {
+            String role = claims.get().role();
+            User user = userDetailsService.loadPrincipal(claims.get().userId(), claims.get().email(), role);
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     user,
@@ -0,0 +1,13 @@
+package com.bootstrap.workshop.security;
+
+import java.time.Instant;
+
+/**
+ * Verified claims of a JWT issued by {@link JwtService}.
+ */
+public record JwtClaims(
+        Long userId,
+        String email,
+        String role,
+        Instant expiresAt) {
+}
@@ -2,27 +2,54 @@ package com.bootstrap.workshop.security;
 
 import com.bootstrap.workshop.config.JwtProperties;
 import com.bootstrap.workshop.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  * Service for JWT token operations.
+ * The signing key and the (thread-safe) parser are built once. Verified
+ * tokens are remembered by SHA-256 digest until they expire, so a client
+ * re-sending the same token skips signature verification and JSON parsing.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
     private final JwtProperties jwtProperties;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, JwtClaims> verifiedTokens;
+
+    public JwtService(JwtProperties jwtProperties) {
+        this.jwtProperties = jwtProperties;
+        this.signingKey = Keys.hmacShaKeyFor(jwtProperties.secret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = jwtProperties.verifiedCacheSize() > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(jwtProperties.verifiedCacheSize())
+                        .expireAfter(Expiry.<String, JwtClaims>creating((token, claims) ->
+                                Duration.between(Instant.now(), claims.expiresAt())))
+                        .build()
+                : null;
+    }
 
     /**
      * Generate a JWT token for the given user.
@@ -37,60 +64,84 @@ public class JwtService {
                 .claim("role", user.getRole().name())
                 .issuedAt(now)
                 .expiration(expiry)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verify the token once and return its claims, or empty if it is invalid
+     * or expired.
+     */
+    public Optional<JwtClaims> verify(String token) {
+        if (verifiedTokens == null) {
+            return parse(token);
+        }
+        String digest = digest(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
+        Optional<JwtClaims> claims = parse(token);
+        claims.ifPresent(verified -> verifiedTokens.put(digest, verified));
+        return claims;
+    }
+
     /**
      * Validate a JWT token and return true if valid.
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.warn("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     /**
      * Extract the user ID from a JWT token.
      */
     public Long extractUserId(String token) {
-        Claims claims = extractClaims(token);
-        return Long.parseLong(claims.getSubject());
+        return Long.parseLong(extractClaims(token).getSubject());
     }
 
     /**
      * Extract the email from a JWT token.
      */
     public String extractEmail(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("email", String.class);
+        return extractClaims(token).get("email", String.class);
     }
 
     /**
      * Extract the role from a JWT token.
      */
     public String extractRole(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("role", String.class);
+        return extractClaims(token).get("role", String.class);
+    }
+
+    private Optional<JwtClaims> parse(String token) {
+        try {
+            Claims claims = extractClaims(token);
+            if (claims.getExpiration() == null) {
+                log.warn("Invalid JWT token: no expiration");
+                return Optional.empty();
+            }
+            return Optional.of(new JwtClaims(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get("email", String.class),
+                    claims.get("role", String.class),
+                    claims.getExpiration().toInstant()));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtProperties.secret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
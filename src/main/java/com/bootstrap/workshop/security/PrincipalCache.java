@@ -0,0 +1,71 @@
+package com.bootstrap.workshop.security;
+
+import com.bootstrap.workshop.config.JwtProperties;
+import com.bootstrap.workshop.config.PrincipalProperties;
+import com.bootstrap.workshop.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache of authenticated principals by user id, so that JwtAuthFilter does
+ * not query users on every request.
+ * Holds detached, wallet-less and password-less copies of {@link User}:
+ * they are shared between request threads and must not trigger lazy loading.
+ * Metrics: cache.gets / cache.evictions / cache.size with cache="security.principal".
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<Long, User> principals;
+
+    public PrincipalCache(PrincipalProperties properties, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        // A cached principal never outlives the tokens it was loaded for
+        long ttlMs = Math.min(properties.cacheTtlMs(), jwtProperties.expirationMs());
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(properties.cacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principal");
+    }
+
+    /**
+     * Cached principal of the user, loaded (and copied) on a miss.
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        return principals.get(userId, id -> principalOf(loader.apply(id)));
+    }
+
+    /**
+     * Evict the user's principal once the current transaction commits
+     * (immediately when there is none).
+     */
+    public void evictAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            principals.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principals.invalidate(userId);
+            }
+        });
+    }
+
+    static User principalOf(User user) {
+        User principal = new User(user.getEmail(), user.getName(), null,
+                user.getBank(), user.getAccountId(), user.getAddress());
+        principal.setId(user.getId());
+        principal.setRole(user.getRole());
+        return principal;
+    }
+}
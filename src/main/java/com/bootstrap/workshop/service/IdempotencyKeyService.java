@@ -0,0 +1,62 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.IdempotencyProperties;
+import com.bootstrap.workshop.entity.IdempotencyKey;
+import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored idempotency keys (transaction_idempotency_keys).
+ * Every recorded transaction registers its key in the same transaction; a
+ * key that is already registered fails the insert with a unique violation,
+ * rolling the transfer back. Keys older than the retention window are
+ * deleted in small batches, so the table and its index stay bounded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Register the key of a transaction that was just saved.
+     */
+    public void register(Transaction transaction) {
+        idempotencyKeyRepository.save(new IdempotencyKey(
+                transaction.getIdempotencyKey(), transaction.getId(), transaction.getTimestamp()));
+    }
+
+    /**
+     * Start of the retention window: keys created before it may be deleted.
+     */
+    public LocalDateTime retentionCutoff(LocalDateTime now) {
+        return now.minusHours(idempotencyProperties.keyRetentionHours());
+    }
+
+    /**
+     * Delete one batch of keys created before {@code before}; callers repeat
+     * while a full batch was deleted, so each transaction stays short.
+     *
+     * @return number of keys deleted
+     */
+    @Transactional
+    public int deleteExpired(LocalDateTime before) {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(before,
+                idempotencyProperties.compactionBatchSize());
+        if (deleted > 0) {
+            meterRegistry.counter("business.idempotency.keys.expired").increment(deleted);
+            log.debug("Idempotency keys expired: deleted={}, createdBefore={}", deleted, before);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,143 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.entity.LedgerEntry;
+import com.bootstrap.workshop.entity.LedgerEntryType;
+import com.bootstrap.workshop.entity.LedgerOperation;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.repository.LedgerEntryRepository;
+import com.bootstrap.workshop.repository.WalletBalanceBucketRepository;
+import com.bootstrap.workshop.repository.WalletBalanceSnapshotRepository;
+import com.bootstrap.workshop.repository.WalletRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Append-only double-entry ledger.
+ * Balance-changing operations add entries in the same transaction as the
+ * wallet update; entries are never modified. A wallet's ledger balance is its
+ * latest snapshot plus the entries created since, and reconciliation checks
+ * that the stored wallet balances add up to the ledger.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerService {
+
+    /** Advisory lock key for the snapshot job. */
+    static final long SNAPSHOT_LOCK_KEY = 0x1ed6e5L;
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MISMATCH_REPORT_LIMIT = 20;
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletBalanceSnapshotRepository snapshotRepository;
+    private final WalletRepository walletRepository;
+    private final WalletBalanceBucketRepository bucketRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Record a transfer: DEBIT the sender, CREDIT the recipient.
+     */
+    public void recordTransfer(Long transactionId, Long fromWalletId, Long toWalletId, BigDecimal amount) {
+        ledgerEntryRepository.saveAll(List.of(
+                new LedgerEntry(fromWalletId, LedgerEntryType.DEBIT, LedgerOperation.TRANSFER, amount, transactionId),
+                new LedgerEntry(toWalletId, LedgerEntryType.CREDIT, LedgerOperation.TRANSFER, amount, transactionId)));
+    }
+
+    public void recordDeposit(Long walletId, BigDecimal amount) {
+        ledgerEntryRepository.save(
+                new LedgerEntry(walletId, LedgerEntryType.CREDIT, LedgerOperation.DEPOSIT, amount, null));
+    }
+
+    public void recordWithdrawal(Long walletId, BigDecimal amount) {
+        ledgerEntryRepository.save(
+                new LedgerEntry(walletId, LedgerEntryType.DEBIT, LedgerOperation.WITHDRAWAL, amount, null));
+    }
+
+    /**
+     * Ledger-derived balance of a wallet: latest snapshot plus entries since.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceOf(String address) {
+        Wallet wallet = walletRepository.findByAddress(address)
+                .orElseThrow(() -> new WalletNotFoundException(address));
+        return snapshotRepository.findFirstByWalletIdOrderByCoveredUntilDesc(wallet.getId())
+                .map(snapshot -> snapshot.getBalance().add(
+                        ledgerEntryRepository.sumByWalletIdSince(wallet.getId(), snapshot.getCoveredUntil())))
+                .orElseGet(() -> ledgerEntryRepository.sumByWalletId(wallet.getId()));
+    }
+
+    /**
+     * Roll every active wallet's snapshot forward to {@code cutoff}.
+     * The cutoff must lag behind "now" by more than the longest write
+     * transaction, so no entry created before it can still be uncommitted.
+     *
+     * @return number of snapshots written, or -1 if another instance holds the lock
+     */
+    @Transactional
+    public int snapshotBalances(LocalDateTime cutoff) {
+        if (!snapshotRepository.tryAdvisoryXactLock(SNAPSHOT_LOCK_KEY)) {
+            log.debug("Ledger snapshot skipped: another instance is running it");
+            return -1;
+        }
+        LocalDateTime since = snapshotRepository.findLatestCoveredUntil().orElse(BEGINNING);
+        if (!since.isBefore(cutoff)) {
+            return 0;
+        }
+        int written = snapshotRepository.rollForward(since, cutoff);
+        meterRegistry.counter("business.ledger.snapshots").increment(written);
+        log.info("Ledger snapshot: wallets={}, since={}, cutoff={}", written, since, cutoff);
+        return written;
+    }
+
+    /**
+     * Compare the sum of stored wallet balances (rows + buckets) with the
+     * ledger sum. Runs in one REPEATABLE READ snapshot so in-flight
+     * operations are either fully included or fully excluded.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Reconciliation reconcile() {
+        BigDecimal walletTotal = walletRepository.sumBalances().add(bucketRepository.sumAll());
+        BigDecimal ledgerTotal = ledgerEntryRepository.sumAll();
+        List<Long> mismatched = walletTotal.compareTo(ledgerTotal) == 0
+                ? List.of()
+                : ledgerEntryRepository.findMismatchedWalletIds(MISMATCH_REPORT_LIMIT);
+
+        Reconciliation result = new Reconciliation(walletTotal, ledgerTotal, mismatched);
+        meterRegistry.counter("business.ledger.reconciliation",
+                "outcome", result.balanced() ? "balanced" : "mismatch").increment();
+        if (result.balanced()) {
+            log.info("Ledger reconciliation balanced: total={}", walletTotal);
+        } else {
+            log.error("Ledger reconciliation MISMATCH: wallets={}, ledger={}, difference={}, walletIds={}",
+                    walletTotal, ledgerTotal, result.difference(), mismatched);
+        }
+        return result;
+    }
+
+    /**
+     * Outcome of a reconciliation run.
+     */
+    public record Reconciliation(
+            BigDecimal walletTotal,
+            BigDecimal ledgerTotal,
+            List<Long> mismatchedWalletIds) {
+
+        public boolean balanced() {
+            return walletTotal.compareTo(ledgerTotal) == 0;
+        }
+
+        public BigDecimal difference() {
+            return walletTotal.subtract(ledgerTotal);
+        }
+    }
+}
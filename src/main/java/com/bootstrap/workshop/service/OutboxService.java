@@ -0,0 +1,109 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.OutboxProperties;
+import com.bootstrap.workshop.entity.OutboxEvent;
+import com.bootstrap.workshop.entity.OutboxEventType;
+import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.entity.TransactionStatus;
+import com.bootstrap.workshop.outbox.OutboxSink;
+import com.bootstrap.workshop.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transactional outbox.
+ * The record methods add one event row in the caller's transaction, next to
+ * the change it describes: emitting an event costs one (JDBC-batched) insert
+ * on the hot path instead of a remote call, and an event is published if and
+ * only if its change committed. {@link #relayBatch} hands committed events to
+ * the {@link OutboxSink}; {@link #compact} deletes them once published.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    /** Rows deleted per compaction statement. */
+    public static final int COMPACTION_CHUNK = 5000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties outboxProperties;
+    private final OutboxSink outboxSink;
+    private final MeterRegistry meterRegistry;
+
+    public void recordUserRegistered(Long userId, String walletAddress) {
+        record(new OutboxEvent(OutboxEventType.USER_REGISTERED, walletAddress, null, null, userId));
+    }
+
+    public void recordDeposit(String walletAddress, BigDecimal amount) {
+        record(new OutboxEvent(OutboxEventType.WALLET_DEPOSITED, walletAddress, null, amount, null));
+    }
+
+    public void recordWithdrawal(String walletAddress, BigDecimal amount) {
+        record(new OutboxEvent(OutboxEventType.WALLET_WITHDRAWN, walletAddress, null, amount, null));
+    }
+
+    /**
+     * Record a saved transfer, successful or failed.
+     */
+    public void recordTransfer(Transaction transaction) {
+        OutboxEventType type = transaction.getStatus() == TransactionStatus.SUCCESS
+                ? OutboxEventType.TRANSFER_COMPLETED
+                : OutboxEventType.TRANSFER_FAILED;
+        record(new OutboxEvent(type, transaction.getFromWalletAddress(), transaction.getToWalletAddress(),
+                transaction.getAmount(), transaction.getId()));
+    }
+
+    private void record(OutboxEvent event) {
+        if (outboxProperties.enabled()) {
+            outboxEventRepository.save(event);
+        }
+    }
+
+    /**
+     * Publish the oldest unpublished events, at most one batch.
+     * Rows are claimed with FOR UPDATE SKIP LOCKED, so concurrent relays
+     * never publish the same batch; if the sink throws, the transaction rolls
+     * back and the batch is retried on the next poll.
+     *
+     * @return number of events published
+     */
+    @Transactional
+    public int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockUnpublished(outboxProperties.batchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        outboxSink.publish(events);
+        outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(),
+                LocalDateTime.now());
+        meterRegistry.counter("business.outbox.published").increment(events.size());
+        log.debug("Outbox relayed {} events (ids {}..{})",
+                events.size(), events.getFirst().getId(), events.getLast().getId());
+        return events.size();
+    }
+
+    /**
+     * Delete up to {@link #COMPACTION_CHUNK} events published before
+     * {@code before}; callers repeat while a full chunk was deleted, so each
+     * transaction stays short.
+     *
+     * @return number of events deleted
+     */
+    @Transactional
+    public int compact(LocalDateTime before) {
+        int deleted = outboxEventRepository.deletePublishedBefore(before, COMPACTION_CHUNK);
+        if (deleted > 0) {
+            meterRegistry.counter("business.outbox.compacted").increment(deleted);
+            log.debug("Outbox compacted: deleted={}, publishedBefore={}", deleted, before);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.exception.UnsupportedExportFormatException;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the transaction history export.
+ */
+public enum TransactionExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    TransactionExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Case-insensitive lookup by name ("csv", "ndjson").
+     */
+    public static TransactionExportFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new UnsupportedExportFormatException(name);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.repository.TransactionRepository;
+import com.bootstrap.workshop.repository.WalletRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams a wallet's full transaction history as CSV or NDJSON.
+ * Rows are read in keyset pages ({@link TransactionRepository#findHistoryFirstPage},
+ * {@link TransactionRepository#findHistoryAfter}), each an index range scan
+ * that already returns rows in export order, so the first rows leave after
+ * one page instead of after a sort of the whole history, and memory stays
+ * at one page however long the history is.
+ * Each page is read in its own short read-only transaction, so no pooled
+ * connection is held while rows are written to a (possibly slow) client.
+ */
+@Service
+@Slf4j
+public class TransactionExportService {
+
+    private static final String CSV_HEADER =
+            "id,fromWalletAddress,toWalletAddress,amount,status,timestamp,idempotencyKey,errorMessage\n";
+    private static final int PAGE_SIZE = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate pageTransaction;
+
+    public TransactionExportService(TransactionRepository transactionRepository, WalletRepository walletRepository,
+            EntityManager entityManager, MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.entityManager = entityManager;
+        this.meterRegistry = meterRegistry;
+        this.pageTransaction = new TransactionTemplate(transactionManager);
+        this.pageTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Wallet address of the user, resolved before the response is committed
+     * so that a missing wallet still maps to 404.
+     */
+    @Transactional(readOnly = true)
+    public String walletAddressOf(Long userId) {
+        return walletRepository.findByUserId(userId)
+                .map(Wallet::getAddress)
+                .orElseThrow(() -> new WalletNotFoundException(userId));
+    }
+
+    /**
+     * Write every transaction of the wallet, newest first, to {@code out}.
+     * Not transactional itself: each page is read in its own transaction.
+     */
+    public long export(String address, TransactionExportFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == TransactionExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        List<Transaction> page = pageTransaction.execute(
+                status -> transactionRepository.findHistoryFirstPage(address, PAGE_SIZE));
+        while (!page.isEmpty()) {
+            for (Transaction transaction : page) {
+                writer.write(format == TransactionExportFormat.CSV ? toCsv(transaction) : toNdjson(transaction));
+            }
+            rows += page.size();
+            writer.flush();
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            Transaction last = page.getLast();
+            // Keep the persistence context from accumulating the whole history
+            entityManager.clear();
+            page = pageTransaction.execute(status -> transactionRepository.findHistoryAfter(
+                    address, last.getTimestamp(), last.getId(), PAGE_SIZE));
+        }
+        writer.flush();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        meterRegistry.counter("business.transaction.export.rows", "format", format.fileExtension()).increment(rows);
+        log.info("Exported transactions: wallet={}, format={}, rows={}, elapsedMs={}",
+                address, format, rows, elapsedMs);
+        return rows;
+    }
+
+    static String toCsv(Transaction t) {
+        return t.getId() + ","
+                + csvField(t.getFromWalletAddress()) + ","
+                + csvField(t.getToWalletAddress()) + ","
+                + t.getAmount().toPlainString() + ","
+                + t.getStatus() + ","
+                + t.getTimestamp() + ","
+                + csvField(t.getIdempotencyKey()) + ","
+                + csvField(t.getErrorMessage()) + "\n";
+    }
+
+    static String toNdjson(Transaction t) {
+        return "{\"id\":" + t.getId()
+                + ",\"fromWalletAddress\":" + jsonString(t.getFromWalletAddress())
+                + ",\"toWalletAddress\":" + jsonString(t.getToWalletAddress())
+                + ",\"amount\":" + t.getAmount().toPlainString()
+                + ",\"status\":" + jsonString(t.getStatus().name())
+                + ",\"timestamp\":" + jsonString(t.getTimestamp().toString())
+                + ",\"idempotencyKey\":" + jsonString(t.getIdempotencyKey())
+                + ",\"errorMessage\":" + jsonString(t.getErrorMessage())
+                + "}\n";
+    }
+
+    // RFC 4180: quote when the value contains a delimiter, quote or line break
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.PartitionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Manages the monthly RANGE partitions of the transactions table
+ * (see V7__partition_transactions_table.sql): creates upcoming partitions
+ * ahead of time and detaches partitions past the retention window into the
+ * archive schema.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("transactions_p(\\d{6})");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties partitionProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Ensure partitions exist for {@code current} and the configured number
+     * of following months. Existing partitions are left alone.
+     */
+    public List<String> createUpcomingPartitions(YearMonth current) {
+        List<String> partitions = new ArrayList<>();
+        for (int i = 0; i <= partitionProperties.premakeMonths(); i++) {
+            YearMonth month = current.plusMonths(i);
+            partitions.add(jdbcTemplate.queryForObject(
+                    "SELECT create_transactions_partition(?)", String.class, month.atDay(1)));
+        }
+        log.debug("Transaction partitions ensured: {}", partitions);
+        return partitions;
+    }
+
+    /**
+     * Names of the partitions currently attached to transactions.
+     */
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "JOIN pg_namespace n ON n.oid = p.relnamespace "
+                        + "WHERE p.relname = 'transactions' AND n.nspname = current_schema() "
+                        + "ORDER BY c.relname",
+                String.class);
+    }
+
+    /**
+     * Detach every partition whose month is older than the retention window,
+     * move it to the archive schema (still queryable, no longer scanned or
+     * indexed on insert) and drop its idempotency keys.
+     */
+    @Transactional
+    public List<String> archiveExpiredPartitions(YearMonth current) {
+        YearMonth oldestKept = current.minusMonths(partitionProperties.retentionMonths());
+        String archiveSchema = partitionProperties.archiveSchema();
+        List<String> archived = new ArrayList<>();
+
+        for (String partition : listPartitions()) {
+            Optional<YearMonth> month = monthOf(partition);
+            if (month.isEmpty() || !month.get().isBefore(oldestKept)) {
+                continue;
+            }
+            if (archived.isEmpty()) {
+                jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            }
+            // Names are validated by PARTITION_NAME / PartitionProperties, safe to inline
+            jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema);
+            int keys = jdbcTemplate.update(
+                    "DELETE FROM transaction_idempotency_keys WHERE created_at >= ? AND created_at < ?",
+                    month.get().atDay(1).atStartOfDay(),
+                    month.get().plusMonths(1).atDay(1).atStartOfDay());
+            log.info("Archived transaction partition: {} -> {}.{}, idempotencyKeysRemoved={}",
+                    partition, archiveSchema, partition, keys);
+            archived.add(partition);
+        }
+
+        meterRegistry.counter("business.partition.archived").increment(archived.size());
+        return archived;
+    }
+
+    /**
+     * Month covered by a partition, from its name (transactions_pYYYYMM).
+     */
+    static Optional<YearMonth> monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(matcher.group(1), MONTH));
+        } catch (DateTimeParseException ex) {
+            return Optional.empty();
+        }
+    }
+}
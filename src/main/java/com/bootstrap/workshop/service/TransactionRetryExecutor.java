@@ -0,0 +1,98 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.RetryProperties;
+import com.bootstrap.workshop.exception.ConcurrencyFailures;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional action when the database aborts it with a deadlock
+ * or serialization failure (SQLSTATE 40P01 / 40001).
+ * Must wrap the transactional boundary: each attempt gets a fresh transaction.
+ * Uses bounded exponential backoff with jitter so that contending
+ * transactions do not retry in lock-step.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRetryExecutor {
+
+    private final RetryProperties retryProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Execute the action, retrying concurrency conflicts up to the configured
+     * number of attempts. Any other exception is propagated immediately.
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                T result = action.get();
+                recordAttempt(operation, attempt, "success");
+                meterRegistry.summary("business.retry.attempts", "operation", operation, "outcome", "success")
+                        .record(attempt);
+                return result;
+            } catch (RuntimeException ex) {
+                if (!ConcurrencyFailures.isConflict(ex)) {
+                    throw ex;
+                }
+                String reason = ConcurrencyFailures.reason(ex);
+                recordAttempt(operation, attempt, reason);
+
+                if (attempt >= retryProperties.maxAttempts()) {
+                    log.warn("Giving up on {} after {} attempts ({})", operation, attempt, reason);
+                    meterRegistry.summary("business.retry.attempts", "operation", operation, "outcome", "exhausted")
+                            .record(attempt);
+                    throw ex;
+                }
+
+                long backoffMs = backoffMillis(attempt);
+                log.info("Retrying {} after {}: attempt={}, backoffMs={}", operation, reason, attempt, backoffMs);
+                if (!sleep(operation, backoffMs)) {
+                    throw ex;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Exponential backoff capped at maxBackoffMs, with "equal jitter":
+     * half of the delay is fixed, the other half random.
+     */
+    long backoffMillis(int attempt) {
+        double exponential = retryProperties.initialBackoffMs()
+                * Math.pow(retryProperties.multiplier(), attempt - 1);
+        long cap = (long) Math.min(retryProperties.maxBackoffMs(), exponential);
+        long half = cap / 2;
+        return half + ThreadLocalRandom.current().nextLong(cap - half + 1);
+    }
+
+    private boolean sleep(String operation, long backoffMs) {
+        long start = System.nanoTime();
+        try {
+            TimeUnit.MILLISECONDS.sleep(backoffMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            meterRegistry.timer("business.retry.backoff", "operation", operation)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordAttempt(String operation, int attempt, String outcome) {
+        meterRegistry.counter("business.retry.attempt",
+                "operation", operation,
+                "attempt", String.valueOf(attempt),
+                "outcome", outcome).increment();
+    }
+}
@@ -1,12 +1,15 @@
 package com.bootstrap.workshop.service;
 
+import com.bootstrap.workshop.dto.BulkTransferResponse;
+import com.bootstrap.workshop.dto.TransactionPageResponse;
 import com.bootstrap.workshop.dto.TransactionRequest;
 import com.bootstrap.workshop.dto.TransactionResponse;
 import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.entity.TransactionStatus;
 import com.bootstrap.workshop.entity.Wallet;
-import com.bootstrap.workshop.exception.DuplicateTransactionException;
-import com.bootstrap.workshop.exception.InsufficientBalanceException;
+import com.bootstrap.workshop.exception.ConcurrencyFailures;
 import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.idempotency.IdempotencyCache;
 import com.bootstrap.workshop.repository.TransactionRepository;
 import com.bootstrap.workshop.repository.WalletRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,120 +17,107 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Service for transaction operations with strong consistency.
- * Uses SERIALIZABLE isolation and pessimistic locking for transfers.
+ * Transfers use SERIALIZABLE isolation and pessimistic locking, with automatic
+ * retry of deadlock/serialization failures.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+        public static final int DEFAULT_PAGE_SIZE = 20;
+        public static final int MAX_PAGE_SIZE = 100;
+
         private final TransactionRepository transactionRepository;
         private final WalletRepository walletRepository;
-        private final io.micrometer.core.instrument.MeterRegistry meterRegistry;
+        private final TransferProcessor transferProcessor;
+        private final TransactionRetryExecutor retryExecutor;
+        private final TransferBatcher transferBatcher;
+        private final IdempotencyCache idempotencyCache;
 
         /**
          * Transfer money between wallets with strong consistency.
-         * Uses SERIALIZABLE isolation to prevent double-spending.
+         * Each attempt runs in its own SERIALIZABLE transaction
+         * ({@link TransferProcessor}); deadlocks and serialization failures are
+         * retried with backoff. Re-running is safe because every attempt
+         * re-checks the idempotency key first.
+         * With app.transfer.batch.enabled the transfer is instead group-committed
+         * with other concurrent transfers by {@link TransferBatcher}.
+         * Retries of a recently completed transfer are answered from
+         * {@link IdempotencyCache}; a key it has definitely not seen skips the
+         * database lookup, and if a concurrent request with the same key wins
+         * the unique constraint, the winner's response is returned.
          */
-        @Transactional(isolation = Isolation.SERIALIZABLE)
         public TransactionResponse transfer(Long fromUserId, TransactionRequest request) {
-                io.micrometer.core.instrument.Timer.Sample sample = io.micrometer.core.instrument.Timer
-                                .start(meterRegistry);
-
-                log.info("Processing transfer: fromUserId={}, toWallet={}, amount={}, idempotencyKey={}",
-                                fromUserId, request.toWalletAddress(), request.amount(),
-                                request.idempotencyKey());
-
-                // Step 1: Check idempotency - return existing transaction if duplicate
-                Optional<Transaction> existing = transactionRepository.findByIdempotencyKey(request.idempotencyKey());
-                if (existing.isPresent()) {
-                        log.info("Duplicate transaction detected: idempotencyKey={}", request.idempotencyKey());
-                        meterRegistry.counter("business.transaction.failed", "reason", "duplicate").increment();
-                        return toResponse(existing.get());
+                String key = request.idempotencyKey();
+                TransactionResponse cached = idempotencyCache.cached(key);
+                if (cached != null) {
+                        log.info("Duplicate transaction answered from cache: idempotencyKey={}", key);
+                        return cached;
                 }
 
-                // Step 2: Lock sender wallet (pessimistic locking)
-                Wallet fromWallet = walletRepository.findByUserIdForUpdate(fromUserId)
-                                .orElseThrow(() -> {
-                                        meterRegistry.counter("business.transaction.failed", "reason",
-                                                        "wallet_not_found").increment();
-                                        return new WalletNotFoundException(fromUserId);
-                                });
-
-                // Step 3: Validate recipient wallet exists
-                Wallet toWallet = walletRepository.findByAddressForUpdate(request.toWalletAddress())
-                                .orElseThrow(() -> {
-                                        meterRegistry.counter("business.transaction.failed", "reason",
-                                                        "recipient_not_found").increment();
-                                        return new WalletNotFoundException(request.toWalletAddress());
-                                });
-
-                // Prevent self-transfer
-                if (fromWallet.getAddress().equals(toWallet.getAddress())) {
-                        Transaction failed = createFailedTransaction(
-                                        fromWallet.getAddress(),
-                                        request.toWalletAddress(),
-                                        request.amount(),
-                                        request.idempotencyKey(),
-                                        "Cannot transfer to same wallet");
-                        meterRegistry.counter("business.transaction.failed", "reason", "self_transfer").increment();
-                        return toResponse(failed);
+                TransactionResponse response;
+                try {
+                        response = execute(fromUserId, request);
+                } catch (RuntimeException ex) {
+                        if (!ConcurrencyFailures.isUniqueViolation(ex)) {
+                                throw ex;
+                        }
+                        response = transferProcessor.findByIdempotencyKey(key).orElseThrow(() -> ex);
+                        log.info("Concurrent duplicate transaction resolved to the first one: idempotencyKey={}", key);
                 }
+                idempotencyCache.remember(key, response);
+                return response;
+        }
 
-                // Step 4: Validate balance
-                if (fromWallet.getBalance().compareTo(request.amount()) < 0) {
-                        Transaction failed = createFailedTransaction(
-                                        fromWallet.getAddress(),
-                                        request.toWalletAddress(),
-                                        request.amount(),
-                                        request.idempotencyKey(),
-                                        "Insufficient balance");
-                        log.warn("Transfer failed - insufficient balance: available={}, requested={}",
-                                        fromWallet.getBalance(), request.amount());
-                        meterRegistry.counter("business.transaction.failed", "reason", "insufficient_funds")
-                                        .increment();
-                        return toResponse(failed);
+        private TransactionResponse execute(Long fromUserId, TransactionRequest request) {
+                if (transferBatcher.enabled()) {
+                        return transferBatcher.transfer(fromUserId, request);
                 }
+                if (idempotencyCache.isNew(request.idempotencyKey())) {
+                        return retryExecutor.execute("transfer",
+                                        () -> transferProcessor.transferNewKey(fromUserId, request));
+                }
+                return retryExecutor.execute("transfer",
+                                () -> transferProcessor.transfer(fromUserId, request));
+        }
 
-                // Step 5: Perform transfer
-                BigDecimal senderPrevBalance = fromWallet.getBalance();
-                BigDecimal receiverPrevBalance = toWallet.getBalance();
-
-                fromWallet.withdraw(request.amount());
-                toWallet.deposit(request.amount());
-
-                walletRepository.save(fromWallet);
-                walletRepository.save(toWallet);
-
-                // Step 6: Record successful transaction
-                Transaction transaction = new Transaction(
-                                fromWallet.getAddress(),
-                                request.toWalletAddress(),
-                                request.amount(),
-                                request.idempotencyKey());
-                transaction.markSuccess();
-                transaction = transactionRepository.save(transaction);
-
-                log.info("Transfer successful: txId={}, from={} ({}→{}), to={} ({}→{}), amount={}",
-                                transaction.getId(),
-                                fromWallet.getAddress(), senderPrevBalance, fromWallet.getBalance(),
-                                toWallet.getAddress(), receiverPrevBalance, toWallet.getBalance(),
-                                request.amount());
-
-                // Metrics
-                sample.stop(meterRegistry.timer("business.transaction.latency"));
-                meterRegistry.counter("business.transaction.success", "type", "transfer").increment();
-
-                return toResponse(transaction);
+        /**
+         * Many transfers from one user's wallet in a single transaction
+         * ({@link TransferProcessor#transferBulk}): the sender is locked once,
+         * recipients in id order, inserts are JDBC-batched. Retried as a whole
+         * on deadlock/serialization failure: the failed attempt rolls back
+         * every item, so the retry applies the batch from scratch. Only items
+         * whose keys were committed by an earlier request come back as replays.
+         */
+        public BulkTransferResponse transferBulk(Long fromUserId, List<TransactionRequest> requests) {
+                List<TransferProcessor.BatchOutcome> outcomes = retryExecutor.execute("transfer_bulk",
+                                () -> transferProcessor.transferBulk(fromUserId, requests));
+
+                List<BulkTransferResponse.Item> items = new ArrayList<>(outcomes.size());
+                int succeeded = 0;
+                for (int i = 0; i < outcomes.size(); i++) {
+                        TransferProcessor.BatchOutcome outcome = outcomes.get(i);
+                        TransactionResponse response = outcome.response();
+                        if (response != null) {
+                                idempotencyCache.remember(response.idempotencyKey(), response);
+                                if (response.status() == TransactionStatus.SUCCESS) {
+                                        succeeded++;
+                                }
+                        }
+                        items.add(new BulkTransferResponse.Item(
+                                        requests.get(i).idempotencyKey(),
+                                        response,
+                                        outcome.error() != null ? outcome.error().getMessage() : null));
+                }
+                return new BulkTransferResponse(succeeded, outcomes.size() - succeeded, items);
         }
 
         /**
@@ -170,18 +160,38 @@ public class TransactionService {
         }
 
         /**
-         * Create and save a failed transaction record.
+         * One page of a user's transaction history, newest first.
+         * Keyset pagination: {@code after} is the cursor returned with the
+         * previous page (null for the first page), so deep pages cost the same
+         * as the first one and no COUNT query is run.
+         */
+        @Transactional(readOnly = true)
+        public TransactionPageResponse findHistoryByUserId(Long userId, String after, int limit) {
+                Wallet wallet = walletRepository.findByUserId(userId)
+                                .orElseThrow(() -> new WalletNotFoundException(userId));
+                return findHistory(wallet.getAddress(), after, limit);
+        }
+
+        /**
+         * One page of a wallet's transaction history, newest first.
          */
-        private Transaction createFailedTransaction(
-                        String fromAddress,
-                        String toAddress,
-                        BigDecimal amount,
-                        String idempotencyKey,
-                        String errorMessage) {
-
-                Transaction transaction = new Transaction(fromAddress, toAddress, amount, idempotencyKey);
-                transaction.markFailed(errorMessage);
-                return transactionRepository.save(transaction);
+        @Transactional(readOnly = true)
+        public TransactionPageResponse findHistory(String address, String after, int limit) {
+                int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+                // One extra row tells whether a next page exists
+                List<Transaction> rows;
+                if (after == null || after.isBlank()) {
+                        rows = transactionRepository.findHistoryFirstPage(address, pageSize + 1);
+                } else {
+                        TransactionCursor cursor = TransactionCursor.decode(after);
+                        rows = transactionRepository.findHistoryAfter(
+                                        address, cursor.timestamp(), cursor.id(), pageSize + 1);
+                }
+
+                boolean hasMore = rows.size() > pageSize;
+                List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+                String nextCursor = hasMore ? TransactionCursor.after(page.getLast()).encode() : null;
+                return new TransactionPageResponse(page.stream().map(this::toResponse).toList(), nextCursor);
         }
 
         /**
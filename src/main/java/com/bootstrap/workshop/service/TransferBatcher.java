@@ -0,0 +1,221 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.TransferBatchProperties;
+import com.bootstrap.workshop.dto.TransactionRequest;
+import com.bootstrap.workshop.dto.TransactionResponse;
+import com.bootstrap.workshop.entity.TransactionStatus;
+import com.bootstrap.workshop.exception.TransferBatchTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for transfers.
+ * Callers enqueue a transfer and wait on its future; a single writer thread
+ * drains up to max-size requests (or whatever arrived within max-wait of the
+ * first one) and applies them in one transaction, so N transfers share one
+ * commit instead of paying one fsync each.
+ * If a batch fails as a whole (deadlock, constraint violation, ...) its items
+ * are re-run one by one through the regular retrying path, so one bad item
+ * cannot poison the others.
+ * Transfers the writer never picked up (shutdown, result timeout) run on
+ * the caller's thread instead; a caller whose batch is still running after
+ * result-timeout gets a {@link TransferBatchTimeoutException} (503) and
+ * retries with the same idempotency key.
+ * Successful batched transfers are timed in business.transaction.latency
+ * from the moment they were queued.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferBatcher {
+
+    private final TransferBatchProperties batchProperties;
+    private final TransferProcessor transferProcessor;
+    private final TransactionRetryExecutor retryExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingTransfer> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!batchProperties.enabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(batchProperties.queueCapacity());
+        meterRegistry.gauge("business.transfer.batch.queue", queue, BlockingQueue::size);
+        running = true;
+        writer = new Thread(this::drainLoop, "transfer-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Transfer batching enabled: maxSize={}, maxWaitMs={}, queueCapacity={}",
+                batchProperties.maxSize(), batchProperties.maxWaitMs(), batchProperties.queueCapacity());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (queue != null) {
+            // Left behind by a writer that did not finish in time: hand them back to their callers
+            List<PendingTransfer> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.forEach(p -> p.result().completeExceptionally(
+                    new RejectedExecutionException("Transfer batching stopped")));
+        }
+    }
+
+    public boolean enabled() {
+        return running;
+    }
+
+    /**
+     * Submit a transfer to the next batch and wait for its own result.
+     * Exceptions are rethrown as the single-transfer path would throw them.
+     * When the queue is full the caller runs the transfer itself.
+     */
+    public TransactionResponse transfer(Long fromUserId, TransactionRequest request) {
+        PendingTransfer pending = new PendingTransfer(new TransferProcessor.BatchItem(fromUserId, request),
+                new CompletableFuture<>(), Timer.start(meterRegistry));
+        if (!queue.offer(pending)) {
+            meterRegistry.counter("business.transfer.batch.rejected").increment();
+            return transferSingle(pending.item());
+        }
+        // stop() may have run since the caller checked enabled(): nothing would drain the queue any more
+        if (!running && queue.remove(pending)) {
+            return transferSingle(pending.item());
+        }
+
+        try {
+            return pending.result().get(batchProperties.resultTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RejectedExecutionException) {
+                return transferSingle(pending.item());
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Batched transfer failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            if (queue.remove(pending)) {
+                return transferSingle(pending.item());
+            }
+            // In a batch that may still commit: the idempotency key makes the client's retry safe
+            meterRegistry.counter("business.transfer.batch.timeout", "reason", "timeout").increment();
+            throw new TransferBatchTimeoutException(
+                    "Transfer batch did not complete within " + batchProperties.resultTimeoutMs() + " ms");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            meterRegistry.counter("business.transfer.batch.timeout", "reason", "interrupted").increment();
+            throw new TransferBatchTimeoutException("Interrupted while waiting for the transfer batch");
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingTransfer> batch = new ArrayList<>(batchProperties.maxSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTransfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchProperties.maxWaitMs());
+                while (batch.size() < batchProperties.maxSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (queue.drainTo(batch, batchProperties.maxSize() - batch.size()) == 0) {
+                        PendingTransfer next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                process(batch);
+            } catch (InterruptedException ex) {
+                // Shutting down: flush the partial batch; the loop then drains what is queued
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Transfer batch writer failed", ex);
+                batch.forEach(p -> p.result().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<PendingTransfer> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        meterRegistry.summary("business.transfer.batch.size").record(batch.size());
+
+        try {
+            List<TransferProcessor.BatchOutcome> outcomes;
+            try {
+                outcomes = transferProcessor.transferBatch(batch.stream().map(PendingTransfer::item).toList());
+            } catch (RuntimeException ex) {
+                log.warn("Transfer batch of {} failed, re-running items individually: {}",
+                        batch.size(), ex.getMessage());
+                meterRegistry.counter("business.transfer.batch.fallback").increment();
+                // The single-transfer path records business.transaction.latency itself
+                batch.forEach(this::processSingle);
+                return;
+            }
+
+            // Completed only after commit, so callers never see uncommitted results
+            for (int i = 0; i < batch.size(); i++) {
+                PendingTransfer pending = batch.get(i);
+                TransferProcessor.BatchOutcome outcome = outcomes.get(i);
+                if (outcome.error() != null) {
+                    pending.result().completeExceptionally(outcome.error());
+                    continue;
+                }
+                if (outcome.response().status() == TransactionStatus.SUCCESS) {
+                    pending.sample().stop(meterRegistry.timer("business.transaction.latency"));
+                }
+                pending.result().complete(outcome.response());
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("business.transfer.batch.latency"));
+        }
+    }
+
+    private void processSingle(PendingTransfer pending) {
+        try {
+            pending.result().complete(transferSingle(pending.item()));
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    private TransactionResponse transferSingle(TransferProcessor.BatchItem item) {
+        return retryExecutor.execute("transfer",
+                () -> transferProcessor.transfer(item.fromUserId(), item.request()));
+    }
+
+    private record PendingTransfer(
+            TransferProcessor.BatchItem item,
+            CompletableFuture<TransactionResponse> result,
+            Timer.Sample sample) {
+    }
+}
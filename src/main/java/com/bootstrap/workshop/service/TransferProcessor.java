@@ -0,0 +1,544 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.WalletProperties;
+import com.bootstrap.workshop.dto.TransactionRequest;
+import com.bootstrap.workshop.dto.TransactionResponse;
+import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.InsufficientBalanceException;
+import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.repository.TransactionRepository;
+import com.bootstrap.workshop.repository.WalletBalanceView;
+import com.bootstrap.workshop.repository.WalletRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Executes a single transfer attempt inside one SERIALIZABLE transaction,
+ * or a group-committed batch of transfers inside one transaction.
+ * Retries, batching and other orchestration live in {@link TransactionService}
+ * and {@link TransferBatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferProcessor {
+
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final MeterRegistry meterRegistry;
+    private final WalletProperties walletProperties;
+    private final WalletBucketService walletBuckets;
+    private final LedgerService ledgerService;
+    private final WalletBalanceCache balanceCache;
+    private final OutboxService outboxService;
+    private final IdempotencyKeyService idempotencyKeyService;
+
+    /**
+     * Transfer money between wallets with strong consistency.
+     * Uses SERIALIZABLE isolation to prevent double-spending.
+     * Both wallet rows are locked in one canonical (id) order to avoid
+     * deadlocks between opposite-direction transfers.
+     * With the ATOMIC engine the lock, checks and both balance updates
+     * happen in a single statement. Transfers to a sharded (hot) wallet
+     * never lock the recipient row; they credit one of its buckets.
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public TransactionResponse transfer(Long fromUserId, TransactionRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        log.info("Processing transfer: fromUserId={}, toWallet={}, amount={}, idempotencyKey={}",
+                fromUserId, request.toWalletAddress(), request.amount(),
+                request.idempotencyKey());
+
+        // Step 1: Check idempotency - return existing transaction if duplicate
+        Optional<Transaction> existing = transactionRepository.findByIdempotencyKey(request.idempotencyKey());
+        if (existing.isPresent()) {
+            log.info("Duplicate transaction detected: idempotencyKey={}", request.idempotencyKey());
+            meterRegistry.counter("business.transaction.failed", "reason", "duplicate").increment();
+            return toResponse(existing.get());
+        }
+
+        return apply(fromUserId, request, sample);
+    }
+
+    /**
+     * {@link #transfer} for an idempotency key the caller knows to be new
+     * (see {@link com.bootstrap.workshop.idempotency.IdempotencyCache}):
+     * skips the lookup. If the key was recorded after all, registering it
+     * violates the idempotency key's primary key and the whole transaction
+     * rolls back, so nothing is applied twice.
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public TransactionResponse transferNewKey(Long fromUserId, TransactionRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        log.info("Processing transfer: fromUserId={}, toWallet={}, amount={}, idempotencyKey={} (new)",
+                fromUserId, request.toWalletAddress(), request.amount(),
+                request.idempotencyKey());
+
+        return apply(fromUserId, request, sample);
+    }
+
+    /**
+     * Response recorded under an idempotency key, if any.
+     */
+    @Transactional(readOnly = true)
+    public Optional<TransactionResponse> findByIdempotencyKey(String idempotencyKey) {
+        return transactionRepository.findByIdempotencyKey(idempotencyKey).map(this::toResponse);
+    }
+
+    private TransactionResponse apply(Long fromUserId, TransactionRequest request, Timer.Sample sample) {
+        if (walletBuckets.isSharded(request.toWalletAddress())) {
+            return transferToShardedWallet(fromUserId, request, sample);
+        }
+        if (walletProperties.engine() == WalletProperties.BalanceEngine.ATOMIC) {
+            return transferAtomic(fromUserId, request, sample);
+        }
+        return transferLocked(fromUserId, request, sample);
+    }
+
+    /**
+     * Apply a batch of transfers in one transaction (group commit).
+     * All wallets involved are locked up front in id order; each transfer is
+     * then validated and applied in memory in submission order, so later items
+     * see the balances left by earlier ones. Wallet updates and transaction
+     * inserts are flushed as JDBC batches at commit.
+     * Business failures (missing wallet, self-transfer, insufficient balance)
+     * only affect their own item and are returned as its outcome; a database
+     * error rolls back the whole batch and is thrown to the caller.
+     * Unlike single transfers (SERIALIZABLE) this runs at the default
+     * isolation (READ COMMITTED on PostgreSQL): every wallet it reads or
+     * writes is locked FOR UPDATE before any balance is checked, so no
+     * concurrent writer can change them, and SERIALIZABLE would only add
+     * whole-batch serialization failures without preventing anything more.
+     */
+    @Transactional
+    public List<BatchOutcome> transferBatch(List<BatchItem> items) {
+        return applyBatch(items, lockBatch(items));
+    }
+
+    /**
+     * Many transfers from one sender in one transaction (bulk payout).
+     * Same locking and per-item outcomes as {@link #transferBatch}, but the
+     * sender is checked once up front: if its balance cannot cover every new
+     * item, nothing is applied and {@link InsufficientBalanceException} is
+     * thrown, so a payout is never half done for lack of funds.
+     */
+    @Transactional
+    public List<BatchOutcome> transferBulk(Long fromUserId, List<TransactionRequest> requests) {
+        List<BatchItem> items = requests.stream()
+                .map(request -> new BatchItem(fromUserId, request))
+                .toList();
+        LockedBatch batch = lockBatch(items);
+
+        Wallet fromWallet = batch.byUserId().get(fromUserId);
+        if (fromWallet == null) {
+            throw senderNotFound(fromUserId);
+        }
+        BigDecimal total = payableTotal(fromWallet, requests, batch);
+        walletBuckets.ensureAvailable(fromWallet, total);
+        if (fromWallet.getBalance().compareTo(total) < 0) {
+            log.warn("Bulk transfer rejected - insufficient balance: available={}, requested={}",
+                    fromWallet.getBalance(), total);
+            meterRegistry.counter("business.transaction.failed", "reason", "insufficient_funds").increment();
+            throw new InsufficientBalanceException(fromWallet.getBalance(), total);
+        }
+
+        log.info("Processing bulk transfer: fromUserId={}, items={}, total={}", fromUserId, items.size(), total);
+        return applyBatch(items, batch);
+    }
+
+    /**
+     * Sum of the items that would move money: not already processed, not
+     * repeated within the request, to an existing wallet other than the sender.
+     */
+    private BigDecimal payableTotal(Wallet fromWallet, List<TransactionRequest> requests, LockedBatch batch) {
+        Set<String> seen = new HashSet<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (TransactionRequest request : requests) {
+            if (seen.add(request.idempotencyKey())
+                    && !batch.processed().containsKey(request.idempotencyKey())
+                    && batch.byAddress().containsKey(request.toWalletAddress())
+                    && !fromWallet.getAddress().equals(request.toWalletAddress())) {
+                total = total.add(request.amount());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Load already-processed idempotency keys and lock every wallet of the
+     * batch up front, in id order.
+     */
+    private LockedBatch lockBatch(List<BatchItem> items) {
+        Map<String, TransactionResponse> processed = transactionRepository.findByIdempotencyKeyIn(
+                items.stream().map(item -> item.request().idempotencyKey()).toList())
+                .stream()
+                .collect(Collectors.toMap(Transaction::getIdempotencyKey, this::toResponse));
+
+        List<Wallet> lockedWallets = walletRepository.findBatchWalletsForUpdate(
+                items.stream().map(BatchItem::fromUserId).collect(Collectors.toSet()),
+                items.stream().map(item -> item.request().toWalletAddress()).collect(Collectors.toSet()));
+        Map<Long, Wallet> byUserId = new HashMap<>();
+        lockedWallets.forEach(w -> byUserId.put(w.getUser().getId(), w));
+        Map<String, Wallet> byAddress = lockedWallets.stream()
+                .collect(Collectors.toMap(Wallet::getAddress, Function.identity()));
+        return new LockedBatch(processed, byUserId, byAddress);
+    }
+
+    private List<BatchOutcome> applyBatch(List<BatchItem> items, LockedBatch batch) {
+        List<BatchOutcome> outcomes = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            try {
+                TransactionResponse response = applyBatchItem(item, batch.processed(), batch.byUserId(),
+                        batch.byAddress());
+                batch.processed().putIfAbsent(item.request().idempotencyKey(), response);
+                outcomes.add(BatchOutcome.completed(response));
+            } catch (WalletNotFoundException ex) {
+                outcomes.add(BatchOutcome.failed(ex));
+            }
+        }
+        return outcomes;
+    }
+
+    private TransactionResponse applyBatchItem(BatchItem item, Map<String, TransactionResponse> processed,
+            Map<Long, Wallet> byUserId, Map<String, Wallet> byAddress) {
+        TransactionRequest request = item.request();
+
+        TransactionResponse duplicate = processed.get(request.idempotencyKey());
+        if (duplicate != null) {
+            log.info("Duplicate transaction detected: idempotencyKey={}", request.idempotencyKey());
+            meterRegistry.counter("business.transaction.failed", "reason", "duplicate").increment();
+            return duplicate;
+        }
+
+        Wallet fromWallet = byUserId.get(item.fromUserId());
+        if (fromWallet == null) {
+            throw senderNotFound(item.fromUserId());
+        }
+        Wallet toWallet = byAddress.get(request.toWalletAddress());
+        if (toWallet == null) {
+            throw recipientNotFound(request.toWalletAddress());
+        }
+        if (fromWallet.getAddress().equals(toWallet.getAddress())) {
+            return rejectSelfTransfer(fromWallet.getAddress(), request);
+        }
+
+        walletBuckets.ensureAvailable(fromWallet, request.amount());
+        if (fromWallet.getBalance().compareTo(request.amount()) < 0) {
+            return rejectInsufficientBalance(fromWallet.getAddress(), fromWallet.getBalance(), request);
+        }
+
+        fromWallet.withdraw(request.amount());
+        if (walletBuckets.isSharded(toWallet.getAddress())) {
+            walletBuckets.credit(toWallet.getId(), request.amount());
+        } else {
+            toWallet.deposit(request.amount());
+        }
+
+        Transaction transaction = saveSuccess(
+                fromWallet.getId(), fromWallet.getAddress(), toWallet.getId(), request);
+        meterRegistry.counter("business.transaction.success", "type", "transfer").increment();
+        return toResponse(transaction);
+    }
+
+    /**
+     * Read-lock-modify-save transfer (LOCKING engine).
+     */
+    private TransactionResponse transferLocked(Long fromUserId, TransactionRequest request, Timer.Sample sample) {
+        // Step 2: Lock sender and recipient wallets together, in id order
+        List<Wallet> lockedWallets = walletRepository.findTransferWalletsForUpdate(
+                fromUserId, request.toWalletAddress());
+
+        Wallet fromWallet = lockedWallets.stream()
+                .filter(w -> fromUserId.equals(w.getUser().getId()))
+                .findFirst()
+                .orElseThrow(() -> senderNotFound(fromUserId));
+
+        // Step 3: Validate recipient wallet exists
+        Wallet toWallet = lockedWallets.stream()
+                .filter(w -> request.toWalletAddress().equals(w.getAddress()))
+                .findFirst()
+                .orElseThrow(() -> recipientNotFound(request.toWalletAddress()));
+
+        // Prevent self-transfer
+        if (fromWallet.getAddress().equals(toWallet.getAddress())) {
+            return rejectSelfTransfer(fromWallet.getAddress(), request);
+        }
+
+        // Step 4: Validate balance (a sharded sender may need its buckets swept first)
+        walletBuckets.ensureAvailable(fromWallet, request.amount());
+        if (fromWallet.getBalance().compareTo(request.amount()) < 0) {
+            return rejectInsufficientBalance(fromWallet.getAddress(), fromWallet.getBalance(), request);
+        }
+
+        // Step 5: Perform transfer
+        BigDecimal senderPrevBalance = fromWallet.getBalance();
+        BigDecimal receiverPrevBalance = toWallet.getBalance();
+
+        fromWallet.withdraw(request.amount());
+        toWallet.deposit(request.amount());
+
+        walletRepository.save(fromWallet);
+        walletRepository.save(toWallet);
+
+        // Step 6: Record successful transaction
+        Transaction transaction = recordSuccess(
+                fromWallet.getId(), fromWallet.getAddress(), toWallet.getId(), request, sample);
+
+        log.info("Transfer successful: txId={}, from={} ({}→{}), to={} ({}→{}), amount={}",
+                transaction.getId(),
+                fromWallet.getAddress(), senderPrevBalance, fromWallet.getBalance(),
+                toWallet.getAddress(), receiverPrevBalance, toWallet.getBalance(),
+                request.amount());
+
+        return toResponse(transaction);
+    }
+
+    /**
+     * Transfer to a sharded wallet: only the sender row is locked, the
+     * amount is credited to a random bucket of the recipient.
+     */
+    private TransactionResponse transferToShardedWallet(Long fromUserId, TransactionRequest request,
+            Timer.Sample sample) {
+        Wallet fromWallet = walletRepository.findByUserIdForUpdate(fromUserId)
+                .orElseThrow(() -> senderNotFound(fromUserId));
+
+        if (fromWallet.getAddress().equals(request.toWalletAddress())) {
+            return rejectSelfTransfer(fromWallet.getAddress(), request);
+        }
+
+        Wallet toWallet = walletRepository.findByAddress(request.toWalletAddress())
+                .orElseThrow(() -> recipientNotFound(request.toWalletAddress()));
+
+        walletBuckets.ensureAvailable(fromWallet, request.amount());
+        if (fromWallet.getBalance().compareTo(request.amount()) < 0) {
+            return rejectInsufficientBalance(fromWallet.getAddress(), fromWallet.getBalance(), request);
+        }
+
+        BigDecimal senderPrevBalance = fromWallet.getBalance();
+        fromWallet.withdraw(request.amount());
+        walletRepository.save(fromWallet);
+        walletBuckets.credit(toWallet.getId(), request.amount());
+
+        Transaction transaction = recordSuccess(
+                fromWallet.getId(), fromWallet.getAddress(), toWallet.getId(), request, sample);
+
+        log.info("Transfer successful: txId={}, from={} ({}→{}), to={} (bucket), amount={}",
+                transaction.getId(),
+                fromWallet.getAddress(), senderPrevBalance, fromWallet.getBalance(),
+                toWallet.getAddress(), request.amount());
+
+        return toResponse(transaction);
+    }
+
+    /**
+     * Single-statement transfer (ATOMIC engine).
+     * The conditional UPDATE returns both rows on success and nothing when any
+     * precondition fails; only then are the wallets read to explain why.
+     */
+    private TransactionResponse transferAtomic(Long fromUserId, TransactionRequest request, Timer.Sample sample) {
+        String toAddress = request.toWalletAddress();
+        List<WalletBalanceView> updated = walletRepository.transferBalance(
+                fromUserId, toAddress, request.amount());
+
+        if (updated.size() != 2) {
+            return rejectAtomicTransfer(fromUserId, request, sample);
+        }
+
+        WalletBalanceView fromWallet = updated.stream()
+                .filter(w -> !toAddress.equals(w.getAddress()))
+                .findFirst()
+                .orElseThrow();
+        WalletBalanceView toWallet = updated.stream()
+                .filter(w -> toAddress.equals(w.getAddress()))
+                .findFirst()
+                .orElseThrow();
+
+        Transaction transaction = recordSuccess(
+                fromWallet.getId(), fromWallet.getAddress(), toWallet.getId(), request, sample);
+
+        log.info("Transfer successful: txId={}, from={} (→{}), to={} (→{}), amount={}",
+                transaction.getId(),
+                fromWallet.getAddress(), fromWallet.getBalance(),
+                toWallet.getAddress(), toWallet.getBalance(),
+                request.amount());
+
+        return toResponse(transaction);
+    }
+
+    /**
+     * Classify a transfer the atomic UPDATE refused, with the same outcomes
+     * as the locking engine. A sharded sender may hold the missing funds in
+     * its buckets, so it is retried on the locking path, which sweeps them.
+     */
+    private TransactionResponse rejectAtomicTransfer(Long fromUserId, TransactionRequest request,
+            Timer.Sample sample) {
+        Wallet fromWallet = walletRepository.findByUserId(fromUserId)
+                .orElseThrow(() -> senderNotFound(fromUserId));
+
+        if (fromWallet.getAddress().equals(request.toWalletAddress())) {
+            return rejectSelfTransfer(fromWallet.getAddress(), request);
+        }
+
+        if (!walletRepository.existsByAddress(request.toWalletAddress())) {
+            throw recipientNotFound(request.toWalletAddress());
+        }
+
+        if (walletBuckets.isSharded(fromWallet.getAddress())) {
+            return transferLocked(fromUserId, request, sample);
+        }
+
+        return rejectInsufficientBalance(fromWallet.getAddress(), fromWallet.getBalance(), request);
+    }
+
+    private WalletNotFoundException senderNotFound(Long fromUserId) {
+        meterRegistry.counter("business.transaction.failed", "reason", "wallet_not_found").increment();
+        return new WalletNotFoundException(fromUserId);
+    }
+
+    private WalletNotFoundException recipientNotFound(String toAddress) {
+        meterRegistry.counter("business.transaction.failed", "reason", "recipient_not_found").increment();
+        return new WalletNotFoundException(toAddress);
+    }
+
+    private TransactionResponse rejectSelfTransfer(String fromAddress, TransactionRequest request) {
+        Transaction failed = createFailedTransaction(
+                fromAddress,
+                request.toWalletAddress(),
+                request.amount(),
+                request.idempotencyKey(),
+                "Cannot transfer to same wallet");
+        meterRegistry.counter("business.transaction.failed", "reason", "self_transfer").increment();
+        return toResponse(failed);
+    }
+
+    private TransactionResponse rejectInsufficientBalance(String fromAddress, BigDecimal available,
+            TransactionRequest request) {
+        Transaction failed = createFailedTransaction(
+                fromAddress,
+                request.toWalletAddress(),
+                request.amount(),
+                request.idempotencyKey(),
+                "Insufficient balance");
+        log.warn("Transfer failed - insufficient balance: available={}, requested={}",
+                available, request.amount());
+        meterRegistry.counter("business.transaction.failed", "reason", "insufficient_funds")
+                .increment();
+        return toResponse(failed);
+    }
+
+    /**
+     * Save the SUCCESS transaction and publish transfer metrics.
+     */
+    private Transaction recordSuccess(Long fromWalletId, String fromAddress, Long toWalletId,
+            TransactionRequest request, Timer.Sample sample) {
+        Transaction transaction = saveSuccess(fromWalletId, fromAddress, toWalletId, request);
+
+        // Metrics
+        sample.stop(meterRegistry.timer("business.transaction.latency"));
+        meterRegistry.counter("business.transaction.success", "type", "transfer").increment();
+
+        return transaction;
+    }
+
+    /**
+     * Save the SUCCESS transaction record with its idempotency key, ledger
+     * entries and outbox event; both wallets' cached balances are evicted
+     * once it commits.
+     */
+    private Transaction saveSuccess(Long fromWalletId, String fromAddress, Long toWalletId,
+            TransactionRequest request) {
+        Transaction transaction = new Transaction(
+                fromAddress,
+                request.toWalletAddress(),
+                request.amount(),
+                request.idempotencyKey());
+        transaction.markSuccess();
+        transaction = transactionRepository.save(transaction);
+        idempotencyKeyService.register(transaction);
+        ledgerService.recordTransfer(transaction.getId(), fromWalletId, toWalletId, request.amount());
+        outboxService.recordTransfer(transaction);
+        balanceCache.evictAfterCommit(fromAddress);
+        balanceCache.evictAfterCommit(request.toWalletAddress());
+        return transaction;
+    }
+
+    /**
+     * Create and save a failed transaction record, its idempotency key and
+     * outbox event.
+     */
+    private Transaction createFailedTransaction(
+            String fromAddress,
+            String toAddress,
+            BigDecimal amount,
+            String idempotencyKey,
+            String errorMessage) {
+
+        Transaction transaction = new Transaction(fromAddress, toAddress, amount, idempotencyKey);
+        transaction.markFailed(errorMessage);
+        transaction = transactionRepository.save(transaction);
+        idempotencyKeyService.register(transaction);
+        outboxService.recordTransfer(transaction);
+        return transaction;
+    }
+
+    /**
+     * Convert Transaction entity to TransactionResponse DTO.
+     */
+    private TransactionResponse toResponse(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getFromWalletAddress(),
+                transaction.getToWalletAddress(),
+                transaction.getAmount(),
+                transaction.getStatus(),
+                transaction.getTimestamp(),
+                transaction.getIdempotencyKey(),
+                transaction.getErrorMessage());
+    }
+
+    private record LockedBatch(
+            Map<String, TransactionResponse> processed,
+            Map<Long, Wallet> byUserId,
+            Map<String, Wallet> byAddress) {
+    }
+
+    /**
+     * One transfer of a batch.
+     */
+    public record BatchItem(Long fromUserId, TransactionRequest request) {
+    }
+
+    /**
+     * Result of one batch item: either a response (SUCCESS or FAILED
+     * transaction) or the exception the single-transfer path would throw.
+     */
+    public record BatchOutcome(TransactionResponse response, RuntimeException error) {
+
+        static BatchOutcome completed(TransactionResponse response) {
+            return new BatchOutcome(response, null);
+        }
+
+        static BatchOutcome failed(RuntimeException error) {
+            return new BatchOutcome(null, error);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bootstrap.workshop.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Input formats of the bulk user import, chosen by the request Content-Type.
+ */
+public enum UserImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String CSV_CONTENT_TYPE = "text/csv";
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    /**
+     * CSV for text/csv (any charset parameter), NDJSON otherwise.
+     */
+    public static UserImportFormat fromContentType(String contentType) {
+        if (contentType != null
+                && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV_CONTENT_TYPE))) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bootstrap.workshop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental reader of bulk user import input: one row per line, fields by
+ * name (email, name, password, bank, accountId, address, passwordHash).
+ * CSV needs a header line and follows RFC 4180 except that quoted fields
+ * cannot span lines; NDJSON rows are flat JSON objects, each line read by
+ * Jackson on its own so that a malformed line cannot derail the next ones.
+ * Only the current line is held in memory. A malformed line becomes a row
+ * with an error instead of failing the import.
+ */
+final class UserImportReader {
+
+    private static final ObjectReader JSON_LINE = new ObjectMapper()
+            .readerFor(JsonNode.class)
+            .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+    /**
+     * A parsed line; {@code error} is set when the line could not be parsed.
+     */
+    record Row(long line, Map<String, String> fields, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final UserImportFormat format;
+    private List<String> header;
+    private long line;
+
+    UserImportReader(InputStream in, UserImportFormat format) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+    }
+
+    /**
+     * Next non-blank row, or null at the end of the input.
+     */
+    Row next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+                text = text.substring(1);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                if (format == UserImportFormat.NDJSON) {
+                    return new Row(line, parseJsonLine(text), null);
+                }
+                if (header == null) {
+                    header = parseCsvLine(text).stream().map(String::trim).toList();
+                    continue;
+                }
+                return new Row(line, csvRow(parseCsvLine(text)), null);
+            } catch (IllegalArgumentException ex) {
+                return new Row(line, Map.of(), ex.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private Map<String, String> csvRow(List<String> values) {
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + header.size() + " fields, found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    static List<String> parseCsvLine(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    /**
+     * Fields of one NDJSON line, which must hold exactly one flat JSON object;
+     * numbers and booleans are kept as their text, null as null.
+     */
+    static Map<String, String> parseJsonLine(String text) {
+        JsonNode object;
+        try {
+            object = JSON_LINE.readTree(text);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON at column "
+                    + ex.getLocation().getColumnNr() + ": " + ex.getOriginalMessage());
+        }
+        if (!object.isObject()) {
+            throw new IllegalArgumentException("Malformed JSON: object expected");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<String, JsonNode> field : object.properties()) {
+            JsonNode value = field.getValue();
+            if (value.isContainerNode()) {
+                throw new IllegalArgumentException("Malformed JSON: nested value in field " + field.getKey());
+            }
+            fields.put(field.getKey(), value.isNull() ? null : value.asText());
+        }
+        return fields;
+    }
+}
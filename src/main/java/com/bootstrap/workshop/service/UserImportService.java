@@ -0,0 +1,341 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.PasswordHashingProperties;
+import com.bootstrap.workshop.config.UserImportProperties;
+import com.bootstrap.workshop.dto.UserRegistrationRequest;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.exception.ConcurrencyFailures;
+import com.bootstrap.workshop.exception.UserImportInProgressException;
+import com.bootstrap.workshop.repository.UserRepository;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import for admin onboarding (CSV or NDJSON, one user per row).
+ * Rows are parsed as they arrive and handled chunk-size at a time: the
+ * passwords of a chunk are hashed on a dedicated fixed-size pool while the
+ * previous chunk is written, and each chunk is committed by
+ * {@link UserImportWriter} as one transaction of batched inserts. A row that
+ * cannot be imported is reported with its line number and skipped; chunks
+ * committed before a failure stay, and re-running the file reports their
+ * rows as already registered.
+ * Rows may carry an existing BCrypt hash (passwordHash) instead of a
+ * password; it is stored as is and skips hashing.
+ * The report is NDJSON: an "error" line per rejected row, a "progress" line
+ * per chunk and a final "summary" line.
+ * Metrics: business.user.import.rows (counter, by outcome).
+ */
+@Service
+@Slf4j
+public class UserImportService implements AutoCloseable {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private final UserImportProperties properties;
+    private final UserRepository userRepository;
+    private final UserImportWriter writer;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final PasswordEncoder hasher;
+    private final ExecutorService hashPool;
+    // One import at a time: with two chunks in flight per import, the hash pool's queue stays bounded
+    private final Semaphore running = new Semaphore(1);
+
+    public UserImportService(UserImportProperties properties, PasswordHashingProperties passwordProperties,
+            UserRepository userRepository, UserImportWriter writer, Validator validator,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userRepository = userRepository;
+        this.writer = writer;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        // Same work factor as signups, but not the login pool, so an import cannot starve logins
+        this.hasher = new BCryptPasswordEncoder(passwordProperties.strength());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashPool = Executors.newFixedThreadPool(properties.hashThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Summary of a finished import.
+     */
+    public record UserImportResult(long rows, long imported, long failed, long elapsedMs) {
+    }
+
+    /**
+     * A validated row whose password hash may still be computing.
+     */
+    private record PendingUser(long line, UserRegistrationRequest request, Future<String> passwordHash) {
+    }
+
+    /**
+     * A row ready to insert.
+     */
+    private record ImportedUser(long line, UserRegistrationRequest request, String passwordHash) {
+        User toUser() {
+            return new User(request.email(), request.name(), passwordHash, request.bank(),
+                    request.accountId(), request.address());
+        }
+    }
+
+    /**
+     * Import every row of {@code in}, writing the NDJSON report to {@code out} as it goes.
+     */
+    public UserImportResult importUsers(InputStream in, UserImportFormat format, OutputStream out) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new UserImportInProgressException();
+        }
+        try {
+            Writer report = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            return run(new UserImportReader(in, format), new Report(report));
+        } finally {
+            running.release();
+        }
+    }
+
+    private UserImportResult run(UserImportReader reader, Report report) throws IOException {
+        long start = System.nanoTime();
+        List<PendingUser> hashing = List.of();
+        List<PendingUser> next = List.of();
+        try {
+            boolean more = true;
+            while (more) {
+                next = new ArrayList<>(properties.chunkSize());
+                more = readChunk(reader, next, report);
+                // The pool is already hashing the chunk just read while this one is written
+                write(hashing, report);
+                hashing = next;
+            }
+            write(hashing, report);
+        } finally {
+            // No-op after a normal finish; after a failure, stops hashing rows that will not be written
+            hashing.forEach(pending -> pending.passwordHash().cancel(true));
+            next.forEach(pending -> pending.passwordHash().cancel(true));
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        report.summary(elapsedMs);
+        log.info("User import finished: rows={}, imported={}, failed={}, elapsedMs={}",
+                report.rows, report.imported, report.failed, elapsedMs);
+        return new UserImportResult(report.rows, report.imported, report.failed, elapsedMs);
+    }
+
+    /**
+     * Read up to chunk-size valid rows and start hashing their passwords.
+     * Returns false once the input is exhausted.
+     */
+    private boolean readChunk(UserImportReader reader, List<PendingUser> chunk, Report report) throws IOException {
+        while (chunk.size() < properties.chunkSize()) {
+            UserImportReader.Row row = reader.next();
+            if (row == null) {
+                return false;
+            }
+            report.rows++;
+            if (row.error() != null) {
+                report.failed(row.line(), null, row.error());
+                continue;
+            }
+
+            Map<String, String> fields = row.fields();
+            String password = fields.get("password");
+            String passwordHash = fields.get("passwordHash");
+            boolean preHashed = (password == null || password.isBlank())
+                    && passwordHash != null && !passwordHash.isBlank();
+            UserRegistrationRequest request = new UserRegistrationRequest(
+                    trim(fields.get("email")),
+                    fields.get("name"),
+                    preHashed ? passwordHash : password,
+                    fields.get("bank"),
+                    fields.get("accountId"),
+                    fields.get("address"));
+            String error = validate(request);
+            if (error == null && preHashed && !BCRYPT_HASH.matcher(passwordHash).matches()) {
+                error = "passwordHash is not a BCrypt hash";
+            }
+            if (error != null) {
+                report.failed(row.line(), request.email(), error);
+                continue;
+            }
+
+            Future<String> hash = preHashed
+                    ? CompletableFuture.completedFuture(passwordHash)
+                    : hashPool.submit(() -> hasher.encode(password));
+            chunk.add(new PendingUser(row.line(), request, hash));
+        }
+        return true;
+    }
+
+    /**
+     * Drop rows whose email is repeated or already registered, then insert the
+     * rest in one transaction.
+     */
+    private void write(List<PendingUser> chunk, Report report) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<String, ImportedUser> byEmail = new LinkedHashMap<>();
+        for (PendingUser pending : chunk) {
+            String email = pending.request().email();
+            String passwordHash;
+            try {
+                passwordHash = pending.passwordHash().get();
+            } catch (ExecutionException ex) {
+                report.failed(pending.line(), email, "Password hashing failed");
+                continue;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("User import interrupted");
+            }
+            if (byEmail.putIfAbsent(email, new ImportedUser(pending.line(), pending.request(), passwordHash)) != null) {
+                report.failed(pending.line(), email, "Duplicate email in import");
+            }
+        }
+        if (!byEmail.isEmpty()) {
+            for (String registered : userRepository.findEmailsIn(byEmail.keySet())) {
+                ImportedUser duplicate = byEmail.remove(registered);
+                if (duplicate != null) {
+                    report.failed(duplicate.line(), registered, "Email already registered");
+                }
+            }
+        }
+
+        List<ImportedUser> users = List.copyOf(byEmail.values());
+        if (!users.isEmpty()) {
+            try {
+                writer.insert(users.stream().map(ImportedUser::toUser).toList());
+                report.imported(users.size());
+            } catch (RuntimeException ex) {
+                if (!ConcurrencyFailures.isUniqueViolation(ex)) {
+                    throw ex;
+                }
+                // Typically a concurrent signup took one of the emails: retry the chunk one row per transaction
+                for (ImportedUser user : users) {
+                    insertOne(user, report);
+                }
+            }
+        }
+        report.progress();
+    }
+
+    private void insertOne(ImportedUser user, Report report) throws IOException {
+        try {
+            writer.insert(List.of(user.toUser()));
+            report.imported(1);
+        } catch (RuntimeException ex) {
+            if (!ConcurrencyFailures.isUniqueViolation(ex)) {
+                throw ex;
+            }
+            String error = ConcurrencyFailures.isUniqueViolation(ex, User.EMAIL_CONSTRAINT)
+                    ? "Email already registered"
+                    : causeOf(ex);
+            report.failed(user.line(), user.request().email(), error);
+        }
+    }
+
+    /**
+     * First line of the driver's message, e.g. which other constraint was violated.
+     */
+    private static String causeOf(Throwable ex) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        String message = cause.getMessage();
+        return message != null ? message.lines().findFirst().orElse(message) : cause.getClass().getSimpleName();
+    }
+
+    private String validate(UserRegistrationRequest request) {
+        var violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    private static String jsonString(String value) {
+        return value != null ? '"' + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + '"' : "null";
+    }
+
+    @Override
+    public void close() {
+        hashPool.shutdownNow();
+    }
+
+    /**
+     * Running counts and the NDJSON report lines.
+     */
+    private final class Report {
+
+        private final Writer out;
+        private long rows;
+        private long imported;
+        private long failed;
+
+        Report(Writer out) {
+            this.out = out;
+        }
+
+        void imported(int count) {
+            imported += count;
+            meterRegistry.counter("business.user.import.rows", "outcome", "imported").increment(count);
+        }
+
+        void failed(long line, String email, String error) throws IOException {
+            failed++;
+            meterRegistry.counter("business.user.import.rows", "outcome", "failed").increment();
+            out.write("{\"type\":\"error\",\"line\":" + line
+                    + ",\"email\":" + jsonString(email)
+                    + ",\"error\":" + jsonString(error) + "}\n");
+        }
+
+        void progress() throws IOException {
+            out.write("{\"type\":\"progress\"," + counts() + "}\n");
+            out.flush();
+        }
+
+        void summary(long elapsedMs) throws IOException {
+            out.write("{\"type\":\"summary\"," + counts() + ",\"elapsedMs\":" + elapsedMs + "}\n");
+            out.flush();
+        }
+
+        private String counts() {
+            return "\"rows\":" + rows + ",\"imported\":" + imported + ",\"failed\":" + failed;
+        }
+    }
+}
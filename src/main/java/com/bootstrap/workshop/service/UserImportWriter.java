@@ -0,0 +1,45 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.UserImportProperties;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.entity.Wallet;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Writes one chunk of imported users in one transaction: the users, their
+ * wallets and the USER_REGISTERED outbox events.
+ * Ids come from pooled sequences, so nothing reaches the database before the
+ * flush, where Hibernate sends each table's rows as JDBC batches (rewritten
+ * into multi-row INSERTs by the PostgreSQL driver).
+ */
+@Component
+@RequiredArgsConstructor
+public class UserImportWriter {
+
+    private final EntityManager entityManager;
+    private final WalletAddressGenerator addressGenerator;
+    private final OutboxService outboxService;
+    private final UserImportProperties properties;
+
+    /**
+     * Insert the users with a wallet each; a unique violation rolls back the whole chunk.
+     */
+    @Transactional
+    public void insert(List<User> users) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(properties.jdbcBatchSize());
+        for (User user : users) {
+            entityManager.persist(user);
+            Wallet wallet = new Wallet(addressGenerator.addressFor(user.getId()), user);
+            entityManager.persist(wallet);
+            user.setWallet(wallet);
+            outboxService.recordUserRegistered(user.getId(), wallet.getAddress());
+        }
+        entityManager.flush();
+    }
+}
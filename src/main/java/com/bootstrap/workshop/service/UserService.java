@@ -5,18 +5,21 @@ import com.bootstrap.workshop.dto.UserResponse;
 import com.bootstrap.workshop.dto.UserUpdateRequest;
 import com.bootstrap.workshop.entity.User;
 import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.ConcurrencyFailures;
 import com.bootstrap.workshop.exception.UserAlreadyExistsException;
+import com.bootstrap.workshop.exception.UserHasLedgerHistoryException;
 import com.bootstrap.workshop.exception.UserNotFoundException;
+import com.bootstrap.workshop.repository.LedgerEntryRepository;
 import com.bootstrap.workshop.repository.UserRepository;
 import com.bootstrap.workshop.repository.WalletRepository;
+import com.bootstrap.workshop.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
-import java.util.HexFormat;
 import java.util.List;
 
 /**
@@ -29,9 +32,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
     private final PasswordEncoder passwordEncoder;
     private final io.micrometer.core.instrument.MeterRegistry meterRegistry;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final WalletBalanceCache balanceCache;
+    private final PrincipalCache principalCache;
+    private final OutboxService outboxService;
+    private final WalletAddressGenerator addressGenerator;
 
     /**
      * Register a new user and create their wallet.
@@ -40,12 +47,7 @@ public class UserService {
     public UserResponse register(UserRegistrationRequest request) {
         log.info("Registering new user with email: {}", request.email());
 
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.email())) {
-            throw new UserAlreadyExistsException(request.email());
-        }
-
-        // Create user with hashed password
+        // No existence check: the unique email constraint rejects a duplicate on insert
         User user = new User(
                 request.email(),
                 request.name(),
@@ -53,14 +55,22 @@ public class UserService {
                 request.bank(),
                 request.accountId(),
                 request.address());
-        user = userRepository.save(user);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!ConcurrencyFailures.isUniqueViolation(e, User.EMAIL_CONSTRAINT)) {
+                throw e;
+            }
+            throw new UserAlreadyExistsException(request.email());
+        }
 
-        // Create wallet with unique address
-        String walletAddress = generateUniqueWalletAddress();
+        // Address is a permutation of the new id, unique without a lookup
+        String walletAddress = addressGenerator.addressFor(user.getId());
         Wallet wallet = new Wallet(walletAddress, user);
         wallet = walletRepository.save(wallet);
 
         user.setWallet(wallet);
+        outboxService.recordUserRegistered(user.getId(), walletAddress);
 
         log.info("User registered successfully: id={}, walletAddress={}", user.getId(), walletAddress);
         meterRegistry.counter("business.user.signup.success").increment();
@@ -122,13 +132,28 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        principalCache.evictAfterCommit(id);
         log.info("User updated successfully: id={}", id);
 
         return toResponse(user);
     }
 
+    /**
+     * Replace the stored password hash (work factor upgrade on login).
+     */
+    @Transactional
+    public void upgradePasswordHash(Long id, String encodedPassword) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+        user.setPassword(encodedPassword);
+        userRepository.save(user);
+        log.info("Password hash upgraded: id={}", id);
+    }
+
     /**
      * Delete user and their wallet.
+     * Refused once the wallet has ledger entries: the ledger is append-only
+     * audit history and must keep both halves of every transfer.
      */
     @Transactional
     public void delete(Long id) {
@@ -137,24 +162,18 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new UserNotFoundException(id);
         }
+        walletRepository.findByUserId(id)
+                .filter(wallet -> ledgerEntryRepository.existsByWalletId(wallet.getId()))
+                .ifPresent(wallet -> {
+                    throw new UserHasLedgerHistoryException(id);
+                });
 
         userRepository.deleteById(id);
+        balanceCache.evictAfterCommit(id);
+        principalCache.evictAfterCommit(id);
         log.info("User deleted successfully: id={}", id);
     }
 
-    /**
-     * Generate unique 16-character hex wallet address.
-     */
-    private String generateUniqueWalletAddress() {
-        String address;
-        do {
-            byte[] bytes = new byte[8];
-            secureRandom.nextBytes(bytes);
-            address = HexFormat.of().formatHex(bytes);
-        } while (walletRepository.existsByAddress(address));
-        return address;
-    }
-
     /**
      * Convert User entity to UserResponse DTO.
      */
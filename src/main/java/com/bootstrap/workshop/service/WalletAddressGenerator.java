@@ -0,0 +1,73 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.WalletProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HexFormat;
+
+/**
+ * Wallet addresses derived from the owner's user id.
+ * A keyed Feistel network permutes the 64-bit id space, so distinct ids
+ * always give distinct addresses and no uniqueness lookup is needed; the
+ * output does not reveal the id or the signup order without the key
+ * (app.wallet.address-key). Changing the key after wallets exist would
+ * make new addresses collide with old ones.
+ */
+@Component
+public class WalletAddressGenerator {
+
+    static final int ROUNDS = 6;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int[] roundKeys = new int[ROUNDS];
+
+    public WalletAddressGenerator(WalletProperties properties) {
+        long state = properties.addressKey();
+        for (int i = 0; i < ROUNDS; i++) {
+            state += GOLDEN_GAMMA;
+            roundKeys[i] = (int) (mix(state) >>> 32);
+        }
+    }
+
+    /**
+     * 16 lowercase hex characters, unique per user id.
+     */
+    public String addressFor(long userId) {
+        return HexFormat.of().toHexDigits(permute(userId));
+    }
+
+    long permute(long value) {
+        int left = (int) (value >>> 32);
+        int right = (int) value;
+        for (int i = 0; i < ROUNDS; i++) {
+            int next = left ^ round(right, roundKeys[i]);
+            left = right;
+            right = next;
+        }
+        return ((long) left << 32) | (right & 0xFFFFFFFFL);
+    }
+
+    long unpermute(long value) {
+        int left = (int) (value >>> 32);
+        int right = (int) value;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            int previous = right ^ round(left, roundKeys[i]);
+            right = left;
+            left = previous;
+        }
+        return ((long) left << 32) | (right & 0xFFFFFFFFL);
+    }
+
+    private static int round(int half, int key) {
+        return (int) (mix(((long) key << 32) | (half & 0xFFFFFFFFL)) >>> 32);
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
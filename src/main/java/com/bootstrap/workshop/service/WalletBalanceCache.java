@@ -0,0 +1,96 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.BalanceCacheProperties;
+import com.bootstrap.workshop.dto.WalletResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link WalletResponse} by user id (Caffeine,
+ * size-bounded W-TinyLFU with TTL).
+ * Writers evict after their transaction commits, so a reader can never
+ * re-cache the pre-commit balance: an eviction waits for an in-flight load
+ * of the same key and then removes its result.
+ * Metrics: cache.gets / cache.evictions / cache.size with cache="wallet.balance".
+ */
+@Component
+public class WalletBalanceCache {
+
+    private final BalanceCacheProperties properties;
+    private final Cache<Long, WalletResponse> byUserId;
+    // Transfers only know the recipient address; address -> user id never changes
+    private final Cache<String, Long> userIdByAddress;
+
+    public WalletBalanceCache(BalanceCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.byUserId = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(Duration.ofMillis(properties.ttlMs()))
+                .recordStats()
+                .build();
+        this.userIdByAddress = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUserId, "wallet.balance");
+    }
+
+    /**
+     * Cached balance of the user, loading it on a miss. Concurrent misses
+     * for the same user share one load.
+     */
+    public WalletResponse get(Long userId, Function<Long, WalletResponse> loader) {
+        if (!properties.enabled()) {
+            return loader.apply(userId);
+        }
+        return byUserId.get(userId, id -> {
+            WalletResponse response = loader.apply(id);
+            userIdByAddress.put(response.address(), id);
+            return response;
+        });
+    }
+
+    /**
+     * Evict the user's balance once the current transaction commits
+     * (immediately when there is none).
+     */
+    public void evictAfterCommit(Long userId) {
+        afterCommit(() -> byUserId.invalidate(userId));
+    }
+
+    /**
+     * Evict the balance of the wallet with this address once the current
+     * transaction commits. No-op if it was never cached.
+     */
+    public void evictAfterCommit(String address) {
+        afterCommit(() -> {
+            Long userId = userIdByAddress.getIfPresent(address);
+            if (userId != null) {
+                byUserId.invalidate(userId);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
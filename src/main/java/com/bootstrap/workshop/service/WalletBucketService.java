@@ -0,0 +1,83 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.WalletProperties;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.repository.WalletBalanceBucketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Balance buckets for hot (sharded) wallets.
+ * A sharded wallet's total balance is its own row balance plus the sum of its
+ * buckets. Credits land on a random bucket so concurrent deposits/transfers
+ * to the same wallet contend on N rows instead of one; debits lock the
+ * wallet row and sweep the buckets into it only when its own balance is short.
+ * All methods must run inside the caller's transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletBucketService {
+
+    private final WalletBalanceBucketRepository bucketRepository;
+    private final WalletProperties walletProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Whether any wallet is configured as sharded.
+     */
+    public boolean enabled() {
+        return !walletProperties.sharding().hotAddresses().isEmpty();
+    }
+
+    public boolean isSharded(String address) {
+        return walletProperties.sharding().hotAddresses().contains(address);
+    }
+
+    /**
+     * Credit a random bucket of a sharded wallet.
+     */
+    public void credit(Long walletId, BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        int bucket = ThreadLocalRandom.current().nextInt(walletProperties.sharding().buckets());
+        bucketRepository.credit(walletId, bucket, amount);
+        meterRegistry.counter("business.wallet.bucket.credit").increment();
+    }
+
+    /**
+     * Make at least {@code amount} available on the wallet row by sweeping
+     * all buckets into it. The wallet must be locked by the caller.
+     * Does nothing if the wallet already covers the amount.
+     */
+    public void ensureAvailable(Wallet wallet, BigDecimal amount) {
+        if (wallet.getBalance().compareTo(amount) >= 0 || !isSharded(wallet.getAddress())) {
+            return;
+        }
+        List<BigDecimal> drained = bucketRepository.drain(wallet.getId());
+        BigDecimal swept = drained.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (swept.signum() > 0) {
+            wallet.setBalance(wallet.getBalance().add(swept));
+            log.info("Swept balance buckets: walletAddress={}, buckets={}, amount={}",
+                    wallet.getAddress(), drained.size(), swept);
+        }
+        meterRegistry.counter("business.wallet.bucket.sweep").increment();
+    }
+
+    /**
+     * Total balance of a wallet: row balance plus buckets when sharded.
+     */
+    public BigDecimal totalBalance(Wallet wallet) {
+        if (!isSharded(wallet.getAddress())) {
+            return wallet.getBalance();
+        }
+        return wallet.getBalance().add(bucketRepository.sumBalanceByWalletId(wallet.getId()));
+    }
+}
@@ -1,10 +1,12 @@
 package com.bootstrap.workshop.service;
 
+import com.bootstrap.workshop.config.WalletProperties;
 import com.bootstrap.workshop.dto.WalletOperationRequest;
 import com.bootstrap.workshop.dto.WalletResponse;
 import com.bootstrap.workshop.entity.Wallet;
 import com.bootstrap.workshop.exception.InsufficientBalanceException;
 import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.repository.WalletBalanceView;
 import com.bootstrap.workshop.repository.WalletRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,9 +14,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 
 /**
  * Service for wallet operations with locking support.
+ * Balance mutations use either pessimistic locking or a single atomic
+ * UPDATE, depending on {@link WalletProperties#engine()}. Sharded (hot)
+ * wallets keep part of their balance in buckets ({@link WalletBucketService});
+ * reads aggregate them and deposits bypass the wallet row lock.
+ * Balance reads are cached; every mutation evicts after commit and writes
+ * an outbox event ({@link OutboxService}) in its transaction.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,15 +31,22 @@ import java.math.BigDecimal;
 public class WalletService {
 
     private final WalletRepository walletRepository;
+    private final WalletProperties walletProperties;
+    private final WalletBucketService walletBuckets;
+    private final LedgerService ledgerService;
+    private final WalletBalanceCache balanceCache;
+    private final OutboxService outboxService;
 
     /**
-     * Get wallet balance for user.
+     * Get wallet balance for user, served from {@link WalletBalanceCache}.
+     * Not @Transactional: a cache hit must not check out a connection.
      */
-    @Transactional(readOnly = true)
     public WalletResponse getBalance(Long userId) {
-        Wallet wallet = walletRepository.findByUserId(userId)
-                .orElseThrow(() -> new WalletNotFoundException(userId));
-        return toResponse(wallet);
+        return balanceCache.get(userId, id -> {
+            Wallet wallet = walletRepository.findByUserId(id)
+                    .orElseThrow(() -> new WalletNotFoundException(id));
+            return toResponse(wallet);
+        });
     }
 
     /**
@@ -49,6 +65,31 @@ public class WalletService {
     @Transactional
     public WalletResponse deposit(Long userId, WalletOperationRequest request) {
         log.info("Processing deposit: userId={}, amount={}", userId, request.amount());
+        balanceCache.evictAfterCommit(userId);
+
+        Optional<Wallet> sharded = findShardedWallet(userId);
+        if (sharded.isPresent()) {
+            Wallet wallet = sharded.get();
+            walletBuckets.credit(wallet.getId(), request.amount());
+            ledgerService.recordDeposit(wallet.getId(), request.amount());
+            outboxService.recordDeposit(wallet.getAddress(), request.amount());
+            log.info("Deposit successful: walletAddress={} (bucket), amount={}",
+                    wallet.getAddress(), request.amount());
+            return toResponse(wallet);
+        }
+
+        if (isAtomic()) {
+            if (request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Deposit amount must be positive");
+            }
+            WalletBalanceView updated = walletRepository.creditByUserId(userId, request.amount())
+                    .orElseThrow(() -> new WalletNotFoundException(userId));
+            ledgerService.recordDeposit(updated.getId(), request.amount());
+            outboxService.recordDeposit(updated.getAddress(), request.amount());
+            log.info("Deposit successful: walletAddress={}, newBalance={}",
+                    updated.getAddress(), updated.getBalance());
+            return toResponse(updated);
+        }
 
         // Acquire lock on wallet
         Wallet wallet = walletRepository.findByUserIdForUpdate(userId)
@@ -57,6 +98,8 @@ public class WalletService {
         BigDecimal previousBalance = wallet.getBalance();
         wallet.deposit(request.amount());
         wallet = walletRepository.save(wallet);
+        ledgerService.recordDeposit(wallet.getId(), request.amount());
+        outboxService.recordDeposit(wallet.getAddress(), request.amount());
 
         log.info("Deposit successful: walletAddress={}, previousBalance={}, newBalance={}",
                 wallet.getAddress(), previousBalance, wallet.getBalance());
@@ -70,12 +113,35 @@ public class WalletService {
     @Transactional
     public WalletResponse withdraw(Long userId, WalletOperationRequest request) {
         log.info("Processing withdrawal: userId={}, amount={}", userId, request.amount());
+        balanceCache.evictAfterCommit(userId);
+
+        if (isAtomic()) {
+            if (request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Withdraw amount must be positive");
+            }
+            Optional<WalletBalanceView> updated = walletRepository.debitByUserId(userId, request.amount());
+            if (updated.isPresent()) {
+                ledgerService.recordWithdrawal(updated.get().getId(), request.amount());
+                outboxService.recordWithdrawal(updated.get().getAddress(), request.amount());
+                log.info("Withdrawal successful: walletAddress={}, newBalance={}",
+                        updated.get().getAddress(), updated.get().getBalance());
+                return toResponse(updated.get());
+            }
+
+            // No row updated: no wallet, not enough balance, or funds still in buckets
+            Wallet wallet = walletRepository.findByUserId(userId)
+                    .orElseThrow(() -> new WalletNotFoundException(userId));
+            if (!walletBuckets.isSharded(wallet.getAddress())) {
+                throw new InsufficientBalanceException(wallet.getBalance(), request.amount());
+            }
+        }
 
         // Acquire lock on wallet
         Wallet wallet = walletRepository.findByUserIdForUpdate(userId)
                 .orElseThrow(() -> new WalletNotFoundException(userId));
 
-        // Check balance
+        // Check balance (sweeping buckets of a sharded wallet if needed)
+        walletBuckets.ensureAvailable(wallet, request.amount());
         if (wallet.getBalance().compareTo(request.amount()) < 0) {
             throw new InsufficientBalanceException(wallet.getBalance(), request.amount());
         }
@@ -83,6 +149,8 @@ public class WalletService {
         BigDecimal previousBalance = wallet.getBalance();
         wallet.withdraw(request.amount());
         wallet = walletRepository.save(wallet);
+        ledgerService.recordWithdrawal(wallet.getId(), request.amount());
+        outboxService.recordWithdrawal(wallet.getAddress(), request.amount());
 
         log.info("Withdrawal successful: walletAddress={}, previousBalance={}, newBalance={}",
                 wallet.getAddress(), previousBalance, wallet.getBalance());
@@ -99,10 +167,40 @@ public class WalletService {
                 .orElseThrow(() -> new WalletNotFoundException(address));
     }
 
+    /**
+     * Wallet of the user if it is sharded; skips the lookup when no wallet is.
+     */
+    private Optional<Wallet> findShardedWallet(Long userId) {
+        if (!walletBuckets.enabled()) {
+            return Optional.empty();
+        }
+        return walletRepository.findByUserId(userId)
+                .filter(wallet -> walletBuckets.isSharded(wallet.getAddress()));
+    }
+
+    private boolean isAtomic() {
+        return walletProperties.engine() == WalletProperties.BalanceEngine.ATOMIC;
+    }
+
     /**
      * Convert Wallet entity to WalletResponse DTO.
+     * Sharded wallets report their aggregated (row + buckets) balance.
      */
     private WalletResponse toResponse(Wallet wallet) {
+        BigDecimal balance = walletBuckets.isSharded(wallet.getAddress())
+                ? walletBuckets.totalBalance(wallet)
+                : wallet.getBalance();
+        return new WalletResponse(
+                wallet.getId(),
+                wallet.getAddress(),
+                balance,
+                wallet.getCreatedAt());
+    }
+
+    /**
+     * Convert an atomic update result to WalletResponse DTO.
+     */
+    private WalletResponse toResponse(WalletBalanceView wallet) {
         return new WalletResponse(
                 wallet.getId(),
                 wallet.getAddress(),
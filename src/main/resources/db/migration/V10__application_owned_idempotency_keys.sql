@@ -0,0 +1,12 @@
+-- V10__application_owned_idempotency_keys.sql
+-- Idempotency keys live only in transaction_idempotency_keys, registered by
+-- the application in the same transaction as the transfer and deleted once
+-- older than the retention window (IdempotencyKeyCompactionJob). Lookups go
+-- through its primary key and join the transaction by (id, timestamp), so the
+-- per-partition index on transactions.idempotency_key is no longer needed:
+-- each transfer insert now maintains one bounded index instead of two.
+
+DROP TRIGGER IF EXISTS trg_transactions_idempotency_key ON transactions;
+DROP FUNCTION IF EXISTS register_transaction_idempotency_key();
+
+DROP INDEX IF EXISTS idx_transaction_idempotency;
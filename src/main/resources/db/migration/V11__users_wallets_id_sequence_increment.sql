@@ -0,0 +1,7 @@
+-- V11__users_wallets_id_sequence_increment.sql
+-- User and wallet ids move from IDENTITY to Hibernate's pooled sequence
+-- optimizer (blocks of 50), which lets inserts be JDBC-batched (bulk user
+-- import); the sequences must step by the same amount.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE wallets_id_seq INCREMENT BY 50;
@@ -0,0 +1,12 @@
+-- V12__ledger_wallet_fk_restrict.sql
+-- Ledger entries and snapshots are audit history: deleting a wallet (or the
+-- user that owns it) must not cascade into them. A wallet with ledger
+-- history can no longer be deleted; UserService refuses such deletes.
+
+ALTER TABLE ledger_entries DROP CONSTRAINT fk_ledger_wallet;
+ALTER TABLE ledger_entries ADD CONSTRAINT fk_ledger_wallet
+    FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE RESTRICT;
+
+ALTER TABLE wallet_balance_snapshots DROP CONSTRAINT fk_snapshot_wallet;
+ALTER TABLE wallet_balance_snapshots ADD CONSTRAINT fk_snapshot_wallet
+    FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE RESTRICT;
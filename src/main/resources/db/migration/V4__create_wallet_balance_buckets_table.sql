@@ -0,0 +1,12 @@
+-- V4__create_wallet_balance_buckets_table.sql
+-- Sub-balances for sharded (hot) wallets: total = wallets.balance + SUM(buckets)
+
+CREATE TABLE wallet_balance_buckets (
+    id BIGSERIAL PRIMARY KEY,
+    wallet_id BIGINT NOT NULL,
+    bucket INT NOT NULL,
+    balance DECIMAL(19,4) NOT NULL DEFAULT 0,
+    CONSTRAINT fk_bucket_wallet FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE,
+    CONSTRAINT uk_wallet_bucket UNIQUE (wallet_id, bucket),
+    CONSTRAINT chk_bucket_balance CHECK (balance >= 0)
+);
@@ -0,0 +1,5 @@
+-- V5__transactions_id_sequence_increment.sql
+-- Hibernate allocates transaction ids in blocks of 50 (pooled optimizer) so
+-- inserts can be JDBC-batched; the sequence must step by the same amount.
+
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
@@ -0,0 +1,42 @@
+-- V6__create_ledger_tables.sql
+-- Append-only double-entry ledger plus periodic per-wallet balance snapshots
+
+CREATE SEQUENCE ledger_entries_id_seq INCREMENT BY 50;
+
+CREATE TABLE ledger_entries (
+    id BIGINT PRIMARY KEY DEFAULT nextval('ledger_entries_id_seq'),
+    wallet_id BIGINT NOT NULL,
+    entry_type VARCHAR(10) NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    amount DECIMAL(19,4) NOT NULL,
+    transaction_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_ledger_wallet FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE,
+    CONSTRAINT chk_ledger_entry_type CHECK (entry_type IN ('DEBIT', 'CREDIT')),
+    CONSTRAINT chk_ledger_amount CHECK (amount > 0)
+);
+
+ALTER SEQUENCE ledger_entries_id_seq OWNED BY ledger_entries.id;
+
+CREATE INDEX idx_ledger_wallet_created ON ledger_entries(wallet_id, created_at);
+CREATE INDEX idx_ledger_created ON ledger_entries(created_at);
+
+CREATE TABLE wallet_balance_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    wallet_id BIGINT NOT NULL,
+    balance DECIMAL(19,4) NOT NULL,
+    covered_until TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_snapshot_wallet FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_snapshot_wallet_covered ON wallet_balance_snapshots(wallet_id, covered_until);
+
+-- Opening entries so that the ledger starts out equal to the current balances
+INSERT INTO ledger_entries (wallet_id, entry_type, operation, amount)
+SELECT w.id, 'CREDIT', 'OPENING', w.balance + COALESCE(b.total, 0)
+FROM wallets w
+LEFT JOIN (
+    SELECT wallet_id, SUM(balance) AS total FROM wallet_balance_buckets GROUP BY wallet_id
+) b ON b.wallet_id = w.id
+WHERE w.balance + COALESCE(b.total, 0) > 0;
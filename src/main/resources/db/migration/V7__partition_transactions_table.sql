@@ -0,0 +1,98 @@
+-- V7__partition_transactions_table.sql
+-- Convert transactions to monthly RANGE partitions on "timestamp".
+-- A partitioned table's unique constraints must include the partition key, so
+-- the primary key becomes (id, timestamp) and global idempotency-key
+-- uniqueness moves to transaction_idempotency_keys, filled by a trigger.
+-- New partitions are created ahead of time by TransactionPartitionJob.
+
+-- Free the old names (index/constraint names are schema-wide)
+ALTER TABLE transactions RENAME TO transactions_legacy;
+ALTER TABLE transactions_legacy RENAME CONSTRAINT transactions_pkey TO transactions_legacy_pkey;
+ALTER SEQUENCE transactions_id_seq OWNED BY NONE;
+DROP INDEX IF EXISTS idx_transaction_from_wallet;
+DROP INDEX IF EXISTS idx_transaction_to_wallet;
+DROP INDEX IF EXISTS idx_transaction_idempotency;
+DROP INDEX IF EXISTS idx_transaction_status;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL DEFAULT nextval('transactions_id_seq'),
+    from_wallet_address VARCHAR(16) NOT NULL,
+    to_wallet_address VARCHAR(16) NOT NULL,
+    amount DECIMAL(19,4) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    idempotency_key VARCHAR(255) NOT NULL,
+    error_message TEXT,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+-- Declared on the parent, created on every partition
+CREATE INDEX idx_transaction_from_wallet ON transactions(from_wallet_address);
+CREATE INDEX idx_transaction_to_wallet ON transactions(to_wallet_address);
+CREATE INDEX idx_transaction_idempotency ON transactions(idempotency_key);
+CREATE INDEX idx_transaction_status ON transactions(status);
+
+-- Creates the partition holding the month of month_start (no-op if it exists)
+CREATE OR REPLACE FUNCTION create_transactions_partition(month_start DATE)
+RETURNS TEXT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    start_date DATE := date_trunc('month', month_start)::date;
+    partition_name TEXT := 'transactions_p' || to_char(start_date, 'YYYYMM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+        partition_name, start_date, (start_date + INTERVAL '1 month')::date);
+    RETURN partition_name;
+END;
+$$;
+
+-- Global idempotency-key uniqueness across partitions
+CREATE TABLE transaction_idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_created ON transaction_idempotency_keys(created_at);
+
+CREATE OR REPLACE FUNCTION register_transaction_idempotency_key()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    -- Raises unique_violation (23505) for a duplicate key, aborting the insert
+    INSERT INTO transaction_idempotency_keys (idempotency_key, transaction_id, created_at)
+    VALUES (NEW.idempotency_key, NEW.id, NEW.timestamp);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_transactions_idempotency_key
+    AFTER INSERT ON transactions
+    FOR EACH ROW EXECUTE FUNCTION register_transaction_idempotency_key();
+
+-- Partitions for existing data through three months ahead
+DO $$
+DECLARE
+    month_cursor DATE := date_trunc('month',
+            COALESCE((SELECT MIN(timestamp) FROM transactions_legacy), CURRENT_DATE))::date;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_cursor <= last_month LOOP
+        PERFORM create_transactions_partition(month_cursor);
+        month_cursor := (month_cursor + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO transactions (id, from_wallet_address, to_wallet_address, amount, status,
+                          timestamp, idempotency_key, error_message)
+SELECT id, from_wallet_address, to_wallet_address, amount, status,
+       timestamp, idempotency_key, error_message
+FROM transactions_legacy;
+
+DROP TABLE transactions_legacy;
@@ -0,0 +1,11 @@
+-- Keyset pagination of wallet history: each index returns a wallet's rows
+-- already in (timestamp DESC, id DESC) order, so a page is a bounded index
+-- range scan regardless of depth. They also cover the old single-column
+-- wallet indexes (same leading column), which are dropped.
+DROP INDEX IF EXISTS idx_transaction_from_wallet;
+DROP INDEX IF EXISTS idx_transaction_to_wallet;
+
+CREATE INDEX idx_transaction_from_wallet_history
+    ON transactions(from_wallet_address, timestamp DESC, id DESC);
+CREATE INDEX idx_transaction_to_wallet_history
+    ON transactions(to_wallet_address, timestamp DESC, id DESC);
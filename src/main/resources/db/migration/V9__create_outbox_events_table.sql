@@ -0,0 +1,23 @@
+-- V9__create_outbox_events_table.sql
+-- Transactional outbox: one compact row per business event, written in the
+-- same transaction as the change it describes and relayed asynchronously
+
+CREATE SEQUENCE outbox_events_id_seq INCREMENT BY 50;
+
+CREATE TABLE outbox_events (
+    id BIGINT PRIMARY KEY DEFAULT nextval('outbox_events_id_seq'),
+    event_type VARCHAR(30) NOT NULL,
+    wallet_address VARCHAR(16),
+    counterparty_address VARCHAR(16),
+    amount DECIMAL(19,4),
+    reference_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+ALTER SEQUENCE outbox_events_id_seq OWNED BY outbox_events.id;
+
+-- The relay only ever scans the unpublished tail, in id order
+CREATE INDEX idx_outbox_unpublished ON outbox_events(id) WHERE published_at IS NULL;
+-- Compaction deletes published rows by age
+CREATE INDEX idx_outbox_published ON outbox_events(published_at) WHERE published_at IS NOT NULL;
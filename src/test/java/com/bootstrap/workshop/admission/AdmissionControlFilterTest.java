@@ -0,0 +1,103 @@
+package com.bootstrap.workshop.admission;
+
+import com.bootstrap.workshop.config.AdmissionProperties;
+import com.bootstrap.workshop.config.AdmissionProperties.EndpointClass;
+import com.bootstrap.workshop.config.AdmissionProperties.Limit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionControlFilter")
+class AdmissionControlFilterTest {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AdmissionProperties properties = new AdmissionProperties(true, 5, 0.5, 2,
+                Map.of(EndpointClass.TRANSFER, new Limit(1, 1, 1, 1_000)));
+        filter = new AdmissionControlFilter(properties,
+                () -> new AdmissionControlFilter.PoolUsage(active.get(), 10, pending.get()), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should classify endpoints by path and method")
+    void shouldClassifyEndpoints() {
+        assertEquals(EndpointClass.TRANSFER, AdmissionControlFilter.classify("POST", "/api/v1/transactions"));
+        assertEquals(EndpointClass.HISTORY, AdmissionControlFilter.classify("GET", "/api/v1/transactions/export"));
+        assertEquals(EndpointClass.BALANCE, AdmissionControlFilter.classify("GET", "/api/v1/wallet"));
+        assertEquals(EndpointClass.TRANSFER, AdmissionControlFilter.classify("POST", "/api/v1/wallet/deposit"));
+        assertEquals(EndpointClass.ADMIN, AdmissionControlFilter.classify("GET", "/api/v1/admin/users"));
+        assertNull(AdmissionControlFilter.classify("POST", "/api/v1/auth/login"));
+        assertNull(AdmissionControlFilter.classify("POST", "/api/v1/admin/users/import"));
+    }
+
+    @Test
+    @DisplayName("should reject with 429 when the endpoint class is at its limit")
+    void shouldRejectOverLimit() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        FilterChain reentrant = (req, res) -> filter.doFilter(transfer(), rejected, new MockFilterChain());
+
+        filter.doFilter(transfer(), new MockHttpServletResponse(), reentrant);
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("http.admission.rejected")
+                .tags("endpoint", "transfer", "reason", "limit").counter().count());
+    }
+
+    @Test
+    @DisplayName("should reject with 503 when too many threads wait for a connection")
+    void shouldRejectWhenPoolSaturated() throws Exception {
+        active.set(10);
+        pending.set(6);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(transfer(), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("should admit while the pool is still growing even with waiters")
+    void shouldAdmitWhilePoolGrows() throws Exception {
+        active.set(4);
+        pending.set(6);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(transfer(), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("should pass through endpoints that are not limited")
+    void shouldPassThroughUnlimited() throws Exception {
+        pending.set(100);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/auth/login"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    private MockHttpServletRequest transfer() {
+        return new MockHttpServletRequest("POST", "/api/v1/transactions");
+    }
+}
@@ -0,0 +1,72 @@
+package com.bootstrap.workshop.admission;
+
+import com.bootstrap.workshop.config.AdmissionProperties.Limit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AimdLimiter")
+class AimdLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    @DisplayName("should reject once the limit is in flight")
+    void shouldRejectAtLimit() {
+        AimdLimiter limiter = new AimdLimiter(new Limit(2, 1, 10, 100), 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("should halve the limit on slow responses but not below min")
+    void shouldBackOffOnSlowResponses() {
+        AimdLimiter limiter = new AimdLimiter(new Limit(8, 3, 10, 100), 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(4, limiter.limit());
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    @DisplayName("should grow by about one per window of fast responses while busy")
+    void shouldGrowWhileBusy() {
+        AimdLimiter limiter = new AimdLimiter(new Limit(4, 1, 10, 100), 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < 5; i++) {
+            limiter.release(FAST, false);
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertEquals(5, limiter.limit());
+    }
+
+    @Test
+    @DisplayName("should not grow while mostly idle")
+    void shouldNotGrowWhileIdle() {
+        AimdLimiter limiter = new AimdLimiter(new Limit(4, 1, 10, 100), 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+}
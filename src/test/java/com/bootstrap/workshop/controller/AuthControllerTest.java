@@ -4,6 +4,7 @@ import com.bootstrap.workshop.dto.UserRegistrationRequest;
 import com.bootstrap.workshop.dto.UserResponse;
 import com.bootstrap.workshop.entity.Role;
 import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.exception.PasswordHashingBusyException;
 import com.bootstrap.workshop.exception.UserAlreadyExistsException;
 import com.bootstrap.workshop.repository.UserRepository;
 import com.bootstrap.workshop.security.JwtService;
@@ -25,6 +26,7 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -145,4 +147,46 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.token").value("test-jwt-token"))
                 .andExpect(jsonPath("$.user.email").value("test@example.com"));
     }
+
+    @Test
+    @DisplayName("POST /api/v1/auth/login - should upgrade a weak password hash")
+    void shouldUpgradeWeakPasswordHash() throws Exception {
+        User user = new User("test@example.com", "Test User", "$2a$04$weakhash", "Test Bank", "ACC123",
+                "123 Test St");
+        user.setId(1L);
+
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$04$weakhash")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("$2a$10$stronghash");
+        when(jwtService.generateToken(any(User.class))).thenReturn("test-jwt-token");
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "test@example.com", "password": "password123"}
+                        """))
+                .andExpect(status().isOk());
+
+        verify(userService).upgradePasswordHash(1L, "$2a$10$stronghash");
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/auth/login - should return 503 when password hashing is saturated")
+    void shouldReturn503WhenHashingSaturated() throws Exception {
+        User user = new User("test@example.com", "Test User", "$2a$10$hash", "Test Bank", "ACC123",
+                "123 Test St");
+        user.setId(1L);
+
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(anyString(), anyString())).thenThrow(new PasswordHashingBusyException());
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "test@example.com", "password": "password123"}
+                        """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
 }
@@ -4,8 +4,11 @@ import com.bootstrap.workshop.config.AppConfig;
 import com.bootstrap.workshop.config.JwtProperties;
 import com.bootstrap.workshop.entity.User;
 import com.bootstrap.workshop.security.CustomUserDetailsService;
+import com.bootstrap.workshop.security.JwtClaims;
 import com.bootstrap.workshop.security.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
@@ -14,9 +17,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -62,6 +69,15 @@ public class ControllerTestConfig implements WebMvcConfigurer {
         return mapper;
     }
 
+    /**
+     * In-memory MeterRegistry for components that record metrics
+     * (e.g. GlobalExceptionHandler).
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
     /**
      * Mock JwtProperties for security tests.
      */
@@ -69,7 +85,8 @@ public class ControllerTestConfig implements WebMvcConfigurer {
     public JwtProperties jwtProperties() {
         return new JwtProperties(
                 "test-secret-key-for-jwt-testing-must-be-at-least-32-chars",
-                86400000L);
+                86400000L,
+                null);
     }
 
     /**
@@ -83,6 +100,8 @@ public class ControllerTestConfig implements WebMvcConfigurer {
         when(mockService.validateToken(anyString())).thenReturn(true);
         when(mockService.extractUserId(anyString())).thenReturn(1L);
         when(mockService.extractRole(anyString())).thenReturn("USER");
+        when(mockService.verify(anyString())).thenReturn(Optional.of(
+                new JwtClaims(1L, "test@example.com", "USER", Instant.now().plusSeconds(3600))));
         return mockService;
     }
 
@@ -95,6 +114,7 @@ public class ControllerTestConfig implements WebMvcConfigurer {
         User testUser = new User("test@example.com", "Test User", "password", "Test Bank", "ACC123", "123 Test St");
         testUser.setId(1L);
         when(mockService.loadUserById(1L)).thenReturn(testUser);
+        when(mockService.loadPrincipal(eq(1L), any(), any())).thenReturn(testUser);
         return mockService;
     }
 
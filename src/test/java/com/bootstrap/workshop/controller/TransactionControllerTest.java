@@ -1,8 +1,14 @@
 package com.bootstrap.workshop.controller;
 
+import com.bootstrap.workshop.dto.BulkTransferRequest;
+import com.bootstrap.workshop.dto.BulkTransferResponse;
+import com.bootstrap.workshop.dto.TransactionPageResponse;
 import com.bootstrap.workshop.dto.TransactionRequest;
 import com.bootstrap.workshop.dto.TransactionResponse;
 import com.bootstrap.workshop.entity.TransactionStatus;
+import com.bootstrap.workshop.exception.InvalidCursorException;
+import com.bootstrap.workshop.service.TransactionExportFormat;
+import com.bootstrap.workshop.service.TransactionExportService;
 import com.bootstrap.workshop.service.TransactionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -11,14 +17,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -37,6 +49,9 @@ class TransactionControllerTest {
         @MockitoBean
         private TransactionService transactionService;
 
+        @MockitoBean
+        private TransactionExportService transactionExportService;
+
         @Autowired
         private ObjectMapper objectMapper;
 
@@ -99,11 +114,64 @@ class TransactionControllerTest {
                                                 BigDecimal.valueOf(50), TransactionStatus.SUCCESS,
                                                 LocalDateTime.now(), "key2", null));
 
-                when(transactionService.findByUserId(1L)).thenReturn(transactions);
+                when(transactionService.findHistoryByUserId(1L, null, TransactionService.DEFAULT_PAGE_SIZE))
+                                .thenReturn(new TransactionPageResponse(transactions, "next-cursor"));
 
                 mockMvc.perform(get("/api/v1/transactions"))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$.length()").value(2));
+                                .andExpect(jsonPath("$.items.length()").value(2))
+                                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/transactions?after= - should pass cursor and limit through")
+        void shouldPassCursorAndLimitThrough() throws Exception {
+                when(transactionService.findHistoryByUserId(1L, "abc", 5))
+                                .thenReturn(new TransactionPageResponse(List.of(), null));
+
+                mockMvc.perform(get("/api/v1/transactions").param("after", "abc").param("limit", "5"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items.length()").value(0));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/transactions?after= - should return 400 for malformed cursor")
+        void shouldReturn400ForMalformedCursor() throws Exception {
+                when(transactionService.findHistoryByUserId(1L, "garbage", TransactionService.DEFAULT_PAGE_SIZE))
+                                .thenThrow(new InvalidCursorException("garbage"));
+
+                mockMvc.perform(get("/api/v1/transactions").param("after", "garbage"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/transactions/export - should stream the export as an attachment")
+        void shouldStreamExport() throws Exception {
+                when(transactionExportService.walletAddressOf(1L)).thenReturn("sender1234567890");
+                when(transactionExportService.export(eq("sender1234567890"), eq(TransactionExportFormat.CSV), any()))
+                                .thenAnswer(invocation -> {
+                                        OutputStream out = invocation.getArgument(2);
+                                        out.write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+                                        return 1L;
+                                });
+
+                MvcResult result = mockMvc.perform(get("/api/v1/transactions/export").param("format", "csv"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                assertEquals(600_000L, result.getRequest().getAsyncContext().getTimeout());
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Disposition",
+                                                containsString("transactions-sender1234567890.csv")))
+                                .andExpect(content().string("id\n1\n"));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/transactions/export - should return 400 for unknown format")
+        void shouldReturn400ForUnknownExportFormat() throws Exception {
+                mockMvc.perform(get("/api/v1/transactions/export").param("format", "xml"))
+                                .andExpect(status().isBadRequest());
         }
 
         @Test
@@ -137,4 +205,54 @@ class TransactionControllerTest {
                                 .content(invalidRequest))
                                 .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("POST /api/v1/transactions - should return 409 on deadlock/serialization failure")
+        void shouldReturnConflictOnConcurrencyFailure() throws Exception {
+                TransactionRequest request = new TransactionRequest(
+                                "receiver12345678",
+                                BigDecimal.valueOf(200),
+                                "idempotency-key-123");
+
+                when(transactionService.transfer(eq(1L), any()))
+                                .thenThrow(new CannotAcquireLockException("deadlock detected"));
+
+                mockMvc.perform(post("/api/v1/transactions")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.error").value("Conflict"));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/transactions/batch - should return per-item results")
+        void shouldTransferBulk() throws Exception {
+                TransactionRequest item = new TransactionRequest(
+                                "receiver12345678",
+                                BigDecimal.valueOf(200),
+                                "idempotency-key-123");
+                TransactionResponse transaction = new TransactionResponse(
+                                1L, "sender1234567890", "receiver12345678",
+                                BigDecimal.valueOf(200), TransactionStatus.SUCCESS,
+                                LocalDateTime.now(), "idempotency-key-123", null);
+
+                when(transactionService.transferBulk(eq(1L), any())).thenReturn(new BulkTransferResponse(
+                                1, 0, List.of(new BulkTransferResponse.Item("idempotency-key-123", transaction, null))));
+
+                mockMvc.perform(post("/api/v1/transactions/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new BulkTransferRequest(List.of(item)))))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.succeeded").value(1))
+                                .andExpect(jsonPath("$.items[0].transaction.status").value("SUCCESS"));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/transactions/batch - should return 400 for an empty batch")
+        void shouldReturn400ForEmptyBulk() throws Exception {
+                mockMvc.perform(post("/api/v1/transactions/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"transfers\": []}"))
+                                .andExpect(status().isBadRequest());
+        }
 }
@@ -0,0 +1,64 @@
+package com.bootstrap.workshop.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecentKeyFilter")
+class RecentKeyFilterTest {
+
+    @Test
+    @DisplayName("should report every added key as present")
+    void shouldHaveNoFalseNegatives() {
+        RecentKeyFilter filter = new RecentKeyFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("key-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("key-" + i), "key-" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("should keep the false-positive rate near its target")
+    void shouldKeepFalsePositiveRateNearTarget() {
+        RecentKeyFilter filter = new RecentKeyFilter(10_000, 0.01);
+        for (int i = 0; i < 9_999; i++) {
+            filter.add("key-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("should forget keys two generations old")
+    void shouldForgetOldGenerations() {
+        RecentKeyFilter filter = new RecentKeyFilter(100, 0.01);
+        filter.add("oldest");
+        for (int i = 0; i < 199; i++) {
+            filter.add("filler-" + i);
+        }
+
+        assertFalse(filter.mightContain("oldest"));
+        assertTrue(filter.mightContain("filler-198"));
+    }
+
+    @Test
+    @DisplayName("should size bits and hashes for the target rate")
+    void shouldSizeForTargetRate() {
+        RecentKeyFilter filter = new RecentKeyFilter(1_000, 0.01);
+
+        // ~9.6 bits and 7 hashes per key at 1%
+        assertEquals(9586, filter.bitCount(), 10);
+        assertEquals(7, filter.hashCount());
+    }
+}
@@ -0,0 +1,39 @@
+package com.bootstrap.workshop.observability;
+
+import com.bootstrap.workshop.dto.UserRegistrationRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ArgumentMasker")
+class ArgumentMaskerTest {
+
+    @Test
+    @DisplayName("should mask sensitive record components")
+    void shouldMaskSensitiveRecordComponents() {
+        UserRegistrationRequest request = new UserRegistrationRequest(
+                "user@example.com", "User", "s3cret-pass", "Bank", "ACC1", "Addr");
+
+        String formatted = ArgumentMasker.format(new String[] { "request" }, new Object[] { request });
+
+        assertFalse(formatted.contains("s3cret-pass"));
+        assertTrue(formatted.contains("password=" + ArgumentMasker.MASK));
+        assertTrue(formatted.contains("email=user@example.com"));
+    }
+
+    @Test
+    @DisplayName("should mask sensitive parameters by name")
+    void shouldMaskSensitiveParameters() {
+        String formatted = ArgumentMasker.format(
+                new String[] { "userId", "encodedPassword" }, new Object[] { 42L, "$2a$10$hash" });
+
+        assertEquals("[42, " + ArgumentMasker.MASK + "]", formatted);
+    }
+
+    @Test
+    @DisplayName("should print plain arguments when parameter names are unknown")
+    void shouldPrintPlainArgumentsWithoutNames() {
+        assertEquals("[1, null]", ArgumentMasker.format(null, new Object[] { 1, null }));
+    }
+}
@@ -0,0 +1,110 @@
+package com.bootstrap.workshop.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RingBufferAppender")
+class RingBufferAppenderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ILoggingEvent> written = new CopyOnWriteArrayList<>();
+    private RingBufferAppender appender;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        // Child that blocks until released, so the ring buffer fills up
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(event);
+            }
+        };
+        slow.setContext(context);
+        slow.start();
+
+        appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setRingBufferSize(4);
+        appender.addAppender(slow);
+        appender.start();
+
+        logger = context.getLogger(RingBufferAppenderTest.class.getName() + ".events");
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(Level.DEBUG);
+        logger.addAppender(appender);
+    }
+
+    @Test
+    @DisplayName("should drop INFO when full and deliver the rest")
+    void shouldDropInfoWhenFull() {
+        for (int i = 0; i < 20; i++) {
+            logger.info("event {}", i);
+        }
+
+        assertEquals(4, appender.queueDepth());
+        long dropped = appender.droppedCount();
+        assertTrue(dropped > 0);
+
+        release.countDown();
+        appender.stop();
+
+        assertEquals(20 - dropped, written.size());
+    }
+
+    @Test
+    @DisplayName("should wait for space instead of dropping WARN")
+    void shouldNeverDropWarn() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            logger.info("event {}", i);
+        }
+        Thread warner = Thread.ofPlatform().start(() -> logger.warn("must not be lost"));
+        assertFalse(warner.join(Duration.ofMillis(100)));
+
+        release.countDown();
+        assertTrue(warner.join(Duration.ofSeconds(5)));
+        appender.stop();
+
+        assertTrue(written.stream().anyMatch(e -> e.getLevel() == Level.WARN));
+        assertEquals(4, appender.droppedCount());
+    }
+
+    @Test
+    @DisplayName("should keep the MDC of the logging thread")
+    void shouldKeepMdc() {
+        MDC.put("traceId", "abc123");
+        try {
+            logger.info("traced");
+        } finally {
+            MDC.remove("traceId");
+        }
+
+        release.countDown();
+        appender.stop();
+
+        assertEquals("abc123", written.getFirst().getMDCPropertyMap().get("traceId"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.bootstrap.workshop.observability;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("VirtualThreadPinningMonitor")
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    @DisplayName("should tag the first frame outside the JDK")
+    void shouldTagFirstNonRuntimeFrame() {
+        List<String> frames = List.of(
+                "jdk.internal.misc.Unsafe.park",
+                "java.lang.VirtualThread.parkOnCarrierThread",
+                "java.lang.Object.wait",
+                "com.zaxxer.hikari.pool.HikariPool.getConnection",
+                "com.bootstrap.workshop.service.WalletService.deposit");
+
+        assertEquals("com.zaxxer.hikari.pool.HikariPool.getConnection",
+                VirtualThreadPinningMonitor.siteOf(frames));
+    }
+
+    @Test
+    @DisplayName("should fall back to the top frame when the stack is all JDK")
+    void shouldFallBackToTopFrame() {
+        List<String> frames = List.of("java.lang.Thread.sleep", "java.lang.VirtualThread.run");
+
+        assertEquals("java.lang.Thread.sleep", VirtualThreadPinningMonitor.siteOf(frames));
+    }
+
+    @Test
+    @DisplayName("should report unknown without a stack trace")
+    void shouldReportUnknownWithoutStack() {
+        assertEquals(VirtualThreadPinningMonitor.UNKNOWN_SITE, VirtualThreadPinningMonitor.siteOf(List.of()));
+    }
+}
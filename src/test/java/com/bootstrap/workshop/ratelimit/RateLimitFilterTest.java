@@ -0,0 +1,108 @@
+package com.bootstrap.workshop.ratelimit;
+
+import com.bootstrap.workshop.config.RateLimitProperties;
+import com.bootstrap.workshop.config.RateLimitProperties.KeyType;
+import com.bootstrap.workshop.config.RateLimitProperties.Policy;
+import com.bootstrap.workshop.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimitFilter")
+class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties(true, 1_000, List.of(
+                new Policy("transfer", "POST", "/api/v1/transactions", 2, 60_000, KeyType.USER),
+                new Policy("auth", null, "/api/v1/auth/**", 1, 60_000, KeyType.IP)));
+        filter = new RateLimitFilter(properties,
+                new InMemoryRateLimitStore(properties, meterRegistry, clock::get), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("should reject with 429 and Retry-After once a user's bucket is empty")
+    void shouldRejectWhenUserBucketEmpty() throws Exception {
+        authenticate(1L);
+
+        assertEquals(200, send("POST", "/api/v1/transactions").getStatus());
+        assertEquals(200, send("POST", "/api/v1/transactions").getStatus());
+        MockHttpServletResponse rejected = send("POST", "/api/v1/transactions");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("http.ratelimit.rejected").tag("policy", "transfer").counter().count());
+    }
+
+    @Test
+    @DisplayName("should keep separate buckets per user")
+    void shouldKeepSeparateBucketsPerUser() throws Exception {
+        authenticate(1L);
+        send("POST", "/api/v1/transactions");
+        send("POST", "/api/v1/transactions");
+
+        authenticate(2L);
+
+        assertEquals(200, send("POST", "/api/v1/transactions").getStatus());
+    }
+
+    @Test
+    @DisplayName("should key IP policies by client address")
+    void shouldKeyIpPoliciesByAddress() throws Exception {
+        assertEquals(200, send("POST", "/api/v1/auth/login").getStatus());
+        assertEquals(429, send("POST", "/api/v1/auth/login").getStatus());
+    }
+
+    @Test
+    @DisplayName("should pass through requests without a matching policy")
+    void shouldPassThroughUnmatched() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("GET", "/api/v1/transactions").getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("should match policies in order against precompiled path patterns")
+    void shouldMatchFirstPolicy() {
+        assertEquals("transfer", filter.policyFor("POST", "/api/v1/transactions").name());
+        assertEquals("auth", filter.policyFor("GET", "/api/v1/auth/login").name());
+        assertEquals("auth", filter.policyFor("POST", "/api/v1/auth").name());
+        assertNull(filter.policyFor("POST", "/api/v1/transactions/batch"));
+        assertNull(filter.policyFor("POST", "/api/v1/authx"));
+    }
+
+    private MockHttpServletResponse send(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, new MockFilterChain());
+        return response;
+    }
+
+    private void authenticate(Long userId) {
+        User user = new User("user" + userId + "@example.com", "User", null, "Bank", "ACC", "Addr");
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
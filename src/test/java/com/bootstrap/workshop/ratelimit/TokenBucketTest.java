@@ -0,0 +1,76 @@
+package com.bootstrap.workshop.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenBucket")
+class TokenBucketTest {
+
+    @Test
+    @DisplayName("should allow a burst up to capacity and then report the wait")
+    void shouldAllowBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 3_000, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(1_000, bucket.tryAcquire(0));
+        assertEquals(400, bucket.tryAcquire(600));
+    }
+
+    @Test
+    @DisplayName("should refill continuously without losing partial progress")
+    void shouldRefillContinuously() {
+        TokenBucket bucket = new TokenBucket(2, 2_000, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertTrue(bucket.tryAcquire(999) > 0);
+        assertEquals(0, bucket.tryAcquire(1_000));
+        assertTrue(bucket.tryAcquire(1_500) > 0);
+        assertEquals(0, bucket.tryAcquire(2_000));
+    }
+
+    @Test
+    @DisplayName("should not refill beyond capacity")
+    void shouldCapAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1_000, 0);
+        bucket.tryAcquire(0);
+
+        bucket.tryAcquire(60_000);
+
+        assertEquals(1, bucket.tokens());
+    }
+
+    @Test
+    @DisplayName("should hand out exactly capacity tokens under contention")
+    void shouldNotOverGrantUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(1_000, 60_000, 0);
+        AtomicInteger granted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> {
+                    for (int n = 0; n < 500; n++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(1_000, granted.get());
+    }
+}
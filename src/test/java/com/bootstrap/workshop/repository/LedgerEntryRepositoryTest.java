@@ -0,0 +1,97 @@
+package com.bootstrap.workshop.repository;
+
+import com.bootstrap.workshop.entity.LedgerEntry;
+import com.bootstrap.workshop.entity.LedgerEntryType;
+import com.bootstrap.workshop.entity.LedgerOperation;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.UserHasLedgerHistoryException;
+import com.bootstrap.workshop.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for LedgerEntryRepository.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class LedgerEntryRepositoryTest {
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @org.springframework.test.context.bean.override.mockito.MockitoBean(answers = org.mockito.Answers.RETURNS_DEEP_STUBS)
+    private io.micrometer.tracing.Tracer tracer;
+
+    @org.springframework.test.context.bean.override.mockito.MockitoBean(answers = org.mockito.Answers.RETURNS_DEEP_STUBS)
+    private io.micrometer.core.instrument.MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEntryRepository.deleteAll();
+        ledgerEntryRepository.saveAll(List.of(
+                new LedgerEntry(1L, LedgerEntryType.CREDIT, LedgerOperation.DEPOSIT, new BigDecimal("100.0000"), null),
+                new LedgerEntry(1L, LedgerEntryType.DEBIT, LedgerOperation.TRANSFER, new BigDecimal("30.0000"), 7L),
+                new LedgerEntry(2L, LedgerEntryType.CREDIT, LedgerOperation.TRANSFER, new BigDecimal("30.0000"), 7L)));
+        ledgerEntryRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Should sum wallet entries with debits negative")
+    void sumByWalletId() {
+        assertEquals(0, new BigDecimal("70").compareTo(ledgerEntryRepository.sumByWalletId(1L)));
+        assertEquals(0, new BigDecimal("30").compareTo(ledgerEntryRepository.sumByWalletId(2L)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerEntryRepository.sumByWalletId(99L)));
+    }
+
+    @Test
+    @DisplayName("Should only sum entries created since the given time")
+    void sumByWalletIdSince() {
+        BigDecimal sum = ledgerEntryRepository.sumByWalletIdSince(1L, LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(sum));
+    }
+
+    @Test
+    @DisplayName("Should sum the whole ledger")
+    void sumAll() {
+        assertEquals(0, new BigDecimal("100").compareTo(ledgerEntryRepository.sumAll()));
+    }
+
+    @Test
+    @DisplayName("Should keep a wallet's entries when its user is deleted")
+    void entriesSurviveUserDelete() {
+        User user = userRepository.save(new User("ledger@example.com", "Ledger User", "password123",
+                "Test Bank", "ACC123", "123 Test St"));
+        Wallet wallet = walletRepository.save(new Wallet("abc123def456789a", user));
+        ledgerEntryRepository.saveAndFlush(new LedgerEntry(wallet.getId(), LedgerEntryType.CREDIT,
+                LedgerOperation.DEPOSIT, new BigDecimal("25.0000"), null));
+
+        assertThrows(UserHasLedgerHistoryException.class, () -> userService.delete(user.getId()));
+
+        assertTrue(ledgerEntryRepository.existsByWalletId(wallet.getId()));
+        assertEquals(0, new BigDecimal("25").compareTo(ledgerEntryRepository.sumByWalletId(wallet.getId())));
+        assertTrue(userRepository.existsById(user.getId()));
+    }
+}
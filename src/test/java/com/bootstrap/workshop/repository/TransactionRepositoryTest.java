@@ -1,18 +1,24 @@
 package com.bootstrap.workshop.repository;
 
+import com.bootstrap.workshop.entity.IdempotencyKey;
 import com.bootstrap.workshop.entity.Transaction;
 import com.bootstrap.workshop.entity.TransactionStatus;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +35,12 @@ class TransactionRepositoryTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @org.springframework.test.context.bean.override.mockito.MockitoBean(answers = org.mockito.Answers.RETURNS_DEEP_STUBS)
     private io.micrometer.tracing.Tracer tracer;
 
@@ -39,6 +51,7 @@ class TransactionRepositoryTest {
 
     @BeforeEach
     void setUp() {
+        idempotencyKeyRepository.deleteAll();
         transactionRepository.deleteAll();
 
         testTransaction = new Transaction(
@@ -62,7 +75,7 @@ class TransactionRepositoryTest {
     @Test
     @DisplayName("should find transaction by idempotency key")
     void shouldFindTransactionByIdempotencyKey() {
-        transactionRepository.save(testTransaction);
+        saveWithKey(testTransaction);
 
         Optional<Transaction> found = transactionRepository.findByIdempotencyKey("idempotency-key-123");
 
@@ -73,7 +86,7 @@ class TransactionRepositoryTest {
     @Test
     @DisplayName("existsByIdempotencyKey should return true for existing key")
     void existsByIdempotencyKeyShouldReturnTrueForExistingKey() {
-        transactionRepository.save(testTransaction);
+        saveWithKey(testTransaction);
 
         assertTrue(transactionRepository.existsByIdempotencyKey("idempotency-key-123"));
     }
@@ -84,6 +97,48 @@ class TransactionRepositoryTest {
         assertFalse(transactionRepository.existsByIdempotencyKey("nonexistent-key"));
     }
 
+    @Test
+    @DisplayName("should find already-recorded transactions for a batch of keys")
+    void shouldFindTransactionsByIdempotencyKeyIn() {
+        saveWithKey(testTransaction);
+        saveWithKey(new Transaction("abc123def456789a", "xyz789ghi012345b", BigDecimal.ONE, "other-key"));
+
+        List<Transaction> found = transactionRepository.findByIdempotencyKeyIn(
+                List.of("idempotency-key-123", "unknown-key"));
+
+        assertEquals(1, found.size());
+        assertEquals("idempotency-key-123", found.getFirst().getIdempotencyKey());
+    }
+
+    @Test
+    @DisplayName("should reject a second registration of the same key")
+    void shouldRejectDuplicateKeyRegistration() {
+        saveWithKey(testTransaction);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            saveWithKey(new Transaction("abc123def456789a", "xyz789ghi012345b", BigDecimal.ONE,
+                    "idempotency-key-123"));
+            idempotencyKeyRepository.flush();
+        });
+    }
+
+    @Test
+    @DisplayName("should forget keys created before the cutoff, oldest first and in batches")
+    void shouldDeleteExpiredKeysInBatches() {
+        saveWithKey(testTransaction);
+        saveWithKey(new Transaction("abc123def456789a", "xyz789ghi012345b", BigDecimal.ONE, "key-2"));
+        saveWithKey(new Transaction("abc123def456789a", "xyz789ghi012345b", BigDecimal.ONE, "key-3"));
+        idempotencyKeyRepository.flush();
+        LocalDateTime cutoff = LocalDateTime.now().plusSeconds(1);
+
+        assertEquals(2, idempotencyKeyRepository.deleteCreatedBefore(cutoff, 2));
+        assertEquals(1, idempotencyKeyRepository.deleteCreatedBefore(cutoff, 2));
+        assertFalse(transactionRepository.existsByIdempotencyKey("idempotency-key-123"));
+        assertTrue(transactionRepository.findByIdempotencyKey("key-3").isEmpty());
+    }
+
     @Test
     @DisplayName("should find transactions by wallet address (sender)")
     void shouldFindTransactionsByWalletAddressSender() {
@@ -125,6 +180,66 @@ class TransactionRepositoryTest {
         assertEquals(2, page.getTotalPages());
     }
 
+    @Test
+    @DisplayName("should walk wallet history by keyset without gaps or duplicates")
+    void shouldWalkWalletHistoryByKeyset() {
+        for (int i = 0; i < 5; i++) {
+            boolean sent = i % 2 == 0;
+            transactionRepository.save(new Transaction(
+                    sent ? "abc123def456789a" : "xyz789ghi012345b",
+                    sent ? "xyz789ghi012345b" : "abc123def456789a",
+                    BigDecimal.valueOf(10 + i),
+                    "key-" + i));
+        }
+        transactionRepository.save(new Transaction(
+                "def456ghi789012c", "xyz789ghi012345b", BigDecimal.ONE, "key-other"));
+        transactionRepository.flush();
+
+        List<Transaction> first = transactionRepository.findHistoryFirstPage("abc123def456789a", 2);
+        Transaction last = first.getLast();
+        List<Transaction> second = transactionRepository.findHistoryAfter(
+                "abc123def456789a", last.getTimestamp(), last.getId(), 2);
+        last = second.getLast();
+        List<Transaction> third = transactionRepository.findHistoryAfter(
+                "abc123def456789a", last.getTimestamp(), last.getId(), 2);
+
+        List<Long> walked = new ArrayList<>();
+        List.of(first, second, third).forEach(page -> page.forEach(tx -> walked.add(tx.getId())));
+        List<Long> expected = transactionRepository.findByWalletAddress("abc123def456789a").stream()
+                .sorted(Comparator.comparing(Transaction::getTimestamp)
+                        .thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+
+        assertEquals(List.of(2, 2, 1), List.of(first.size(), second.size(), third.size()));
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    @DisplayName("should return a rejected self-transfer once when walking history by keyset")
+    void shouldReturnSelfTransferOnceByKeyset() {
+        transactionRepository.save(new Transaction(
+                "abc123def456789a", "xyz789ghi012345b", BigDecimal.ONE, "key-out"));
+        Transaction self = new Transaction(
+                "abc123def456789a", "abc123def456789a", BigDecimal.TEN, "key-self");
+        self.markFailed("Cannot transfer to the same wallet");
+        transactionRepository.save(self);
+        transactionRepository.save(new Transaction(
+                "xyz789ghi012345b", "abc123def456789a", BigDecimal.TWO, "key-in"));
+        transactionRepository.flush();
+
+        List<Transaction> first = transactionRepository.findHistoryFirstPage("abc123def456789a", 2);
+        Transaction last = first.getLast();
+        List<Transaction> second = transactionRepository.findHistoryAfter(
+                "abc123def456789a", last.getTimestamp(), last.getId(), 2);
+
+        List<Long> walked = new ArrayList<>();
+        List.of(first, second).forEach(page -> page.forEach(tx -> walked.add(tx.getId())));
+        assertEquals(List.of(2, 1), List.of(first.size(), second.size()));
+        assertEquals(3, walked.stream().distinct().count());
+        assertEquals(1, walked.stream().filter(self.getId()::equals).count());
+    }
+
     @Test
     @DisplayName("should find transactions by status")
     void shouldFindTransactionsByStatus() {
@@ -169,4 +284,11 @@ class TransactionRepositoryTest {
 
         assertEquals(3, found.size());
     }
+
+    private Transaction saveWithKey(Transaction transaction) {
+        Transaction saved = transactionRepository.save(transaction);
+        idempotencyKeyRepository.save(new IdempotencyKey(
+                saved.getIdempotencyKey(), saved.getId(), saved.getTimestamp()));
+        return saved;
+    }
 }
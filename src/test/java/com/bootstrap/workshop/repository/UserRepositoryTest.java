@@ -10,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -90,6 +91,16 @@ class UserRepositoryTest {
         assertFalse(userRepository.existsByEmail("nonexistent@example.com"));
     }
 
+    @Test
+    @DisplayName("findEmailsIn should return only the registered emails")
+    void findEmailsInShouldReturnRegisteredEmails() {
+        userRepository.save(testUser);
+
+        List<String> registered = userRepository.findEmailsIn(List.of("test@example.com", "new@example.com"));
+
+        assertEquals(List.of("test@example.com"), registered);
+    }
+
     @Test
     @DisplayName("should set createdAt on persist")
     void shouldSetCreatedAtOnPersist() {
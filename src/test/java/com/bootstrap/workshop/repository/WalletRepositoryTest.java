@@ -11,6 +11,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -129,4 +130,21 @@ class WalletRepositoryTest {
 
         assertTrue(found.isPresent());
     }
+
+    @Test
+    @DisplayName("findTransferWalletsForUpdate should return sender and recipient ordered by id")
+    @org.junit.jupiter.api.Disabled("H2 doesn't support PostgreSQL FOR NO KEY UPDATE - test with PostgreSQL")
+    void findTransferWalletsForUpdateShouldReturnBothWalletsInIdOrder() {
+        Wallet sender = walletRepository.save(testWallet);
+
+        User recipientUser = userRepository.save(new User(
+                "recipient@example.com", "Recipient", "password123", "Test Bank", "ACC456", "456 Test St"));
+        Wallet recipient = walletRepository.save(new Wallet("fedcba9876543210", recipientUser));
+
+        List<Wallet> locked = walletRepository.findTransferWalletsForUpdate(testUser.getId(), "fedcba9876543210");
+
+        assertEquals(2, locked.size());
+        assertEquals(sender.getId(), locked.get(0).getId());
+        assertEquals(recipient.getId(), locked.get(1).getId());
+    }
 }
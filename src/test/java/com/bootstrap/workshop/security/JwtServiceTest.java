@@ -0,0 +1,64 @@
+package com.bootstrap.workshop.security;
+
+import com.bootstrap.workshop.config.JwtProperties;
+import com.bootstrap.workshop.entity.Role;
+import com.bootstrap.workshop.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtService")
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-for-jwt-testing-must-be-at-least-32-chars";
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new JwtProperties(SECRET, 60_000, null));
+        user = new User("jwt@example.com", "Jwt", "pass", "Bank", "ACC", "Addr");
+        user.setId(7L);
+        user.setRole(Role.ADMIN);
+    }
+
+    @Test
+    @DisplayName("should verify a token into typed claims")
+    void shouldVerifyIntoTypedClaims() {
+        String token = jwtService.generateToken(user);
+
+        Optional<JwtClaims> claims = jwtService.verify(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals(7L, claims.get().userId());
+        assertEquals("jwt@example.com", claims.get().email());
+        assertEquals("ADMIN", claims.get().role());
+        assertEquals(claims, jwtService.verify(token));
+    }
+
+    @Test
+    @DisplayName("should reject tampered tokens and tokens signed with another key")
+    void shouldRejectInvalidTokens() {
+        String token = jwtService.generateToken(user);
+        JwtService other = new JwtService(new JwtProperties(SECRET.replace('t', 'x'), 60_000, 0));
+
+        assertTrue(jwtService.verify(token.substring(0, token.length() - 2) + "xx").isEmpty());
+        assertTrue(other.verify(token).isEmpty());
+        assertTrue(jwtService.verify("not-a-jwt").isEmpty());
+    }
+
+    @Test
+    @DisplayName("should keep the legacy single-claim accessors working")
+    void shouldKeepLegacyAccessors() {
+        String token = jwtService.generateToken(user);
+
+        assertTrue(jwtService.validateToken(token));
+        assertEquals(7L, jwtService.extractUserId(token));
+        assertEquals("ADMIN", jwtService.extractRole(token));
+    }
+}
@@ -0,0 +1,62 @@
+package com.bootstrap.workshop.security;
+
+import com.bootstrap.workshop.config.JwtProperties;
+import com.bootstrap.workshop.config.PrincipalProperties;
+import com.bootstrap.workshop.entity.Role;
+import com.bootstrap.workshop.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PrincipalCache")
+class PrincipalCacheTest {
+
+    private PrincipalCache cache;
+    private AtomicInteger loads;
+    private Function<Long, User> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache(
+                new PrincipalProperties(null, 100, 60_000),
+                new JwtProperties("secret", 3_600_000, null),
+                new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            User user = new User("user@example.com", "User", "hashed", "Bank", "ACC", "Addr");
+            user.setId(id);
+            user.setRole(Role.ADMIN);
+            return user;
+        };
+    }
+
+    @Test
+    @DisplayName("should load once and cache a password-less copy")
+    void shouldCachePasswordlessCopy() {
+        cache.get(1L, loader);
+        User principal = cache.get(1L, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, principal.getId());
+        assertEquals(Role.ADMIN, principal.getRole());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    @DisplayName("should reload after eviction")
+    void shouldReloadAfterEviction() {
+        cache.get(1L, loader);
+
+        cache.evictAfterCommit(1L);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
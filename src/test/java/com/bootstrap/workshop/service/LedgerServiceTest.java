@@ -0,0 +1,173 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.entity.LedgerEntry;
+import com.bootstrap.workshop.entity.LedgerEntryType;
+import com.bootstrap.workshop.entity.LedgerOperation;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.entity.WalletBalanceSnapshot;
+import com.bootstrap.workshop.repository.LedgerEntryRepository;
+import com.bootstrap.workshop.repository.WalletBalanceBucketRepository;
+import com.bootstrap.workshop.repository.WalletBalanceSnapshotRepository;
+import com.bootstrap.workshop.repository.WalletRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerService")
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private WalletBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private WalletBalanceBucketRepository bucketRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("ledger@example.com", "Ledger", "pass", "Bank", "ACC", "Addr");
+        user.setId(1L);
+        wallet = new Wallet("abc123def4567890", user);
+        wallet.setId(5L);
+    }
+
+    @Test
+    @DisplayName("should record a transfer as one debit and one credit")
+    @SuppressWarnings("unchecked")
+    void shouldRecordTransferAsDebitAndCredit() {
+        ledgerService.recordTransfer(10L, 1L, 2L, BigDecimal.TEN);
+
+        ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(captor.capture());
+        List<LedgerEntry> entries = captor.getValue();
+
+        assertEquals(2, entries.size());
+        assertEquals(LedgerEntryType.DEBIT, entries.get(0).getEntryType());
+        assertEquals(1L, entries.get(0).getWalletId());
+        assertEquals(LedgerEntryType.CREDIT, entries.get(1).getEntryType());
+        assertEquals(2L, entries.get(1).getWalletId());
+        assertTrue(entries.stream().allMatch(e -> e.getOperation() == LedgerOperation.TRANSFER
+                && e.getTransactionId() == 10L));
+        assertEquals(0, entries.get(0).signedAmount().add(entries.get(1).signedAmount()).signum());
+    }
+
+    @Nested
+    @DisplayName("balanceOf()")
+    class BalanceOf {
+
+        @Test
+        @DisplayName("should add entries since the latest snapshot")
+        void shouldAddEntriesSinceLatestSnapshot() {
+            LocalDateTime coveredUntil = LocalDateTime.now().minusMinutes(5);
+            when(walletRepository.findByAddress("abc123def4567890")).thenReturn(Optional.of(wallet));
+            when(snapshotRepository.findFirstByWalletIdOrderByCoveredUntilDesc(5L))
+                    .thenReturn(Optional.of(new WalletBalanceSnapshot(5L, BigDecimal.valueOf(100), coveredUntil)));
+            when(ledgerEntryRepository.sumByWalletIdSince(5L, coveredUntil)).thenReturn(BigDecimal.valueOf(-30));
+
+            assertEquals(BigDecimal.valueOf(70), ledgerService.balanceOf("abc123def4567890"));
+        }
+
+        @Test
+        @DisplayName("should sum all entries when there is no snapshot")
+        void shouldSumAllEntriesWithoutSnapshot() {
+            when(walletRepository.findByAddress("abc123def4567890")).thenReturn(Optional.of(wallet));
+            when(snapshotRepository.findFirstByWalletIdOrderByCoveredUntilDesc(5L)).thenReturn(Optional.empty());
+            when(ledgerEntryRepository.sumByWalletId(5L)).thenReturn(BigDecimal.valueOf(42));
+
+            assertEquals(BigDecimal.valueOf(42), ledgerService.balanceOf("abc123def4567890"));
+        }
+    }
+
+    @Nested
+    @DisplayName("snapshotBalances()")
+    class SnapshotBalances {
+
+        @Test
+        @DisplayName("should roll forward from the previous cutoff")
+        void shouldRollForwardFromPreviousCutoff() {
+            LocalDateTime previous = LocalDateTime.now().minusMinutes(10);
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(1);
+            when(snapshotRepository.tryAdvisoryXactLock(LedgerService.SNAPSHOT_LOCK_KEY)).thenReturn(true);
+            when(snapshotRepository.findLatestCoveredUntil()).thenReturn(Optional.of(previous));
+            when(snapshotRepository.rollForward(previous, cutoff)).thenReturn(3);
+
+            assertEquals(3, ledgerService.snapshotBalances(cutoff));
+        }
+
+        @Test
+        @DisplayName("should skip when another instance holds the lock")
+        void shouldSkipWhenLocked() {
+            when(snapshotRepository.tryAdvisoryXactLock(LedgerService.SNAPSHOT_LOCK_KEY)).thenReturn(false);
+
+            assertEquals(-1, ledgerService.snapshotBalances(LocalDateTime.now()));
+            verify(snapshotRepository, never()).rollForward(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile()")
+    class Reconcile {
+
+        @Test
+        @DisplayName("should report balanced when wallet and ledger totals match")
+        void shouldReportBalanced() {
+            when(walletRepository.sumBalances()).thenReturn(BigDecimal.valueOf(900));
+            when(bucketRepository.sumAll()).thenReturn(BigDecimal.valueOf(100));
+            when(ledgerEntryRepository.sumAll()).thenReturn(new BigDecimal("1000.0000"));
+
+            LedgerService.Reconciliation result = ledgerService.reconcile();
+
+            assertTrue(result.balanced());
+            verify(ledgerEntryRepository, never()).findMismatchedWalletIds(anyInt());
+        }
+
+        @Test
+        @DisplayName("should list mismatched wallets when totals differ")
+        void shouldListMismatchedWallets() {
+            when(walletRepository.sumBalances()).thenReturn(BigDecimal.valueOf(1000));
+            when(bucketRepository.sumAll()).thenReturn(BigDecimal.ZERO);
+            when(ledgerEntryRepository.sumAll()).thenReturn(BigDecimal.valueOf(990));
+            when(ledgerEntryRepository.findMismatchedWalletIds(anyInt())).thenReturn(List.of(5L));
+
+            LedgerService.Reconciliation result = ledgerService.reconcile();
+
+            assertFalse(result.balanced());
+            assertEquals(BigDecimal.valueOf(10), result.difference());
+            assertEquals(List.of(5L), result.mismatchedWalletIds());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.OutboxProperties;
+import com.bootstrap.workshop.entity.OutboxEvent;
+import com.bootstrap.workshop.entity.OutboxEventType;
+import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.outbox.InMemoryOutboxSink;
+import com.bootstrap.workshop.outbox.OutboxEvents;
+import com.bootstrap.workshop.outbox.OutboxSink;
+import com.bootstrap.workshop.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxService")
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final InMemoryOutboxSink sink = new InMemoryOutboxSink(100);
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = service(true, sink);
+    }
+
+    @Test
+    @DisplayName("should record a completed transfer with both addresses and the transaction id")
+    void shouldRecordCompletedTransfer() {
+        Transaction transaction = new Transaction("abc123def4567890", "fed321cba0987654", BigDecimal.TEN, "key");
+        transaction.setId(42L);
+        transaction.markSuccess();
+
+        outboxService.recordTransfer(transaction);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertEquals(OutboxEventType.TRANSFER_COMPLETED, event.getEventType());
+        assertEquals("abc123def4567890", event.getWalletAddress());
+        assertEquals("fed321cba0987654", event.getCounterpartyAddress());
+        assertEquals(42L, event.getReferenceId());
+    }
+
+    @Test
+    @DisplayName("should record a failed transfer as TRANSFER_FAILED")
+    void shouldRecordFailedTransfer() {
+        Transaction transaction = new Transaction("abc123def4567890", "fed321cba0987654", BigDecimal.TEN, "key");
+        transaction.markFailed("Insufficient balance");
+
+        outboxService.recordTransfer(transaction);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        assertEquals(OutboxEventType.TRANSFER_FAILED, captor.getValue().getEventType());
+    }
+
+    @Test
+    @DisplayName("should not write events when the outbox is disabled")
+    void shouldNotWriteWhenDisabled() {
+        service(false, sink).recordDeposit("abc123def4567890", BigDecimal.TEN);
+
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should publish a locked batch and mark it published")
+    @SuppressWarnings("unchecked")
+    void shouldPublishAndMarkBatch() {
+        List<OutboxEvent> batch = List.of(event(1L), event(2L));
+        when(outboxEventRepository.lockUnpublished(2)).thenReturn(batch);
+
+        int published = outboxService.relayBatch();
+
+        assertEquals(2, published);
+        assertEquals(batch, sink.events());
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository).markPublished(ids.capture(), any(LocalDateTime.class));
+        assertEquals(List.of(1L, 2L), ids.getValue());
+    }
+
+    @Test
+    @DisplayName("should leave the batch unpublished when the sink fails")
+    void shouldLeaveBatchWhenSinkFails() {
+        OutboxSink failing = events -> {
+            throw new IllegalStateException("broker down");
+        };
+        when(outboxEventRepository.lockUnpublished(anyInt())).thenReturn(List.of(event(1L)));
+
+        assertThrows(IllegalStateException.class, () -> service(true, failing).relayBatch());
+
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("should not touch the sink when nothing is pending")
+    void shouldSkipEmptyBatch() {
+        when(outboxEventRepository.lockUnpublished(anyInt())).thenReturn(List.of());
+
+        assertEquals(0, outboxService.relayBatch());
+
+        assertTrue(sink.events().isEmpty());
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    @DisplayName("should serialize only the fields set for the event type")
+    void shouldSerializeCompactJson() {
+        String json = OutboxEvents.toJson(event(7L));
+
+        assertTrue(json.startsWith("{\"id\":7,\"type\":\"WALLET_DEPOSITED\",\"wallet\":\"abc123def4567890\""));
+        assertTrue(json.contains("\"amount\":\"10\""));
+        assertFalse(json.contains("counterparty"));
+        assertFalse(json.contains("reference"));
+    }
+
+    private OutboxService service(boolean enabled, OutboxSink outboxSink) {
+        OutboxProperties properties = new OutboxProperties(
+                enabled, OutboxProperties.SinkType.MEMORY, null, 0, 2, 0, 0, 0);
+        return new OutboxService(outboxEventRepository, properties, outboxSink, new SimpleMeterRegistry());
+    }
+
+    private OutboxEvent event(Long id) {
+        OutboxEvent event = new OutboxEvent(OutboxEventType.WALLET_DEPOSITED, "abc123def4567890", null,
+                BigDecimal.TEN, null);
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+}
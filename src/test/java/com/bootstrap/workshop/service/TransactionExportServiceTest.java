@@ -0,0 +1,128 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.exception.UnsupportedExportFormatException;
+import com.bootstrap.workshop.repository.TransactionRepository;
+import com.bootstrap.workshop.repository.WalletRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionExportService")
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TransactionExportService exportService;
+
+    @Test
+    @DisplayName("should stream CSV with a header")
+    void shouldStreamCsv() throws Exception {
+        Transaction first = transaction(2L, null);
+        Transaction second = transaction(1L, "Insufficient balance, \"retry\"");
+        when(transactionRepository.findHistoryFirstPage("sender1234567890", 500)).thenReturn(List.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export("sender1234567890", TransactionExportFormat.CSV, out);
+
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,fromWalletAddress"));
+        assertEquals("2,sender1234567890,receiver12345678,10.5000,SUCCESS,2026-01-01T12:00,key-2,", lines[1]);
+        assertTrue(lines[2].endsWith(",\"Insufficient balance, \"\"retry\"\"\""));
+        verify(transactionRepository, never()).findHistoryAfter(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should page by keyset after a full page and clear the persistence context")
+    void shouldPageByKeyset() throws Exception {
+        List<Transaction> fullPage = LongStream.rangeClosed(1, 500)
+                .mapToObj(i -> transaction(1000 - i, null))
+                .toList();
+        Transaction last = fullPage.getLast();
+        when(transactionRepository.findHistoryFirstPage("sender1234567890", 500)).thenReturn(fullPage);
+        when(transactionRepository.findHistoryAfter("sender1234567890", last.getTimestamp(), last.getId(), 500))
+                .thenReturn(List.of(transaction(1L, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export("sender1234567890", TransactionExportFormat.NDJSON, out);
+
+        assertEquals(501, rows);
+        assertEquals(501, out.toString(StandardCharsets.UTF_8).split("\n").length);
+        verify(entityManager).clear();
+        // One short read-only transaction per page, none around the whole export
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("should write one JSON object per line")
+    void shouldStreamNdjson() throws Exception {
+        when(transactionRepository.findHistoryFirstPage("sender1234567890", 500))
+                .thenReturn(List.of(transaction(1L, "line\nbreak")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export("sender1234567890", TransactionExportFormat.NDJSON, out);
+
+        assertEquals("{\"id\":1,\"fromWalletAddress\":\"sender1234567890\",\"toWalletAddress\":\"receiver12345678\","
+                + "\"amount\":10.5000,\"status\":\"SUCCESS\",\"timestamp\":\"2026-01-01T12:00\","
+                + "\"idempotencyKey\":\"key-1\",\"errorMessage\":\"line\\nbreak\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("should reject unknown formats")
+    void shouldRejectUnknownFormat() {
+        assertEquals(TransactionExportFormat.NDJSON, TransactionExportFormat.of("NDJson"));
+        assertThrows(UnsupportedExportFormatException.class, () -> TransactionExportFormat.of("xml"));
+    }
+
+    private Transaction transaction(Long id, String errorMessage) {
+        Transaction transaction = new Transaction("sender1234567890", "receiver12345678",
+                new BigDecimal("10.5000"), "key-" + id);
+        transaction.setId(id);
+        transaction.markSuccess();
+        transaction.setErrorMessage(errorMessage);
+        ReflectionTestUtils.setField(transaction, "timestamp", LocalDateTime.of(2026, 1, 1, 12, 0));
+        return transaction;
+    }
+}
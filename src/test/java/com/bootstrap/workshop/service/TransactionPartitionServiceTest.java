@@ -0,0 +1,76 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.PartitionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionPartitionService")
+class TransactionPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private PartitionProperties partitionProperties = new PartitionProperties(true, 2, 12, "archive");
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TransactionPartitionService partitionService;
+
+    @Test
+    @DisplayName("should create the current month and the configured months ahead")
+    void shouldCreateUpcomingPartitions() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(LocalDate.class)))
+                .thenReturn("transactions_p202610", "transactions_p202611", "transactions_p202612");
+
+        List<String> partitions = partitionService.createUpcomingPartitions(YearMonth.of(2026, 10));
+
+        assertEquals(List.of("transactions_p202610", "transactions_p202611", "transactions_p202612"), partitions);
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class), eq(LocalDate.of(2026, 12, 1)));
+    }
+
+    @Test
+    @DisplayName("should archive only partitions older than the retention window")
+    void shouldArchiveExpiredPartitions() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("transactions_p202509", "transactions_p202510", "transactions_p202611"));
+
+        List<String> archived = partitionService.archiveExpiredPartitions(YearMonth.of(2026, 10));
+
+        assertEquals(List.of("transactions_p202509"), archived);
+        verify(jdbcTemplate).execute("ALTER TABLE transactions DETACH PARTITION transactions_p202509");
+        verify(jdbcTemplate).execute("ALTER TABLE transactions_p202509 SET SCHEMA archive");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE transactions DETACH PARTITION transactions_p202510");
+        assertEquals(1.0, meterRegistry.counter("business.partition.archived").count());
+    }
+
+    @Test
+    @DisplayName("should parse the month from partition names")
+    void shouldParseMonthFromPartitionName() {
+        assertEquals(Optional.of(YearMonth.of(2026, 1)), TransactionPartitionService.monthOf("transactions_p202601"));
+        assertTrue(TransactionPartitionService.monthOf("transactions_p202613").isEmpty());
+        assertTrue(TransactionPartitionService.monthOf("transactions_default").isEmpty());
+    }
+}
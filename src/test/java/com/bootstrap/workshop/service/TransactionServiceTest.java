@@ -1,14 +1,21 @@
 package com.bootstrap.workshop.service;
 
+import com.bootstrap.workshop.config.IdempotencyProperties;
+import com.bootstrap.workshop.config.RetryProperties;
+import com.bootstrap.workshop.dto.BulkTransferResponse;
+import com.bootstrap.workshop.dto.TransactionPageResponse;
 import com.bootstrap.workshop.dto.TransactionRequest;
 import com.bootstrap.workshop.dto.TransactionResponse;
 import com.bootstrap.workshop.entity.Transaction;
 import com.bootstrap.workshop.entity.TransactionStatus;
 import com.bootstrap.workshop.entity.User;
 import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.InvalidCursorException;
 import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.idempotency.IdempotencyCache;
 import com.bootstrap.workshop.repository.TransactionRepository;
 import com.bootstrap.workshop.repository.WalletRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,7 +23,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.CannotSerializeTransactionException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -25,6 +37,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,19 +51,18 @@ class TransactionServiceTest {
         private WalletRepository walletRepository;
 
         @Mock
-        private io.micrometer.core.instrument.MeterRegistry meterRegistry;
+        private TransferProcessor transferProcessor;
 
-        @Mock
-        private io.micrometer.core.instrument.MeterRegistry.Config registryConfig;
+        @Spy
+        private TransactionRetryExecutor retryExecutor = new TransactionRetryExecutor(
+                        new RetryProperties(3, 1, 1, 1.0), new SimpleMeterRegistry());
 
         @Mock
-        private io.micrometer.core.instrument.Clock clock;
+        private TransferBatcher transferBatcher;
 
-        @Mock
-        private io.micrometer.core.instrument.Timer timer;
-
-        @Mock
-        private io.micrometer.core.instrument.Counter counter;
+        @Spy
+        private IdempotencyCache idempotencyCache = new IdempotencyCache(
+                        new IdempotencyProperties(false, 0, 0, 0, 0, 0, 0, 0), new SimpleMeterRegistry());
 
         @InjectMocks
         private TransactionService transactionService;
@@ -63,15 +75,6 @@ class TransactionServiceTest {
 
         @BeforeEach
         void setUp() {
-                // Mock MeterRegistry for Timer.start()
-                lenient().when(meterRegistry.config()).thenReturn(registryConfig);
-                lenient().when(registryConfig.clock()).thenReturn(clock);
-                lenient().when(clock.monotonicTime()).thenReturn(System.nanoTime());
-
-                // Mock Timer and Counter
-                lenient().when(meterRegistry.timer(anyString())).thenReturn(timer);
-                lenient().when(meterRegistry.counter(anyString(), anyString(), anyString())).thenReturn(counter);
-
                 senderUser = new User("sender@example.com", "Sender", "pass", "Bank", "ACC1", "Addr");
                 senderUser.setId(1L);
 
@@ -97,143 +100,174 @@ class TransactionServiceTest {
         class Transfer {
 
                 @Test
-                @DisplayName("should successfully transfer money between wallets")
-                void shouldSuccessfullyTransferMoney() {
-                        when(transactionRepository.findByIdempotencyKey("idempotency-key-123"))
-                                        .thenReturn(Optional.empty());
-                        when(walletRepository.findByUserIdForUpdate(1L))
-                                        .thenReturn(Optional.of(senderWallet));
-                        when(walletRepository.findByAddressForUpdate("receiver12345678"))
-                                        .thenReturn(Optional.of(receiverWallet));
-                        when(walletRepository.save(any(Wallet.class)))
-                                        .thenAnswer(inv -> inv.getArgument(0));
-                        when(transactionRepository.save(any(Transaction.class)))
-                                        .thenAnswer(inv -> {
-                                                Transaction t = inv.getArgument(0);
-                                                t.setId(1L);
-                                                return t;
-                                        });
+                @DisplayName("should delegate to TransferProcessor")
+                void shouldDelegateToTransferProcessor() {
+                        TransactionResponse expected = successResponse();
+                        when(transferProcessor.transfer(1L, transferRequest)).thenReturn(expected);
 
                         TransactionResponse response = transactionService.transfer(1L, transferRequest);
 
-                        assertNotNull(response);
-                        assertEquals(TransactionStatus.SUCCESS, response.status());
-                        assertEquals(BigDecimal.valueOf(200), response.amount());
+                        assertSame(expected, response);
+                        verify(transferProcessor, times(1)).transfer(1L, transferRequest);
+                }
 
-                        // Verify balances updated
-                        assertEquals(BigDecimal.valueOf(800), senderWallet.getBalance());
-                        assertEquals(BigDecimal.valueOf(700), receiverWallet.getBalance());
+                @Test
+                @DisplayName("should retry on deadlock and return the retried result")
+                void shouldRetryOnDeadlock() {
+                        TransactionResponse expected = successResponse();
+                        when(transferProcessor.transfer(1L, transferRequest))
+                                        .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                                        .thenReturn(expected);
 
-                        verify(walletRepository, times(2)).save(any(Wallet.class));
-                        verify(transactionRepository).save(any(Transaction.class));
+                        TransactionResponse response = transactionService.transfer(1L, transferRequest);
+
+                        assertSame(expected, response);
+                        verify(transferProcessor, times(2)).transfer(1L, transferRequest);
                 }
 
                 @Test
-                @DisplayName("should return existing transaction for duplicate idempotency key")
-                void shouldReturnExistingTransactionForDuplicateKey() {
-                        Transaction existingTransaction = new Transaction(
-                                        "sender1234567890",
-                                        "receiver12345678",
-                                        BigDecimal.valueOf(200),
-                                        "idempotency-key-123");
-                        existingTransaction.setId(99L);
-                        existingTransaction.markSuccess();
-
-                        when(transactionRepository.findByIdempotencyKey("idempotency-key-123"))
-                                        .thenReturn(Optional.of(existingTransaction));
+                @DisplayName("should give up after max attempts")
+                void shouldGiveUpAfterMaxAttempts() {
+                        when(transferProcessor.transfer(1L, transferRequest))
+                                        .thenThrow(new CannotSerializeTransactionException("could not serialize"));
 
-                        TransactionResponse response = transactionService.transfer(1L, transferRequest);
+                        assertThrows(CannotSerializeTransactionException.class,
+                                        () -> transactionService.transfer(1L, transferRequest));
+
+                        verify(transferProcessor, times(3)).transfer(1L, transferRequest);
+                }
 
-                        assertEquals(99L, response.id());
-                        assertEquals(TransactionStatus.SUCCESS, response.status());
+                @Test
+                @DisplayName("should not retry business failures")
+                void shouldNotRetryBusinessFailures() {
+                        when(transferProcessor.transfer(1L, transferRequest))
+                                        .thenThrow(new WalletNotFoundException(1L));
+
+                        assertThrows(WalletNotFoundException.class,
+                                        () -> transactionService.transfer(1L, transferRequest));
 
-                        // Verify no new transaction created
-                        verify(walletRepository, never()).findByUserIdForUpdate(any());
-                        verify(transactionRepository, never()).save(any());
+                        verify(transferProcessor, times(1)).transfer(1L, transferRequest);
                 }
 
                 @Test
-                @DisplayName("should fail transfer for insufficient balance")
-                void shouldFailTransferForInsufficientBalance() {
-                        TransactionRequest largeRequest = new TransactionRequest(
-                                        "receiver12345678",
-                                        BigDecimal.valueOf(5000), // More than available
-                                        "idempotency-key-456");
-
-                        when(transactionRepository.findByIdempotencyKey("idempotency-key-456"))
-                                        .thenReturn(Optional.empty());
-                        when(walletRepository.findByUserIdForUpdate(1L))
-                                        .thenReturn(Optional.of(senderWallet));
-                        when(walletRepository.findByAddressForUpdate("receiver12345678"))
-                                        .thenReturn(Optional.of(receiverWallet));
-                        when(transactionRepository.save(any(Transaction.class)))
-                                        .thenAnswer(inv -> {
-                                                Transaction t = inv.getArgument(0);
-                                                t.setId(1L);
-                                                return t;
-                                        });
-
-                        TransactionResponse response = transactionService.transfer(1L, largeRequest);
-
-                        assertEquals(TransactionStatus.FAILED, response.status());
-                        assertEquals("Insufficient balance", response.errorMessage());
-
-                        // Verify balances NOT updated
-                        assertEquals(BigDecimal.valueOf(1000), senderWallet.getBalance());
-                        verify(walletRepository, never()).save(any());
+                @DisplayName("should route through the batcher when batching is enabled")
+                void shouldRouteThroughBatcherWhenEnabled() {
+                        TransactionResponse expected = successResponse();
+                        when(transferBatcher.enabled()).thenReturn(true);
+                        when(transferBatcher.transfer(1L, transferRequest)).thenReturn(expected);
+
+                        TransactionResponse response = transactionService.transfer(1L, transferRequest);
+
+                        assertSame(expected, response);
+                        verify(transferProcessor, never()).transfer(any(), any());
+                }
+
+                private TransactionResponse successResponse() {
+                        return new TransactionResponse(
+                                        1L, "sender1234567890", "receiver12345678",
+                                        BigDecimal.valueOf(200), TransactionStatus.SUCCESS,
+                                        LocalDateTime.now(), "idempotency-key-123", null);
+                }
+        }
+
+        @Nested
+        @DisplayName("transfer() with the idempotency fast path")
+        class TransferFastPath {
+
+                private TransactionService fastPathService;
+
+                @BeforeEach
+                void setUp() {
+                        IdempotencyCache enabledCache = new IdempotencyCache(
+                                        new IdempotencyProperties(true, 1000, 0.01, 100, 60_000, 0, 0, 0),
+                                        new SimpleMeterRegistry());
+                        fastPathService = new TransactionService(transactionRepository, walletRepository,
+                                        transferProcessor, retryExecutor, transferBatcher, enabledCache);
                 }
 
                 @Test
-                @DisplayName("should fail transfer to same wallet")
-                void shouldFailTransferToSameWallet() {
-                        TransactionRequest selfTransfer = new TransactionRequest(
-                                        "sender1234567890", // Same as sender
-                                        BigDecimal.valueOf(100),
-                                        "idempotency-key-789");
-
-                        when(transactionRepository.findByIdempotencyKey("idempotency-key-789"))
-                                        .thenReturn(Optional.empty());
-                        when(walletRepository.findByUserIdForUpdate(1L))
-                                        .thenReturn(Optional.of(senderWallet));
-                        when(walletRepository.findByAddressForUpdate("sender1234567890"))
-                                        .thenReturn(Optional.of(senderWallet));
-                        when(transactionRepository.save(any(Transaction.class)))
-                                        .thenAnswer(inv -> {
-                                                Transaction t = inv.getArgument(0);
-                                                t.setId(1L);
-                                                return t;
-                                        });
-
-                        TransactionResponse response = transactionService.transfer(1L, selfTransfer);
-
-                        assertEquals(TransactionStatus.FAILED, response.status());
-                        assertEquals("Cannot transfer to same wallet", response.errorMessage());
+                @DisplayName("should skip the idempotency lookup for a new key")
+                void shouldSkipLookupForNewKey() {
+                        TransactionResponse expected = response("idempotency-key-123");
+                        when(transferProcessor.transferNewKey(1L, transferRequest)).thenReturn(expected);
+
+                        assertSame(expected, fastPathService.transfer(1L, transferRequest));
+
+                        verify(transferProcessor, never()).transfer(any(), any());
                 }
 
                 @Test
-                @DisplayName("should throw exception when sender wallet not found")
-                void shouldThrowExceptionWhenSenderWalletNotFound() {
-                        when(transactionRepository.findByIdempotencyKey(any()))
-                                        .thenReturn(Optional.empty());
-                        when(walletRepository.findByUserIdForUpdate(99L))
-                                        .thenReturn(Optional.empty());
+                @DisplayName("should answer a retry from the cache without touching the processor")
+                void shouldAnswerRetryFromCache() {
+                        TransactionResponse expected = response("idempotency-key-123");
+                        when(transferProcessor.transferNewKey(1L, transferRequest)).thenReturn(expected);
 
-                        assertThrows(WalletNotFoundException.class,
-                                        () -> transactionService.transfer(99L, transferRequest));
+                        fastPathService.transfer(1L, transferRequest);
+                        TransactionResponse retried = fastPathService.transfer(1L, transferRequest);
+
+                        assertSame(expected, retried);
+                        verify(transferProcessor, times(1)).transferNewKey(1L, transferRequest);
+                        verify(transferProcessor, never()).transfer(any(), any());
                 }
 
                 @Test
-                @DisplayName("should throw exception when receiver wallet not found")
-                void shouldThrowExceptionWhenReceiverWalletNotFound() {
-                        when(transactionRepository.findByIdempotencyKey(any()))
-                                        .thenReturn(Optional.empty());
-                        when(walletRepository.findByUserIdForUpdate(1L))
-                                        .thenReturn(Optional.of(senderWallet));
-                        when(walletRepository.findByAddressForUpdate("receiver12345678"))
+                @DisplayName("should return the winner's response on a unique-key violation")
+                void shouldReturnWinnerOnUniqueViolation() {
+                        TransactionResponse winner = response("idempotency-key-123");
+                        when(transferProcessor.transferNewKey(1L, transferRequest))
+                                        .thenThrow(new DuplicateKeyException("duplicate idempotency key"));
+                        when(transferProcessor.findByIdempotencyKey("idempotency-key-123"))
+                                        .thenReturn(Optional.of(winner));
+
+                        assertSame(winner, fastPathService.transfer(1L, transferRequest));
+                }
+
+                @Test
+                @DisplayName("should rethrow a unique-key violation when no winner is found")
+                void shouldRethrowWhenNoWinner() {
+                        when(transferProcessor.transferNewKey(1L, transferRequest))
+                                        .thenThrow(new DuplicateKeyException("duplicate idempotency key"));
+                        when(transferProcessor.findByIdempotencyKey("idempotency-key-123"))
                                         .thenReturn(Optional.empty());
 
-                        assertThrows(WalletNotFoundException.class,
-                                        () -> transactionService.transfer(1L, transferRequest));
+                        assertThrows(DuplicateKeyException.class,
+                                        () -> fastPathService.transfer(1L, transferRequest));
+                }
+
+                private TransactionResponse response(String key) {
+                        return new TransactionResponse(
+                                        1L, "sender1234567890", "receiver12345678",
+                                        BigDecimal.valueOf(200), TransactionStatus.SUCCESS,
+                                        LocalDateTime.now(), key, null);
+                }
+        }
+
+        @Nested
+        @DisplayName("transferBulk()")
+        class TransferBulk {
+
+                @Test
+                @DisplayName("should report per-item results and counts")
+                void shouldReportPerItemResults() {
+                        TransactionRequest unknown = new TransactionRequest(
+                                        "unknown000000000", BigDecimal.TEN, "bulk-key-2");
+                        TransactionResponse success = new TransactionResponse(
+                                        1L, "sender1234567890", "receiver12345678",
+                                        BigDecimal.valueOf(200), TransactionStatus.SUCCESS,
+                                        LocalDateTime.now(), "idempotency-key-123", null);
+                        List<TransactionRequest> requests = List.of(transferRequest, unknown);
+                        when(transferProcessor.transferBulk(1L, requests)).thenReturn(List.of(
+                                        TransferProcessor.BatchOutcome.completed(success),
+                                        TransferProcessor.BatchOutcome.failed(
+                                                        new WalletNotFoundException("unknown000000000"))));
+
+                        BulkTransferResponse response = transactionService.transferBulk(1L, requests);
+
+                        assertEquals(1, response.succeeded());
+                        assertEquals(1, response.failed());
+                        assertSame(success, response.items().get(0).transaction());
+                        assertEquals("bulk-key-2", response.items().get(1).idempotencyKey());
+                        assertNotNull(response.items().get(1).error());
                 }
         }
 
@@ -259,6 +293,66 @@ class TransactionServiceTest {
                 }
         }
 
+        @Nested
+        @DisplayName("findHistory()")
+        class FindHistory {
+
+                @Test
+                @DisplayName("should return a cursor when more rows exist")
+                void shouldReturnCursorWhenMoreRowsExist() {
+                        List<Transaction> rows = List.of(historyRow(3L), historyRow(2L), historyRow(1L));
+                        when(transactionRepository.findHistoryFirstPage("sender1234567890", 3)).thenReturn(rows);
+
+                        TransactionPageResponse page = transactionService.findHistory("sender1234567890", null, 2);
+
+                        assertEquals(2, page.items().size());
+                        TransactionCursor cursor = TransactionCursor.decode(page.nextCursor());
+                        assertEquals(2L, cursor.id());
+                        assertEquals(rows.get(1).getTimestamp(), cursor.timestamp());
+                }
+
+                @Test
+                @DisplayName("should seek past the cursor and end on the last page")
+                void shouldSeekPastCursor() {
+                        Transaction last = historyRow(2L);
+                        String after = TransactionCursor.after(last).encode();
+                        when(transactionRepository.findHistoryAfter("sender1234567890", last.getTimestamp(), 2L, 3))
+                                        .thenReturn(List.of(historyRow(1L)));
+
+                        TransactionPageResponse page = transactionService.findHistory("sender1234567890", after, 2);
+
+                        assertEquals(1, page.items().size());
+                        assertNull(page.nextCursor());
+                }
+
+                @Test
+                @DisplayName("should cap the page size")
+                void shouldCapPageSize() {
+                        when(transactionRepository.findHistoryFirstPage(any(), anyInt())).thenReturn(List.of());
+
+                        transactionService.findHistory("sender1234567890", null, 10_000);
+
+                        verify(transactionRepository).findHistoryFirstPage("sender1234567890",
+                                        TransactionService.MAX_PAGE_SIZE + 1);
+                }
+
+                @Test
+                @DisplayName("should reject a malformed cursor")
+                void shouldRejectMalformedCursor() {
+                        assertThrows(InvalidCursorException.class,
+                                        () -> transactionService.findHistory("sender1234567890", "%%%", 20));
+                }
+
+                private Transaction historyRow(Long id) {
+                        Transaction transaction = new Transaction("sender1234567890", "receiver12345678",
+                                        BigDecimal.TEN, "key-" + id);
+                        transaction.setId(id);
+                        ReflectionTestUtils.setField(transaction, "timestamp",
+                                        LocalDateTime.of(2026, 1, 1, 12, 0).plusSeconds(id));
+                        return transaction;
+                }
+        }
+
         @Nested
         @DisplayName("findByUserId()")
         class FindByUserId {
@@ -0,0 +1,152 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.RetryProperties;
+import com.bootstrap.workshop.config.TransferBatchProperties;
+import com.bootstrap.workshop.dto.TransactionRequest;
+import com.bootstrap.workshop.dto.TransactionResponse;
+import com.bootstrap.workshop.entity.TransactionStatus;
+import com.bootstrap.workshop.exception.TransferBatchTimeoutException;
+import com.bootstrap.workshop.exception.WalletNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferBatcher")
+class TransferBatcherTest {
+
+    @Mock
+    private TransferProcessor transferProcessor;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TransferBatcher transferBatcher;
+
+    @BeforeEach
+    void setUp() {
+        transferBatcher = new TransferBatcher(
+                new TransferBatchProperties(true, 16, 50, 100, 5000),
+                transferProcessor,
+                new TransactionRetryExecutor(new RetryProperties(3, 1, 1, 1.0), registry),
+                registry);
+        transferBatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transferBatcher.stop();
+    }
+
+    @Test
+    @DisplayName("should coalesce concurrent transfers into one batch")
+    void shouldCoalesceConcurrentTransfers() {
+        when(transferProcessor.transferBatch(anyList())).thenAnswer(inv -> {
+            List<TransferProcessor.BatchItem> items = inv.getArgument(0);
+            return items.stream()
+                    .map(item -> new TransferProcessor.BatchOutcome(response(item.request()), null))
+                    .toList();
+        });
+
+        List<CompletableFuture<TransactionResponse>> futures = List.of("k1", "k2", "k3").stream()
+                .map(key -> CompletableFuture.supplyAsync(() -> transferBatcher.transfer(1L, request(key))))
+                .toList();
+
+        List<String> keys = futures.stream().map(f -> f.join().idempotencyKey()).toList();
+
+        assertEquals(List.of("k1", "k2", "k3"), keys.stream().sorted().toList());
+        verify(transferProcessor, atMost(3)).transferBatch(anyList());
+        verify(transferProcessor, never()).transfer(any(), any());
+        assertEquals(3, registry.timer("business.transaction.latency").count());
+    }
+
+    @Test
+    @DisplayName("should rethrow an item failure to its own caller")
+    void shouldRethrowItemFailure() {
+        when(transferProcessor.transferBatch(anyList())).thenReturn(List.of(
+                new TransferProcessor.BatchOutcome(null, new WalletNotFoundException("unknown000000000"))));
+
+        assertThrows(WalletNotFoundException.class, () -> transferBatcher.transfer(1L, request("k1")));
+    }
+
+    @Test
+    @DisplayName("should re-run items individually when the batch fails")
+    void shouldFallBackToSingleTransfers() {
+        TransactionRequest request = request("k1");
+        when(transferProcessor.transferBatch(anyList())).thenThrow(new CannotAcquireLockException("deadlock"));
+        when(transferProcessor.transfer(1L, request)).thenReturn(response(request));
+
+        TransactionResponse response = transferBatcher.transfer(1L, request);
+
+        assertEquals(TransactionStatus.SUCCESS, response.status());
+        verify(transferProcessor).transfer(1L, request);
+    }
+
+    @Test
+    @DisplayName("should run the transfer on the caller's thread once batching has stopped")
+    void shouldRunSingleAfterStop() throws InterruptedException {
+        TransactionRequest request = request("k1");
+        when(transferProcessor.transfer(1L, request)).thenReturn(response(request));
+        transferBatcher.stop();
+
+        TransactionResponse response = transferBatcher.transfer(1L, request);
+
+        assertEquals(TransactionStatus.SUCCESS, response.status());
+        verify(transferProcessor, never()).transferBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("should report a batch still running after the result timeout as a batch timeout")
+    void shouldThrowBatchTimeout() throws InterruptedException {
+        transferBatcher.stop();
+        transferBatcher = new TransferBatcher(
+                new TransferBatchProperties(true, 16, 1, 100, 500),
+                transferProcessor,
+                new TransactionRetryExecutor(new RetryProperties(3, 1, 1, 1.0), registry),
+                registry);
+        transferBatcher.start();
+        CountDownLatch release = new CountDownLatch(1);
+        when(transferProcessor.transferBatch(anyList())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            List<TransferProcessor.BatchItem> items = inv.getArgument(0);
+            return items.stream()
+                    .map(item -> new TransferProcessor.BatchOutcome(response(item.request()), null))
+                    .toList();
+        });
+
+        try {
+            assertThrows(TransferBatchTimeoutException.class, () -> transferBatcher.transfer(1L, request("k1")));
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(1.0, registry.counter("business.transfer.batch.timeout", "reason", "timeout").count());
+        verify(transferProcessor, never()).transfer(any(), any());
+    }
+
+    private TransactionRequest request(String key) {
+        return new TransactionRequest("receiver12345678", BigDecimal.TEN, key);
+    }
+
+    private TransactionResponse response(TransactionRequest request) {
+        return new TransactionResponse(1L, "sender1234567890", request.toWalletAddress(),
+                request.amount(), TransactionStatus.SUCCESS, LocalDateTime.now(),
+                request.idempotencyKey(), null);
+    }
+}
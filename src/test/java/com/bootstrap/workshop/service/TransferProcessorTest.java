@@ -0,0 +1,534 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.WalletProperties;
+import com.bootstrap.workshop.dto.TransactionRequest;
+import com.bootstrap.workshop.dto.TransactionResponse;
+import com.bootstrap.workshop.entity.Transaction;
+import com.bootstrap.workshop.entity.TransactionStatus;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.exception.InsufficientBalanceException;
+import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.repository.TransactionRepository;
+import com.bootstrap.workshop.repository.WalletBalanceView;
+import com.bootstrap.workshop.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferProcessor")
+class TransferProcessorTest {
+
+        @Mock
+        private TransactionRepository transactionRepository;
+
+        @Mock
+        private WalletRepository walletRepository;
+
+        @Mock
+        private io.micrometer.core.instrument.MeterRegistry meterRegistry;
+
+        @Mock
+        private io.micrometer.core.instrument.MeterRegistry.Config registryConfig;
+
+        @Mock
+        private io.micrometer.core.instrument.Clock clock;
+
+        @Mock
+        private io.micrometer.core.instrument.Timer timer;
+
+        @Mock
+        private io.micrometer.core.instrument.Counter counter;
+
+        @Mock
+        private WalletBucketService walletBuckets;
+
+        @Mock
+        private LedgerService ledgerService;
+
+        @Mock
+        private WalletBalanceCache balanceCache;
+
+        @Mock
+        private OutboxService outboxService;
+
+        @Mock
+        private IdempotencyKeyService idempotencyKeyService;
+
+        @Spy
+        private WalletProperties walletProperties = new WalletProperties(null, null, 0);
+
+        @InjectMocks
+        private TransferProcessor transferProcessor;
+
+        private User senderUser;
+        private User receiverUser;
+        private Wallet senderWallet;
+        private Wallet receiverWallet;
+        private TransactionRequest transferRequest;
+
+        @BeforeEach
+        void setUp() {
+                // Mock MeterRegistry for Timer.start()
+                lenient().when(meterRegistry.config()).thenReturn(registryConfig);
+                lenient().when(registryConfig.clock()).thenReturn(clock);
+                lenient().when(clock.monotonicTime()).thenReturn(System.nanoTime());
+
+                // Mock Timer and Counter
+                lenient().when(meterRegistry.timer(anyString())).thenReturn(timer);
+                lenient().when(meterRegistry.counter(anyString(), anyString(), anyString())).thenReturn(counter);
+
+                senderUser = new User("sender@example.com", "Sender", "pass", "Bank", "ACC1", "Addr");
+                senderUser.setId(1L);
+
+                receiverUser = new User("receiver@example.com", "Receiver", "pass", "Bank", "ACC2", "Addr");
+                receiverUser.setId(2L);
+
+                senderWallet = new Wallet("sender1234567890", senderUser);
+                senderWallet.setId(1L);
+                senderWallet.setBalance(BigDecimal.valueOf(1000));
+
+                receiverWallet = new Wallet("receiver12345678", receiverUser);
+                receiverWallet.setId(2L);
+                receiverWallet.setBalance(BigDecimal.valueOf(500));
+
+                transferRequest = new TransactionRequest(
+                                "receiver12345678",
+                                BigDecimal.valueOf(200),
+                                "idempotency-key-123");
+        }
+
+        @Nested
+        @DisplayName("transfer()")
+        class Transfer {
+
+                @Test
+                @DisplayName("should successfully transfer money between wallets")
+                void shouldSuccessfullyTransferMoney() {
+                        when(transactionRepository.findByIdempotencyKey("idempotency-key-123"))
+                                        .thenReturn(Optional.empty());
+                        when(walletRepository.findTransferWalletsForUpdate(1L, "receiver12345678"))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+                        when(walletRepository.save(any(Wallet.class)))
+                                        .thenAnswer(inv -> inv.getArgument(0));
+                        when(transactionRepository.save(any(Transaction.class)))
+                                        .thenAnswer(inv -> {
+                                                Transaction t = inv.getArgument(0);
+                                                t.setId(1L);
+                                                return t;
+                                        });
+
+                        TransactionResponse response = transferProcessor.transfer(1L, transferRequest);
+
+                        assertNotNull(response);
+                        assertEquals(TransactionStatus.SUCCESS, response.status());
+                        assertEquals(BigDecimal.valueOf(200), response.amount());
+
+                        // Verify balances updated
+                        assertEquals(BigDecimal.valueOf(800), senderWallet.getBalance());
+                        assertEquals(BigDecimal.valueOf(700), receiverWallet.getBalance());
+
+                        verify(walletRepository, times(2)).save(any(Wallet.class));
+                        verify(transactionRepository).save(any(Transaction.class));
+                        verify(ledgerService).recordTransfer(1L, 1L, 2L, BigDecimal.valueOf(200));
+                }
+
+                @Test
+                @DisplayName("should return existing transaction for duplicate idempotency key")
+                void shouldReturnExistingTransactionForDuplicateKey() {
+                        Transaction existingTransaction = new Transaction(
+                                        "sender1234567890",
+                                        "receiver12345678",
+                                        BigDecimal.valueOf(200),
+                                        "idempotency-key-123");
+                        existingTransaction.setId(99L);
+                        existingTransaction.markSuccess();
+
+                        when(transactionRepository.findByIdempotencyKey("idempotency-key-123"))
+                                        .thenReturn(Optional.of(existingTransaction));
+
+                        TransactionResponse response = transferProcessor.transfer(1L, transferRequest);
+
+                        assertEquals(99L, response.id());
+                        assertEquals(TransactionStatus.SUCCESS, response.status());
+
+                        // Verify no new transaction created
+                        verify(walletRepository, never()).findTransferWalletsForUpdate(any(), any());
+                        verify(transactionRepository, never()).save(any());
+                }
+
+                @Test
+                @DisplayName("should fail transfer for insufficient balance")
+                void shouldFailTransferForInsufficientBalance() {
+                        TransactionRequest largeRequest = new TransactionRequest(
+                                        "receiver12345678",
+                                        BigDecimal.valueOf(5000), // More than available
+                                        "idempotency-key-456");
+
+                        when(transactionRepository.findByIdempotencyKey("idempotency-key-456"))
+                                        .thenReturn(Optional.empty());
+                        when(walletRepository.findTransferWalletsForUpdate(1L, "receiver12345678"))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+                        when(transactionRepository.save(any(Transaction.class)))
+                                        .thenAnswer(inv -> {
+                                                Transaction t = inv.getArgument(0);
+                                                t.setId(1L);
+                                                return t;
+                                        });
+
+                        TransactionResponse response = transferProcessor.transfer(1L, largeRequest);
+
+                        assertEquals(TransactionStatus.FAILED, response.status());
+                        assertEquals("Insufficient balance", response.errorMessage());
+
+                        // Verify balances NOT updated
+                        assertEquals(BigDecimal.valueOf(1000), senderWallet.getBalance());
+                        verify(walletRepository, never()).save(any());
+                        verify(ledgerService, never()).recordTransfer(any(), any(), any(), any());
+                }
+
+                @Test
+                @DisplayName("should fail transfer to same wallet")
+                void shouldFailTransferToSameWallet() {
+                        TransactionRequest selfTransfer = new TransactionRequest(
+                                        "sender1234567890", // Same as sender
+                                        BigDecimal.valueOf(100),
+                                        "idempotency-key-789");
+
+                        when(transactionRepository.findByIdempotencyKey("idempotency-key-789"))
+                                        .thenReturn(Optional.empty());
+                        when(walletRepository.findTransferWalletsForUpdate(1L, "sender1234567890"))
+                                        .thenReturn(List.of(senderWallet));
+                        when(transactionRepository.save(any(Transaction.class)))
+                                        .thenAnswer(inv -> {
+                                                Transaction t = inv.getArgument(0);
+                                                t.setId(1L);
+                                                return t;
+                                        });
+
+                        TransactionResponse response = transferProcessor.transfer(1L, selfTransfer);
+
+                        assertEquals(TransactionStatus.FAILED, response.status());
+                        assertEquals("Cannot transfer to same wallet", response.errorMessage());
+                }
+
+                @Test
+                @DisplayName("should throw exception when sender wallet not found")
+                void shouldThrowExceptionWhenSenderWalletNotFound() {
+                        when(transactionRepository.findByIdempotencyKey(any()))
+                                        .thenReturn(Optional.empty());
+                        when(walletRepository.findTransferWalletsForUpdate(99L, "receiver12345678"))
+                                        .thenReturn(List.of());
+
+                        assertThrows(WalletNotFoundException.class,
+                                        () -> transferProcessor.transfer(99L, transferRequest));
+                }
+
+                @Test
+                @DisplayName("should throw exception when receiver wallet not found")
+                void shouldThrowExceptionWhenReceiverWalletNotFound() {
+                        when(transactionRepository.findByIdempotencyKey(any()))
+                                        .thenReturn(Optional.empty());
+                        when(walletRepository.findTransferWalletsForUpdate(1L, "receiver12345678"))
+                                        .thenReturn(List.of(senderWallet));
+
+                        assertThrows(WalletNotFoundException.class,
+                                        () -> transferProcessor.transfer(1L, transferRequest));
+                }
+        }
+
+        @Nested
+        @DisplayName("transfer() with atomic engine")
+        class AtomicTransfer {
+
+                @BeforeEach
+                void useAtomicEngine() {
+                        doReturn(WalletProperties.BalanceEngine.ATOMIC).when(walletProperties).engine();
+                        when(transactionRepository.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+                        lenient().when(transactionRepository.save(any(Transaction.class)))
+                                        .thenAnswer(inv -> {
+                                                Transaction t = inv.getArgument(0);
+                                                t.setId(1L);
+                                                return t;
+                                        });
+                }
+
+                @Test
+                @DisplayName("should transfer with a single update statement")
+                void shouldTransferWithSingleUpdate() {
+                        when(walletRepository.transferBalance(1L, "receiver12345678", BigDecimal.valueOf(200)))
+                                        .thenReturn(List.of(
+                                                        row(1L, "sender1234567890", 800),
+                                                        row(2L, "receiver12345678", 700)));
+
+                        TransactionResponse response = transferProcessor.transfer(1L, transferRequest);
+
+                        assertEquals(TransactionStatus.SUCCESS, response.status());
+                        assertEquals("sender1234567890", response.fromWalletAddress());
+                        verify(walletRepository, never()).findTransferWalletsForUpdate(any(), any());
+                        verify(walletRepository, never()).save(any());
+                }
+
+                @Test
+                @DisplayName("should record failed transaction when balance is insufficient")
+                void shouldRecordFailureWhenBalanceInsufficient() {
+                        when(walletRepository.transferBalance(1L, "receiver12345678", BigDecimal.valueOf(200)))
+                                        .thenReturn(List.of());
+                        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(senderWallet));
+                        when(walletRepository.existsByAddress("receiver12345678")).thenReturn(true);
+
+                        TransactionResponse response = transferProcessor.transfer(1L, transferRequest);
+
+                        assertEquals(TransactionStatus.FAILED, response.status());
+                        assertEquals("Insufficient balance", response.errorMessage());
+                }
+
+                @Test
+                @DisplayName("should record failed transaction for self-transfer")
+                void shouldRecordFailureForSelfTransfer() {
+                        TransactionRequest selfTransfer = new TransactionRequest(
+                                        "sender1234567890", BigDecimal.valueOf(100), "idempotency-key-789");
+                        when(walletRepository.transferBalance(1L, "sender1234567890", BigDecimal.valueOf(100)))
+                                        .thenReturn(List.of());
+                        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(senderWallet));
+
+                        TransactionResponse response = transferProcessor.transfer(1L, selfTransfer);
+
+                        assertEquals("Cannot transfer to same wallet", response.errorMessage());
+                }
+
+                @Test
+                @DisplayName("should throw exception when receiver wallet not found")
+                void shouldThrowExceptionWhenReceiverWalletNotFound() {
+                        when(walletRepository.transferBalance(1L, "receiver12345678", BigDecimal.valueOf(200)))
+                                        .thenReturn(List.of());
+                        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(senderWallet));
+                        when(walletRepository.existsByAddress("receiver12345678")).thenReturn(false);
+
+                        assertThrows(WalletNotFoundException.class,
+                                        () -> transferProcessor.transfer(1L, transferRequest));
+                        verify(transactionRepository, never()).save(any());
+                }
+
+                private WalletBalanceView row(Long id, String address, long balance) {
+                        return new BalanceRow(id, address, BigDecimal.valueOf(balance), LocalDateTime.now());
+                }
+        }
+
+        @Nested
+        @DisplayName("transfer() to sharded wallet")
+        class ShardedTransfer {
+
+                @BeforeEach
+                void markRecipientSharded() {
+                        when(walletBuckets.isSharded("receiver12345678")).thenReturn(true);
+                        when(transactionRepository.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+                        lenient().when(transactionRepository.save(any(Transaction.class)))
+                                        .thenAnswer(inv -> {
+                                                Transaction t = inv.getArgument(0);
+                                                t.setId(1L);
+                                                return t;
+                                        });
+                }
+
+                @Test
+                @DisplayName("should lock only the sender and credit a recipient bucket")
+                void shouldLockOnlySenderAndCreditBucket() {
+                        when(walletRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(senderWallet));
+                        when(walletRepository.findByAddress("receiver12345678"))
+                                        .thenReturn(Optional.of(receiverWallet));
+
+                        TransactionResponse response = transferProcessor.transfer(1L, transferRequest);
+
+                        assertEquals(TransactionStatus.SUCCESS, response.status());
+                        assertEquals(BigDecimal.valueOf(800), senderWallet.getBalance());
+                        assertEquals(BigDecimal.valueOf(500), receiverWallet.getBalance());
+                        verify(walletBuckets).credit(2L, BigDecimal.valueOf(200));
+                        verify(ledgerService).recordTransfer(1L, 1L, 2L, BigDecimal.valueOf(200));
+                        verify(walletRepository).save(senderWallet);
+                        verify(walletRepository, never()).save(receiverWallet);
+                        verify(walletRepository, never()).findTransferWalletsForUpdate(any(), any());
+                }
+
+                @Test
+                @DisplayName("should record failed transaction when balance is insufficient")
+                void shouldRecordFailureWhenBalanceInsufficient() {
+                        TransactionRequest largeRequest = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(5000), "idempotency-key-456");
+                        when(walletRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(senderWallet));
+                        when(walletRepository.findByAddress("receiver12345678"))
+                                        .thenReturn(Optional.of(receiverWallet));
+
+                        TransactionResponse response = transferProcessor.transfer(1L, largeRequest);
+
+                        assertEquals("Insufficient balance", response.errorMessage());
+                        verify(walletBuckets, never()).credit(any(), any());
+                }
+        }
+
+        @Nested
+        @DisplayName("transferBatch()")
+        class TransferBatch {
+
+                @BeforeEach
+                void stubSaves() {
+                        lenient().when(transactionRepository.save(any(Transaction.class)))
+                                        .thenAnswer(inv -> inv.getArgument(0));
+                }
+
+                @Test
+                @DisplayName("should apply items in order against shared locked wallets")
+                void shouldApplyItemsInOrder() {
+                        TransactionRequest first = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(600), "batch-key-1");
+                        TransactionRequest second = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(600), "batch-key-2");
+                        when(transactionRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of());
+                        when(walletRepository.findBatchWalletsForUpdate(any(), any()))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+
+                        List<TransferProcessor.BatchOutcome> outcomes = transferProcessor.transferBatch(List.of(
+                                        new TransferProcessor.BatchItem(1L, first),
+                                        new TransferProcessor.BatchItem(1L, second)));
+
+                        assertEquals(TransactionStatus.SUCCESS, outcomes.get(0).response().status());
+                        // Second item sees the balance left by the first one
+                        assertEquals(TransactionStatus.FAILED, outcomes.get(1).response().status());
+                        assertEquals("Insufficient balance", outcomes.get(1).response().errorMessage());
+                        assertEquals(BigDecimal.valueOf(400), senderWallet.getBalance());
+                        assertEquals(BigDecimal.valueOf(1100), receiverWallet.getBalance());
+                        verify(walletRepository, never()).save(any());
+                }
+
+                @Test
+                @DisplayName("should isolate a missing wallet to its own item")
+                void shouldIsolateMissingWallet() {
+                        TransactionRequest unknown = new TransactionRequest(
+                                        "unknown000000000", BigDecimal.TEN, "batch-key-1");
+                        when(transactionRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of());
+                        when(walletRepository.findBatchWalletsForUpdate(any(), any()))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+
+                        List<TransferProcessor.BatchOutcome> outcomes = transferProcessor.transferBatch(List.of(
+                                        new TransferProcessor.BatchItem(1L, unknown),
+                                        new TransferProcessor.BatchItem(1L, transferRequest)));
+
+                        assertInstanceOf(WalletNotFoundException.class, outcomes.get(0).error());
+                        assertEquals(TransactionStatus.SUCCESS, outcomes.get(1).response().status());
+                }
+
+                @Test
+                @DisplayName("should answer repeated idempotency keys with the first result")
+                void shouldAnswerRepeatedKeysWithFirstResult() {
+                        when(transactionRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of());
+                        when(walletRepository.findBatchWalletsForUpdate(any(), any()))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+
+                        List<TransferProcessor.BatchOutcome> outcomes = transferProcessor.transferBatch(List.of(
+                                        new TransferProcessor.BatchItem(1L, transferRequest),
+                                        new TransferProcessor.BatchItem(1L, transferRequest)));
+
+                        assertSame(outcomes.get(0).response(), outcomes.get(1).response());
+                        assertEquals(BigDecimal.valueOf(800), senderWallet.getBalance());
+                        verify(transactionRepository, times(1)).save(any(Transaction.class));
+                }
+        }
+
+        @Nested
+        @DisplayName("transferBulk()")
+        class TransferBulk {
+
+                @BeforeEach
+                void stubSaves() {
+                        lenient().when(transactionRepository.save(any(Transaction.class)))
+                                        .thenAnswer(inv -> inv.getArgument(0));
+                }
+
+                @Test
+                @DisplayName("should apply every item when the balance covers the total")
+                void shouldApplyAllItems() {
+                        TransactionRequest first = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(300), "bulk-key-1");
+                        TransactionRequest second = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(700), "bulk-key-2");
+                        when(transactionRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of());
+                        when(walletRepository.findBatchWalletsForUpdate(any(), any()))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+
+                        List<TransferProcessor.BatchOutcome> outcomes = transferProcessor.transferBulk(
+                                        1L, List.of(first, second));
+
+                        assertEquals(TransactionStatus.SUCCESS, outcomes.get(0).response().status());
+                        assertEquals(TransactionStatus.SUCCESS, outcomes.get(1).response().status());
+                        assertEquals(0, BigDecimal.ZERO.compareTo(senderWallet.getBalance()));
+                        assertEquals(BigDecimal.valueOf(1500), receiverWallet.getBalance());
+                }
+
+                @Test
+                @DisplayName("should apply nothing when the total exceeds the balance")
+                void shouldRejectWhenTotalExceedsBalance() {
+                        TransactionRequest first = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(600), "bulk-key-1");
+                        TransactionRequest second = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(600), "bulk-key-2");
+                        when(transactionRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of());
+                        when(walletRepository.findBatchWalletsForUpdate(any(), any()))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+
+                        assertThrows(InsufficientBalanceException.class,
+                                        () -> transferProcessor.transferBulk(1L, List.of(first, second)));
+
+                        assertEquals(BigDecimal.valueOf(1000), senderWallet.getBalance());
+                        verify(transactionRepository, never()).save(any(Transaction.class));
+                }
+
+                @Test
+                @DisplayName("should not count items to unknown wallets against the balance")
+                void shouldSkipUnknownRecipientsInTotal() {
+                        TransactionRequest unknown = new TransactionRequest(
+                                        "unknown000000000", BigDecimal.valueOf(900), "bulk-key-1");
+                        TransactionRequest known = new TransactionRequest(
+                                        "receiver12345678", BigDecimal.valueOf(900), "bulk-key-2");
+                        when(transactionRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of());
+                        when(walletRepository.findBatchWalletsForUpdate(any(), any()))
+                                        .thenReturn(List.of(senderWallet, receiverWallet));
+
+                        List<TransferProcessor.BatchOutcome> outcomes = transferProcessor.transferBulk(
+                                        1L, List.of(unknown, known));
+
+                        assertInstanceOf(WalletNotFoundException.class, outcomes.get(0).error());
+                        assertEquals(TransactionStatus.SUCCESS, outcomes.get(1).response().status());
+                }
+
+                @Test
+                @DisplayName("should throw when the sender has no wallet")
+                void shouldThrowWhenSenderMissing() {
+                        when(transactionRepository.findByIdempotencyKeyIn(any())).thenReturn(List.of());
+                        when(walletRepository.findBatchWalletsForUpdate(any(), any()))
+                                        .thenReturn(List.of(receiverWallet));
+
+                        assertThrows(WalletNotFoundException.class,
+                                        () -> transferProcessor.transferBulk(1L, List.of(transferRequest)));
+                }
+        }
+
+        private record BalanceRow(Long getId, String getAddress, BigDecimal getBalance, LocalDateTime getCreatedAt)
+                        implements WalletBalanceView {
+        }
+}
@@ -0,0 +1,221 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.PasswordHashingProperties;
+import com.bootstrap.workshop.config.UserImportProperties;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserImportService")
+class UserImportServiceTest {
+
+    private static final String CSV_HEADER = "email,name,password,bank,accountId,address\n";
+    // BCrypt of "password123", cost 4
+    private static final String EXISTING_HASH = new BCryptPasswordEncoder(4).encode("password123");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserImportWriter writer;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserImportService importService;
+
+    @AfterEach
+    void tearDown() {
+        if (importService != null) {
+            importService.close();
+        }
+    }
+
+    private UserImportService service(int chunkSize) {
+        importService = new UserImportService(new UserImportProperties(chunkSize, 2, 0),
+                new PasswordHashingProperties(4, 1, 0, 0), userRepository, writer, validator, meterRegistry);
+        return importService;
+    }
+
+    private static ByteArrayInputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<User>> insertedChunks(int calls) {
+        ArgumentCaptor<List<User>> captor = ArgumentCaptor.forClass(List.class);
+        verify(writer, times(calls)).insert(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("should import CSV rows chunk by chunk with hashed passwords and report bad rows")
+    void shouldImportCsvInChunks() throws Exception {
+        String csv = CSV_HEADER
+                + "a@example.com,Alice,password123,Bank,ACC1,\"1 Main St, Springfield\"\n"
+                + "not-an-email,Bob,password123,Bank,ACC2,Addr\n"
+                + "b@example.com,Bob,password123,Bank,ACC2\n"
+                + "\n"
+                + "c@example.com,Carol,password123,Bank,ACC3,Addr\n"
+                + "d@example.com,Dave,password123,Bank,ACC4,Addr\n";
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+        UserImportService.UserImportResult result = service(2).importUsers(input(csv), UserImportFormat.CSV, report);
+
+        assertEquals(5, result.rows());
+        assertEquals(3, result.imported());
+        assertEquals(2, result.failed());
+        List<List<User>> chunks = insertedChunks(2);
+        assertEquals(List.of("a@example.com", "c@example.com"), chunks.get(0).stream().map(User::getEmail).toList());
+        assertEquals(List.of("d@example.com"), chunks.get(1).stream().map(User::getEmail).toList());
+        User alice = chunks.get(0).get(0);
+        assertEquals("1 Main St, Springfield", alice.getAddress());
+        assertTrue(new BCryptPasswordEncoder().matches("password123", alice.getPassword()));
+
+        String[] lines = report.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("{\"type\":\"error\",\"line\":3,\"email\":\"not-an-email\",\"error\":\"Invalid email format\"}",
+                lines[0]);
+        assertEquals("{\"type\":\"error\",\"line\":4,\"email\":null,\"error\":\"Expected 6 fields, found 5\"}",
+                lines[1]);
+        assertEquals("{\"type\":\"progress\",\"rows\":5,\"imported\":2,\"failed\":2}", lines[2]);
+        assertTrue(lines[lines.length - 1].startsWith("{\"type\":\"summary\",\"rows\":5,\"imported\":3,\"failed\":2,"));
+        assertEquals(3.0, meterRegistry.counter("business.user.import.rows", "outcome", "imported").count());
+    }
+
+    @Test
+    @DisplayName("should keep existing BCrypt hashes and skip repeated or registered emails")
+    void shouldImportNdjsonWithExistingHashes() throws Exception {
+        when(userRepository.findEmailsIn(anyCollection())).thenReturn(List.of("taken@example.com"));
+        String ndjson = "{\"email\":\"a@example.com\",\"name\":\"Alice\",\"passwordHash\":\"" + EXISTING_HASH
+                + "\",\"bank\":\"Bank\",\"accountId\":\"ACC1\",\"address\":\"Addr\"}\n"
+                + "{\"email\":\"a@example.com\",\"name\":\"Again\",\"password\":\"password123\",\"bank\":\"Bank\","
+                + "\"accountId\":\"ACC2\",\"address\":\"Addr\"}\n"
+                + "{\"email\":\"taken@example.com\",\"name\":\"Taken\",\"password\":\"password123\",\"bank\":\"Bank\","
+                + "\"accountId\":\"ACC3\",\"address\":\"Addr\"}\n"
+                + "{\"email\":\"b@example.com\",\"name\":\"Bob\",\"passwordHash\":\"plain-text-password\","
+                + "\"bank\":\"Bank\",\"accountId\":\"ACC4\",\"address\":\"Addr\"}\n"
+                + "{\"email\": [\"nested\"]}\n";
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+        UserImportService.UserImportResult result = service(10).importUsers(input(ndjson), UserImportFormat.NDJSON, report);
+
+        assertEquals(5, result.rows());
+        assertEquals(1, result.imported());
+        assertEquals(4, result.failed());
+        User alice = insertedChunks(1).getFirst().getFirst();
+        assertEquals(EXISTING_HASH, alice.getPassword());
+        String text = report.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("\"line\":2,\"email\":\"a@example.com\",\"error\":\"Duplicate email in import\""));
+        assertTrue(text.contains("\"line\":3,\"email\":\"taken@example.com\",\"error\":\"Email already registered\""));
+        assertTrue(text.contains("\"line\":4,\"email\":\"b@example.com\",\"error\":\"passwordHash is not a BCrypt hash\""));
+        assertTrue(text.contains("\"line\":5,\"email\":null,\"error\":\"Malformed JSON: nested value in field email\""));
+    }
+
+    @Test
+    @DisplayName("should retry a chunk row by row when a concurrent signup took an email")
+    void shouldFallBackToSingleRowsOnUniqueViolation() throws Exception {
+        List<String> attempted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> attempted.add(user.getEmail()));
+            if (users.size() > 1 || users.getFirst().getEmail().equals("b@example.com")) {
+                throw uniqueViolation(User.EMAIL_CONSTRAINT);
+            }
+            if (users.getFirst().getEmail().equals("c@example.com")) {
+                throw uniqueViolation("wallets_address_key");
+            }
+            return null;
+        }).when(writer).insert(anyList());
+        String csv = CSV_HEADER
+                + "a@example.com,Alice,password123,Bank,ACC1,Addr\n"
+                + "b@example.com,Bob,password123,Bank,ACC2,Addr\n"
+                + "c@example.com,Carol,password123,Bank,ACC3,Addr\n";
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+        UserImportService.UserImportResult result = service(10).importUsers(input(csv), UserImportFormat.CSV, report);
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(List.of("a@example.com", "b@example.com", "c@example.com",
+                "a@example.com", "b@example.com", "c@example.com"), attempted);
+        String text = report.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("\"line\":3,\"email\":\"b@example.com\",\"error\":\"Email already registered\""));
+        assertTrue(text.contains("\"line\":4,\"email\":\"c@example.com\","
+                + "\"error\":\"duplicate key value violates unique constraint \\\"wallets_address_key\\\"\""));
+    }
+
+    @Test
+    @DisplayName("should fail the import on errors other than unique violations")
+    void shouldRethrowOtherWriteFailures() {
+        doThrow(new CannotCreateTransactionException("Connection refused")).when(writer).insert(anyList());
+        String csv = CSV_HEADER + "a@example.com,Alice,password123,Bank,ACC1,Addr\n";
+
+        assertThrows(CannotCreateTransactionException.class,
+                () -> service(10).importUsers(input(csv), UserImportFormat.CSV, new ByteArrayOutputStream()));
+        verify(writer, times(1)).insert(anyList());
+    }
+
+    private static ConstraintViolationException uniqueViolation(String constraint) {
+        SQLException cause = new SQLException(
+                "duplicate key value violates unique constraint \"" + constraint + "\"", "23505");
+        return new ConstraintViolationException("could not execute statement", cause, constraint);
+    }
+
+    @Nested
+    @DisplayName("UserImportReader")
+    class Reader {
+
+        @Test
+        @DisplayName("should parse quoted CSV fields")
+        void shouldParseQuotedCsvFields() {
+            assertEquals(List.of("a", "b, \"c\"", "", "d"),
+                    UserImportReader.parseCsvLine("a,\"b, \"\"c\"\"\",,d"));
+            assertThrows(IllegalArgumentException.class, () -> UserImportReader.parseCsvLine("a,\"b"));
+        }
+
+        @Test
+        @DisplayName("should parse flat JSON objects with escapes and literals")
+        void shouldParseFlatJson() {
+            Map<String, String> fields = UserImportReader.parseJsonLine(
+                    " {\"email\" : \"a\\u0040b.com\", \"name\":\"Line\\nBreak\", \"id\": 42, \"bank\": null} ");
+
+            assertEquals("a@b.com", fields.get("email"));
+            assertEquals("Line\nBreak", fields.get("name"));
+            assertEquals("42", fields.get("id"));
+            assertTrue(fields.containsKey("bank"));
+            assertNull(fields.get("bank"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> UserImportReader.parseJsonLine("{\"email\":\"a\"} trailing"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> UserImportReader.parseJsonLine("{\"email\":\"a"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> UserImportReader.parseJsonLine("[\"a@b.com\"]"));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bootstrap.workshop.service;
 
+import com.bootstrap.workshop.config.WalletProperties;
 import com.bootstrap.workshop.dto.UserRegistrationRequest;
 import com.bootstrap.workshop.dto.UserResponse;
 import com.bootstrap.workshop.dto.UserUpdateRequest;
@@ -7,9 +8,13 @@ import com.bootstrap.workshop.entity.Role;
 import com.bootstrap.workshop.entity.User;
 import com.bootstrap.workshop.entity.Wallet;
 import com.bootstrap.workshop.exception.UserAlreadyExistsException;
+import com.bootstrap.workshop.exception.UserHasLedgerHistoryException;
 import com.bootstrap.workshop.exception.UserNotFoundException;
+import com.bootstrap.workshop.repository.LedgerEntryRepository;
 import com.bootstrap.workshop.repository.UserRepository;
 import com.bootstrap.workshop.repository.WalletRepository;
+import com.bootstrap.workshop.security.PrincipalCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,10 +22,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +48,9 @@ class UserServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -49,6 +60,18 @@ class UserServiceTest {
     @Mock
     private io.micrometer.core.instrument.Counter counter;
 
+    @Mock
+    private WalletBalanceCache balanceCache;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private WalletAddressGenerator addressGenerator = new WalletAddressGenerator(new WalletProperties(null, null, 0));
+
     @InjectMocks
     private UserService userService;
 
@@ -91,11 +114,9 @@ class UserServiceTest {
         @Test
         @DisplayName("should register new user and create wallet")
         void shouldRegisterNewUserAndCreateWallet() {
-            when(userRepository.existsByEmail(anyString())).thenReturn(false);
-            when(walletRepository.existsByAddress(anyString())).thenReturn(false);
             when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
-            when(userRepository.save(any(User.class))).thenReturn(testUser);
-            when(walletRepository.save(any(Wallet.class))).thenReturn(testWallet);
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+            when(walletRepository.save(any(Wallet.class))).thenAnswer(inv -> inv.getArgument(0));
 
             UserResponse response = userService.register(registrationRequest);
 
@@ -104,24 +125,50 @@ class UserServiceTest {
             assertEquals("Test User", response.name());
             assertEquals(Role.USER, response.role());
             assertNotNull(response.walletAddress());
-            assertEquals(16, response.walletAddress().length());
+            assertEquals(addressGenerator.addressFor(1L), response.walletAddress());
 
-            verify(userRepository).save(any(User.class));
+            verify(userRepository).saveAndFlush(any(User.class));
+            verify(userRepository, never()).existsByEmail(anyString());
+            verify(walletRepository, never()).existsByAddress(anyString());
             verify(walletRepository).save(any(Wallet.class));
+            verify(outboxService).recordUserRegistered(1L, response.walletAddress());
         }
 
         @Test
         @DisplayName("should throw exception when email already exists")
         void shouldThrowExceptionWhenEmailExists() {
-            when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+            when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+            when(userRepository.saveAndFlush(any(User.class)))
+                    .thenThrow(uniqueViolation(User.EMAIL_CONSTRAINT));
 
             assertThrows(UserAlreadyExistsException.class, () -> userService.register(registrationRequest));
 
-            verify(userRepository, never()).save(any());
+            verify(walletRepository, never()).save(any());
+            verify(outboxService, never()).recordUserRegistered(any(), any());
+        }
+
+        @Test
+        @DisplayName("should rethrow integrity violations other than a taken email")
+        void shouldRethrowOtherIntegrityViolations() {
+            when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+            DataIntegrityViolationException notNull = new DataIntegrityViolationException("could not execute statement",
+                    new SQLException("null value in column \"bank\" violates not-null constraint", "23502"));
+            when(userRepository.saveAndFlush(any(User.class))).thenThrow(notNull);
+
+            assertSame(notNull, assertThrows(DataIntegrityViolationException.class,
+                    () -> userService.register(registrationRequest)));
+
             verify(walletRepository, never()).save(any());
         }
     }
 
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        SQLException cause = new SQLException(
+                "duplicate key value violates unique constraint \"" + constraint + "\"", "23505");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", cause, constraint));
+    }
+
     @Nested
     @DisplayName("findById()")
     class FindById {
@@ -186,6 +233,7 @@ class UserServiceTest {
 
             assertEquals("Updated Name", response.name());
             verify(userRepository).save(any(User.class));
+            verify(principalCache).evictAfterCommit(1L);
         }
 
         @Test
@@ -211,6 +259,20 @@ class UserServiceTest {
             assertDoesNotThrow(() -> userService.delete(1L));
 
             verify(userRepository).deleteById(1L);
+            verify(principalCache).evictAfterCommit(1L);
+        }
+
+        @Test
+        @DisplayName("should refuse to delete a user whose wallet has ledger history")
+        void shouldRefuseDeleteWithLedgerHistory() {
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(testWallet));
+            when(ledgerEntryRepository.existsByWalletId(testWallet.getId())).thenReturn(true);
+
+            assertThrows(UserHasLedgerHistoryException.class, () -> userService.delete(1L));
+
+            verify(userRepository, never()).deleteById(any());
+            verify(principalCache, never()).evictAfterCommit(any());
         }
 
         @Test
@@ -0,0 +1,51 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.WalletProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WalletAddressGenerator")
+class WalletAddressGeneratorTest {
+
+    private final WalletAddressGenerator generator = new WalletAddressGenerator(new WalletProperties(null, null, 0));
+
+    @Test
+    @DisplayName("should render 16 lowercase hex characters")
+    void shouldRenderSixteenHexCharacters() {
+        for (long id : new long[] {0L, 1L, 42L, Long.MAX_VALUE, -1L}) {
+            assertTrue(generator.addressFor(id).matches("[0-9a-f]{16}"));
+        }
+    }
+
+    @Test
+    @DisplayName("should give distinct addresses to consecutive ids")
+    void shouldGiveDistinctAddresses() {
+        Set<String> addresses = new HashSet<>();
+        for (long id = 1; id <= 100_000; id++) {
+            assertTrue(addresses.add(generator.addressFor(id)));
+        }
+    }
+
+    @Test
+    @DisplayName("should be a permutation of the id space")
+    void shouldBeInvertible() {
+        for (long id : new long[] {0L, 1L, 2L, 1_000_000L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertEquals(id, generator.unpermute(generator.permute(id)));
+        }
+    }
+
+    @Test
+    @DisplayName("should depend on the configured key and be stable for it")
+    void shouldDependOnKey() {
+        WalletAddressGenerator other = new WalletAddressGenerator(new WalletProperties(null, null, 7L));
+        WalletAddressGenerator same = new WalletAddressGenerator(new WalletProperties(null, null, 0));
+
+        assertNotEquals(generator.addressFor(1L), other.addressFor(1L));
+        assertEquals(generator.addressFor(1L), same.addressFor(1L));
+    }
+}
@@ -0,0 +1,89 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.BalanceCacheProperties;
+import com.bootstrap.workshop.dto.WalletResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WalletBalanceCache")
+class WalletBalanceCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WalletBalanceCache cache;
+    private AtomicInteger loads;
+    private Function<Long, WalletResponse> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new WalletBalanceCache(new BalanceCacheProperties(true, 100, 60_000), meterRegistry);
+        loads = new AtomicInteger();
+        loader = userId -> new WalletResponse(userId, "abc123def4567890",
+                BigDecimal.valueOf(loads.incrementAndGet()), LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should load once and serve hits from memory")
+    void shouldServeHitsFromMemory() {
+        cache.get(1L, loader);
+        WalletResponse second = cache.get(1L, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(BigDecimal.ONE, second.balance());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("should evict immediately outside a transaction")
+    void shouldEvictImmediatelyOutsideTransaction() {
+        cache.get(1L, loader);
+
+        cache.evictAfterCommit(1L);
+
+        assertEquals(BigDecimal.valueOf(2), cache.get(1L, loader).balance());
+    }
+
+    @Test
+    @DisplayName("should evict by address only after commit")
+    void shouldEvictByAddressAfterCommit() {
+        cache.get(1L, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit("abc123def4567890");
+        assertEquals(BigDecimal.ONE, cache.get(1L, loader).balance());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(BigDecimal.valueOf(2), cache.get(1L, loader).balance());
+    }
+
+    @Test
+    @DisplayName("should bypass the cache when disabled")
+    void shouldBypassWhenDisabled() {
+        WalletBalanceCache disabled = new WalletBalanceCache(
+                new BalanceCacheProperties(false, 100, 60_000), meterRegistry);
+
+        disabled.get(1L, loader);
+        disabled.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
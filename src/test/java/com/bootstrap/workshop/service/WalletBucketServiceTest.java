@@ -0,0 +1,112 @@
+package com.bootstrap.workshop.service;
+
+import com.bootstrap.workshop.config.WalletProperties;
+import com.bootstrap.workshop.entity.User;
+import com.bootstrap.workshop.entity.Wallet;
+import com.bootstrap.workshop.repository.WalletBalanceBucketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalletBucketService")
+class WalletBucketServiceTest {
+
+    private static final String HOT_ADDRESS = "hot0000000000001";
+
+    @Mock
+    private WalletBalanceBucketRepository bucketRepository;
+
+    private WalletBucketService walletBuckets;
+    private Wallet hotWallet;
+
+    @BeforeEach
+    void setUp() {
+        WalletProperties properties = new WalletProperties(null,
+                new WalletProperties.Sharding(Set.of(HOT_ADDRESS), 4), 0);
+        walletBuckets = new WalletBucketService(bucketRepository, properties, new SimpleMeterRegistry());
+
+        User user = new User("hot@example.com", "Hot", "pass", "Bank", "ACC", "Addr");
+        user.setId(1L);
+        hotWallet = new Wallet(HOT_ADDRESS, user);
+        hotWallet.setId(7L);
+        hotWallet.setBalance(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    @DisplayName("should only treat configured addresses as sharded")
+    void shouldOnlyTreatConfiguredAddressesAsSharded() {
+        assertTrue(walletBuckets.enabled());
+        assertTrue(walletBuckets.isSharded(HOT_ADDRESS));
+        assertFalse(walletBuckets.isSharded("cold000000000001"));
+    }
+
+    @Nested
+    @DisplayName("credit()")
+    class Credit {
+
+        @Test
+        @DisplayName("should credit a bucket within the configured range")
+        void shouldCreditBucketWithinRange() {
+            for (int i = 0; i < 20; i++) {
+                walletBuckets.credit(7L, BigDecimal.TEN);
+            }
+
+            verify(bucketRepository, times(20)).credit(eq(7L),
+                    intThat(bucket -> bucket >= 0 && bucket < 4), eq(BigDecimal.TEN));
+        }
+
+        @Test
+        @DisplayName("should reject non-positive amounts")
+        void shouldRejectNonPositiveAmounts() {
+            assertThrows(IllegalArgumentException.class, () -> walletBuckets.credit(7L, BigDecimal.ZERO));
+            verify(bucketRepository, never()).credit(any(), anyInt(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("ensureAvailable()")
+    class EnsureAvailable {
+
+        @Test
+        @DisplayName("should not sweep when the wallet row covers the amount")
+        void shouldNotSweepWhenRowCoversAmount() {
+            walletBuckets.ensureAvailable(hotWallet, BigDecimal.valueOf(50));
+
+            verify(bucketRepository, never()).drain(any());
+            assertEquals(BigDecimal.valueOf(100), hotWallet.getBalance());
+        }
+
+        @Test
+        @DisplayName("should sweep buckets into the wallet row when short")
+        void shouldSweepBucketsWhenShort() {
+            when(bucketRepository.drain(7L)).thenReturn(List.of(BigDecimal.valueOf(30), BigDecimal.valueOf(70)));
+
+            walletBuckets.ensureAvailable(hotWallet, BigDecimal.valueOf(150));
+
+            assertEquals(BigDecimal.valueOf(200), hotWallet.getBalance());
+        }
+    }
+
+    @Test
+    @DisplayName("should aggregate row and bucket balances")
+    void shouldAggregateRowAndBucketBalances() {
+        when(bucketRepository.sumBalanceByWalletId(7L)).thenReturn(BigDecimal.valueOf(25));
+
+        assertEquals(BigDecimal.valueOf(125), walletBuckets.totalBalance(hotWallet));
+    }
+}
@@ -1,12 +1,16 @@
 package com.bootstrap.workshop.service;
 
+import com.bootstrap.workshop.config.BalanceCacheProperties;
+import com.bootstrap.workshop.config.WalletProperties;
 import com.bootstrap.workshop.dto.WalletOperationRequest;
 import com.bootstrap.workshop.dto.WalletResponse;
 import com.bootstrap.workshop.entity.User;
 import com.bootstrap.workshop.entity.Wallet;
 import com.bootstrap.workshop.exception.InsufficientBalanceException;
 import com.bootstrap.workshop.exception.WalletNotFoundException;
+import com.bootstrap.workshop.repository.WalletBalanceView;
 import com.bootstrap.workshop.repository.WalletRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -31,6 +36,22 @@ class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private WalletBucketService walletBuckets;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private WalletProperties walletProperties = new WalletProperties(null, null, 0);
+
+    @Spy
+    private WalletBalanceCache balanceCache = new WalletBalanceCache(
+            new BalanceCacheProperties(false, 0, 0), new SimpleMeterRegistry());
+
     @InjectMocks
     private WalletService walletService;
 
@@ -88,6 +109,8 @@ class WalletServiceTest {
 
             assertEquals(BigDecimal.valueOf(1500), response.balance());
             verify(walletRepository).save(any(Wallet.class));
+            verify(ledgerService).recordDeposit(1L, BigDecimal.valueOf(500));
+            verify(outboxService).recordDeposit(testWallet.getAddress(), BigDecimal.valueOf(500));
         }
 
         @Test
@@ -116,6 +139,8 @@ class WalletServiceTest {
 
             assertEquals(BigDecimal.valueOf(700), response.balance());
             verify(walletRepository).save(any(Wallet.class));
+            verify(ledgerService).recordWithdrawal(1L, BigDecimal.valueOf(300));
+            verify(outboxService).recordWithdrawal(testWallet.getAddress(), BigDecimal.valueOf(300));
         }
 
         @Test
@@ -128,6 +153,8 @@ class WalletServiceTest {
             assertThrows(InsufficientBalanceException.class, () -> walletService.withdraw(1L, request));
 
             verify(walletRepository, never()).save(any());
+            verify(ledgerService, never()).recordWithdrawal(any(), any());
+            verify(outboxService, never()).recordWithdrawal(any(), any());
         }
 
         @Test
@@ -163,4 +190,128 @@ class WalletServiceTest {
             assertThrows(WalletNotFoundException.class, () -> walletService.getByAddress("invalid"));
         }
     }
+
+    @Nested
+    @DisplayName("atomic engine")
+    class AtomicEngine {
+
+        @BeforeEach
+        void useAtomicEngine() {
+            doReturn(WalletProperties.BalanceEngine.ATOMIC).when(walletProperties).engine();
+        }
+
+        @Test
+        @DisplayName("should deposit with a single update")
+        void shouldDepositWithSingleUpdate() {
+            when(walletRepository.creditByUserId(1L, BigDecimal.valueOf(500)))
+                    .thenReturn(Optional.of(row(BigDecimal.valueOf(1500))));
+
+            WalletResponse response = walletService.deposit(1L, new WalletOperationRequest(BigDecimal.valueOf(500)));
+
+            assertEquals(BigDecimal.valueOf(1500), response.balance());
+            verify(walletRepository, never()).findByUserIdForUpdate(any());
+            verify(walletRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should throw exception when deposit finds no wallet")
+        void shouldThrowExceptionWhenDepositFindsNoWallet() {
+            when(walletRepository.creditByUserId(99L, BigDecimal.TEN)).thenReturn(Optional.empty());
+
+            assertThrows(WalletNotFoundException.class,
+                    () -> walletService.deposit(99L, new WalletOperationRequest(BigDecimal.TEN)));
+        }
+
+        @Test
+        @DisplayName("should withdraw with a single update")
+        void shouldWithdrawWithSingleUpdate() {
+            when(walletRepository.debitByUserId(1L, BigDecimal.valueOf(300)))
+                    .thenReturn(Optional.of(row(BigDecimal.valueOf(700))));
+
+            WalletResponse response = walletService.withdraw(1L, new WalletOperationRequest(BigDecimal.valueOf(300)));
+
+            assertEquals(BigDecimal.valueOf(700), response.balance());
+            verify(walletRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should throw insufficient balance when update matches no row")
+        void shouldThrowInsufficientBalanceWhenUpdateMatchesNoRow() {
+            WalletOperationRequest request = new WalletOperationRequest(BigDecimal.valueOf(5000));
+            when(walletRepository.debitByUserId(1L, BigDecimal.valueOf(5000))).thenReturn(Optional.empty());
+            when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(testWallet));
+
+            assertThrows(InsufficientBalanceException.class, () -> walletService.withdraw(1L, request));
+        }
+
+        @Test
+        @DisplayName("should throw wallet not found when withdraw finds no wallet")
+        void shouldThrowWalletNotFoundWhenWithdrawFindsNoWallet() {
+            when(walletRepository.debitByUserId(99L, BigDecimal.TEN)).thenReturn(Optional.empty());
+            when(walletRepository.findByUserId(99L)).thenReturn(Optional.empty());
+
+            assertThrows(WalletNotFoundException.class,
+                    () -> walletService.withdraw(99L, new WalletOperationRequest(BigDecimal.TEN)));
+        }
+
+        private WalletBalanceView row(BigDecimal balance) {
+            return new BalanceRow(1L, "abc123def4567890", balance, LocalDateTime.now());
+        }
+    }
+
+    @Nested
+    @DisplayName("sharded wallet")
+    class ShardedWallet {
+
+        @BeforeEach
+        void markWalletSharded() {
+            lenient().when(walletBuckets.enabled()).thenReturn(true);
+            when(walletBuckets.isSharded("abc123def4567890")).thenReturn(true);
+        }
+
+        @Test
+        @DisplayName("should report aggregated balance")
+        void shouldReportAggregatedBalance() {
+            when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(testWallet));
+            when(walletBuckets.totalBalance(testWallet)).thenReturn(BigDecimal.valueOf(1750));
+
+            WalletResponse response = walletService.getBalance(1L);
+
+            assertEquals(BigDecimal.valueOf(1750), response.balance());
+        }
+
+        @Test
+        @DisplayName("should credit a bucket without locking the wallet")
+        void shouldCreditBucketWithoutLockingWallet() {
+            when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(testWallet));
+            when(walletBuckets.totalBalance(testWallet)).thenReturn(BigDecimal.valueOf(1500));
+
+            WalletResponse response = walletService.deposit(1L, new WalletOperationRequest(BigDecimal.valueOf(500)));
+
+            assertEquals(BigDecimal.valueOf(1500), response.balance());
+            verify(walletBuckets).credit(1L, BigDecimal.valueOf(500));
+            verify(walletRepository, never()).findByUserIdForUpdate(any());
+        }
+
+        @Test
+        @DisplayName("should sweep buckets before withdrawing")
+        void shouldSweepBucketsBeforeWithdrawing() {
+            WalletOperationRequest request = new WalletOperationRequest(BigDecimal.valueOf(1200));
+            when(walletRepository.findByUserIdForUpdate(1L)).thenReturn(Optional.of(testWallet));
+            doAnswer(inv -> {
+                testWallet.setBalance(BigDecimal.valueOf(1500));
+                return null;
+            }).when(walletBuckets).ensureAvailable(testWallet, BigDecimal.valueOf(1200));
+            when(walletRepository.save(any(Wallet.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(walletBuckets.totalBalance(testWallet)).thenAnswer(inv -> testWallet.getBalance());
+
+            WalletResponse response = walletService.withdraw(1L, request);
+
+            assertEquals(BigDecimal.valueOf(300), response.balance());
+        }
+    }
+
+    private record BalanceRow(Long getId, String getAddress, BigDecimal getBalance, LocalDateTime getCreatedAt)
+            implements WalletBalanceView {
+    }
 }